@@ -0,0 +1,198 @@
+/*
+ * Copyright 2026 Vitaly Litvak (vitavaque@gmail.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package su.litvak.chromecast.api.v2;
+
+import su.litvak.chromecast.api.v2.ChromeCastSpontaneousEvent.SpontaneousEventType;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * <p>Channel to a custom namespace of the running receiver application, see
+ * {@link ChromeCast#openAppChannel(String)}.</p>
+ *
+ * <p>Application is looked up once, when channel is opened, so messages are sent straight to it, without requesting
+ * status before each one. Channel follows the application through 'RECEIVER_STATUS' and 'CLOSE' events: new session
+ * of the same application is picked up, and sending fails with {@link ChromeCastException} once another application
+ * (or none) is running.</p>
+ *
+ * <p>Messages received from application in this namespace are put into a bounded queue of the channel, see
+ * {@link #poll(long, TimeUnit)}. Once it is full, the oldest message is dropped.</p>
+ */
+public final class AppChannel implements Closeable {
+    /**
+     * Default number of received messages kept until they are taken.
+     */
+    public static final int DEFAULT_CAPACITY = 256;
+
+    private final ChromeCast chromeCast;
+    private final String namespace;
+    private final String appId;
+    /**
+     * Running application or <code>null</code> if it has to be looked up again.
+     */
+    private volatile Application application;
+    private final BlockingQueue<AppEvent> received;
+    private final AtomicLong dropped = new AtomicLong();
+
+    private final ChromeCastSpontaneousEventListener listener = new ChromeCastSpontaneousEventListener() {
+        @Override
+        public void spontaneousEventReceived(ChromeCastSpontaneousEvent event) {
+            if (event.getType() == SpontaneousEventType.APPEVENT) {
+                enqueue(event.getData(AppEvent.class));
+            } else if (event.getType() == SpontaneousEventType.STATUS) {
+                statusReceived(event.getData(Status.class));
+            } else if (event.getType() == SpontaneousEventType.CLOSE) {
+                application = null;
+            }
+        }
+    };
+
+    AppChannel(ChromeCast chromeCast, String namespace, Application application, int capacity) {
+        this.chromeCast = chromeCast;
+        this.namespace = namespace;
+        this.appId = application.id;
+        this.application = application;
+        this.received = new ArrayBlockingQueue<AppEvent>(capacity);
+        chromeCast.registerListener(listener, EnumSet.of(SpontaneousEventType.APPEVENT,
+                SpontaneousEventType.STATUS, SpontaneousEventType.CLOSE), namespace);
+    }
+
+    private void enqueue(AppEvent event) {
+        while (!received.offer(event)) {
+            if (received.poll() != null) {
+                dropped.incrementAndGet();
+            }
+        }
+    }
+
+    private void statusReceived(Status status) {
+        Application running = status.getRunningApp();
+        application = running != null && appId.equals(running.id) ? running : null;
+    }
+
+    /**
+     * @return application messages are sent to, looked up again if it has changed
+     * @throws ChromeCastException if application is no longer running
+     */
+    private Application application() throws IOException {
+        Application current = application;
+        if (current == null) {
+            Status status = chromeCast.getStatus();
+            statusReceived(status);
+            current = application;
+            if (current == null) {
+                throw new ChromeCastException("Application " + appId + " is not running in ChromeCast");
+            }
+        }
+        return current;
+    }
+
+    private String transportId() throws IOException {
+        return chromeCast.getTransportId(application());
+    }
+
+    /**
+     * Sends request to application without waiting for response.
+     *
+     * @param request           request object
+     * @param responseClass     class of the response for proper deserialization
+     * @param <T>               type of response
+     * @return                  future completed with deserialized response
+     * @throws IOException if request could not be sent
+     */
+    public <T extends Response> ChromeCastFuture<T> sendAsync(Request request, Class<T> responseClass)
+            throws IOException {
+        return chromeCast.channel().sendGenericRequestAsync(transportId(), namespace, request, responseClass);
+    }
+
+    /**
+     * Sends request to application and waits for response.
+     *
+     * @param request           request object
+     * @param responseClass     class of the response for proper deserialization
+     * @param <T>               type of response
+     * @return                  deserialized response
+     * @throws IOException
+     */
+    public <T extends Response> T send(Request request, Class<T> responseClass) throws IOException {
+        return chromeCast.channel().sendGenericRequest(transportId(), namespace, request, responseClass);
+    }
+
+    /**
+     * Sends request, which expects no response, to application. Returns once request is written.
+     *
+     * @param request request object
+     * @throws IOException if request could not be sent
+     */
+    public void post(Request request) throws IOException {
+        chromeCast.channel().sendGenericRequestAsync(transportId(), namespace, request, null);
+    }
+
+    /**
+     * Sends requests, which expect no response, to application in a single write.
+     *
+     * @param requests request objects in order they are sent
+     * @throws IOException if requests could not be sent
+     */
+    public void postAll(List<? extends Request> requests) throws IOException {
+        if (!requests.isEmpty()) {
+            chromeCast.channel().sendGenericRequests(transportId(), namespace, requests);
+        }
+    }
+
+    /**
+     * Takes the oldest message received from application in this namespace, waiting for it if necessary.
+     *
+     * @return received message or <code>null</code> if nothing was received within specified time
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public AppEvent poll(long timeout, TimeUnit unit) throws InterruptedException {
+        return received.poll(timeout, unit);
+    }
+
+    /**
+     * @return number of received messages dropped because queue was full
+     */
+    public long getDroppedEvents() {
+        return dropped.get();
+    }
+
+    public String getNamespace() {
+        return namespace;
+    }
+
+    /**
+     * @return application messages are sent to, <code>null</code> if it has to be looked up again
+     */
+    public Application getApplication() {
+        return application;
+    }
+
+    /**
+     * Stops receiving messages, channel may still be used for sending.
+     */
+    @Override
+    public void close() {
+        chromeCast.unregisterListener(listener);
+    }
+}
@@ -0,0 +1,372 @@
+/*
+ * Copyright 2026 Vitaly Litvak (vitavaque@gmail.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package su.litvak.chromecast.api.v2;
+
+import com.google.protobuf.InvalidProtocolBufferException;
+
+import java.nio.charset.Charset;
+import java.util.Arrays;
+
+/**
+ * <p>Inbound <code>CastMessage</code> decoded by hand, along with the matching encoder of frame headers.</p>
+ *
+ * <p>Hot path counterpart of generated {@link CastChannel.CastMessage}: the seven fields are read straight from the
+ * frame buffer, source id, destination id and namespace are looked up in a small table of recently seen strings
+ * instead of being decoded for every frame, and payload is not copied but exposed as a slice of the frame buffer.
+ * Generated classes are still used on cold paths, i.e. authentication and constant frames.</p>
+ *
+ * <p>Payload slice of a frame passed to {@link Transport.Listener#messageReceived(CastFrame)} is only valid during
+ * that call, since the buffer is reused for the following frames. Frame which is kept longer must be
+ * {@link #retain() retained}.</p>
+ */
+final class CastFrame {
+    static final int CASTV2_1_0 = 0;
+    static final int STRING = 0;
+    static final int BINARY = 1;
+
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    private static final int TAG_PROTOCOL_VERSION = 1 << 3;
+    private static final int TAG_SOURCE_ID = 2 << 3 | 2;
+    private static final int TAG_DESTINATION_ID = 3 << 3 | 2;
+    private static final int TAG_NAMESPACE = 4 << 3 | 2;
+    private static final int TAG_PAYLOAD_TYPE = 5 << 3;
+    private static final int TAG_PAYLOAD_UTF8 = 6 << 3 | 2;
+    private static final int TAG_PAYLOAD_BINARY = 7 << 3 | 2;
+
+    /**
+     * Strings longer than this are decoded every time, namespaces and ids are much shorter.
+     */
+    private static final int MAX_INTERNED_LENGTH = 128;
+    private static final int TABLE_SIZE = 256;
+
+    /**
+     * Entries are immutable, so tables are shared by all threads without locking: a racing thread may only miss
+     * an entry and decode the string once more.
+     */
+    private static final Entry[] DECODED = new Entry[TABLE_SIZE];
+    private static final Entry[] ENCODED = new Entry[TABLE_SIZE];
+
+    private static final class Entry {
+        final String string;
+        final byte[] bytes;
+
+        Entry(String string, byte[] bytes) {
+            this.string = string;
+            this.bytes = bytes;
+        }
+    }
+
+    private int protocolVersion;
+    private String sourceId;
+    private String destinationId;
+    private String namespace;
+    private int payloadType = -1;
+    private byte[] payload;
+    private int payloadOffset;
+    private int payloadLength;
+
+    private CastFrame() {
+    }
+
+    /**
+     * Decodes <code>CastMessage</code> located in specified part of array, payload of decoded frame refers to
+     * the same array.
+     *
+     * @throws InvalidProtocolBufferException if message is malformed or misses required fields
+     */
+    static CastFrame decode(byte[] buffer, int offset, int length) throws InvalidProtocolBufferException {
+        CastFrame frame = new CastFrame();
+        int pos = offset;
+        int limit = offset + length;
+        while (pos < limit) {
+            int tag = buffer[pos++];
+            if (tag < 0) {
+                // field numbers above 15 are not used by CastMessage, only need to be skipped
+                long value = 0;
+                pos--;
+                for (int shift = 0; ; shift += 7) {
+                    checkAvailable(pos, limit);
+                    byte b = buffer[pos++];
+                    value |= (long) (b & 0x7F) << shift;
+                    if (b >= 0) {
+                        break;
+                    }
+                    if (shift >= 28) {
+                        throw new InvalidProtocolBufferException("Malformed tag");
+                    }
+                }
+                tag = (int) value;
+            }
+            if (tag == 0) {
+                throw new InvalidProtocolBufferException("Invalid tag zero");
+            }
+            if (tag == TAG_PROTOCOL_VERSION || tag == TAG_PAYLOAD_TYPE) {
+                long value = 0;
+                for (int shift = 0; ; shift += 7) {
+                    checkAvailable(pos, limit);
+                    byte b = buffer[pos++];
+                    value |= (long) (b & 0x7F) << shift;
+                    if (b >= 0) {
+                        break;
+                    }
+                    if (shift >= 63) {
+                        throw new InvalidProtocolBufferException("Malformed varint");
+                    }
+                }
+                if (tag == TAG_PROTOCOL_VERSION) {
+                    frame.protocolVersion = (int) value;
+                } else {
+                    frame.payloadType = (int) value;
+                }
+                continue;
+            }
+            int wireType = tag & 7;
+            if (wireType == 2) {
+                int size = 0;
+                for (int shift = 0; ; shift += 7) {
+                    checkAvailable(pos, limit);
+                    byte b = buffer[pos++];
+                    size |= (b & 0x7F) << shift;
+                    if (b >= 0) {
+                        break;
+                    }
+                    if (shift >= 28) {
+                        throw new InvalidProtocolBufferException("Malformed length");
+                    }
+                }
+                if (size < 0 || size > limit - pos) {
+                    throw new InvalidProtocolBufferException("Truncated message");
+                }
+                switch (tag) {
+                    case TAG_SOURCE_ID:
+                        frame.sourceId = string(buffer, pos, size);
+                        break;
+                    case TAG_DESTINATION_ID:
+                        frame.destinationId = string(buffer, pos, size);
+                        break;
+                    case TAG_NAMESPACE:
+                        frame.namespace = string(buffer, pos, size);
+                        break;
+                    case TAG_PAYLOAD_UTF8:
+                    case TAG_PAYLOAD_BINARY:
+                        frame.payload = buffer;
+                        frame.payloadOffset = pos;
+                        frame.payloadLength = size;
+                        break;
+                    default:
+                        // unknown field
+                        break;
+                }
+                pos += size;
+            } else if (wireType == 0) {
+                do {
+                    checkAvailable(pos, limit);
+                } while (buffer[pos++] < 0);
+            } else if (wireType == 1) {
+                pos += 8;
+            } else if (wireType == 5) {
+                pos += 4;
+            } else {
+                throw new InvalidProtocolBufferException("Unsupported wire type " + wireType);
+            }
+        }
+        if (pos > limit) {
+            throw new InvalidProtocolBufferException("Truncated message");
+        }
+        if (frame.sourceId == null || frame.destinationId == null || frame.namespace == null
+                || frame.payloadType < 0) {
+            throw new InvalidProtocolBufferException("Message missing required fields");
+        }
+        if (frame.payload == null) {
+            frame.payload = new byte[0];
+        }
+        return frame;
+    }
+
+    private static void checkAvailable(int pos, int limit) throws InvalidProtocolBufferException {
+        if (pos >= limit) {
+            throw new InvalidProtocolBufferException("Truncated message");
+        }
+    }
+
+    /**
+     * @return string of UTF-8 bytes, same instance is returned for recurring short strings
+     */
+    private static String string(byte[] buffer, int offset, int length) {
+        if (length > MAX_INTERNED_LENGTH) {
+            return new String(buffer, offset, length, UTF_8);
+        }
+        int hash = 1;
+        for (int i = offset; i < offset + length; i++) {
+            hash = 31 * hash + buffer[i];
+        }
+        int slot = (hash ^ hash >>> 16) & (TABLE_SIZE - 1);
+        Entry entry = DECODED[slot];
+        if (entry != null && equal(entry.bytes, buffer, offset, length)) {
+            return entry.string;
+        }
+        byte[] bytes = Arrays.copyOfRange(buffer, offset, offset + length);
+        String string = new String(bytes, UTF_8);
+        DECODED[slot] = new Entry(string, bytes);
+        return string;
+    }
+
+    private static boolean equal(byte[] bytes, byte[] buffer, int offset, int length) {
+        if (bytes.length != length) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (bytes[i] != buffer[offset + i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return UTF-8 encoding of string, recurring short strings are encoded once
+     */
+    static byte[] utf8(String string) {
+        if (string.length() > MAX_INTERNED_LENGTH) {
+            return string.getBytes(UTF_8);
+        }
+        int hash = string.hashCode();
+        int slot = (hash ^ hash >>> 16) & (TABLE_SIZE - 1);
+        Entry entry = ENCODED[slot];
+        if (entry != null && entry.string.equals(string)) {
+            return entry.bytes;
+        }
+        byte[] bytes = string.getBytes(UTF_8);
+        ENCODED[slot] = new Entry(string, bytes);
+        return bytes;
+    }
+
+    /**
+     * @return size of encoded <code>CastMessage</code> fields preceding payload bytes, payload length included
+     */
+    static int headerSize(byte[] sourceId, byte[] destinationId, byte[] namespace, int payloadLength) {
+        return 2 + fieldSize(sourceId.length) + fieldSize(destinationId.length) + fieldSize(namespace.length) + 2
+                + fieldSize(payloadLength) - payloadLength;
+    }
+
+    private static int fieldSize(int length) {
+        return 1 + varintSize(length) + length;
+    }
+
+    static int varintSize(int value) {
+        if ((value & ~0x7F) == 0) {
+            return 1;
+        } else if ((value & ~0x3FFF) == 0) {
+            return 2;
+        } else if ((value & ~0x1FFFFF) == 0) {
+            return 3;
+        } else if ((value & ~0xFFFFFFF) == 0) {
+            return 4;
+        }
+        return 5;
+    }
+
+    /**
+     * Writes <code>CastMessage</code> fields preceding payload bytes, in the same order as generated code does.
+     *
+     * @return position right after written header, where payload bytes belong
+     */
+    static int writeHeader(byte[] target, int pos, byte[] sourceId, byte[] destinationId, byte[] namespace,
+                           int payloadType, int payloadLength) {
+        target[pos++] = TAG_PROTOCOL_VERSION;
+        target[pos++] = CASTV2_1_0;
+        pos = writeField(target, pos, TAG_SOURCE_ID, sourceId);
+        pos = writeField(target, pos, TAG_DESTINATION_ID, destinationId);
+        pos = writeField(target, pos, TAG_NAMESPACE, namespace);
+        target[pos++] = TAG_PAYLOAD_TYPE;
+        target[pos++] = (byte) payloadType;
+        target[pos++] = (byte) (payloadType == BINARY ? TAG_PAYLOAD_BINARY : TAG_PAYLOAD_UTF8);
+        return writeVarint(target, pos, payloadLength);
+    }
+
+    private static int writeField(byte[] target, int pos, int tag, byte[] value) {
+        target[pos++] = (byte) tag;
+        pos = writeVarint(target, pos, value.length);
+        System.arraycopy(value, 0, target, pos, value.length);
+        return pos + value.length;
+    }
+
+    private static int writeVarint(byte[] target, int pos, int value) {
+        while ((value & ~0x7F) != 0) {
+            target[pos++] = (byte) (value & 0x7F | 0x80);
+            value >>>= 7;
+        }
+        target[pos++] = (byte) value;
+        return pos;
+    }
+
+    /**
+     * Copies payload out of the frame buffer, so frame stays valid after it was delivered.
+     *
+     * @return this frame
+     */
+    CastFrame retain() {
+        payload = Arrays.copyOfRange(payload, payloadOffset, payloadOffset + payloadLength);
+        payloadOffset = 0;
+        return this;
+    }
+
+    int getProtocolVersion() {
+        return protocolVersion;
+    }
+
+    String getSourceId() {
+        return sourceId;
+    }
+
+    String getDestinationId() {
+        return destinationId;
+    }
+
+    String getNamespace() {
+        return namespace;
+    }
+
+    /**
+     * @return {@link #STRING} or {@link #BINARY}
+     */
+    int getPayloadType() {
+        return payloadType;
+    }
+
+    /**
+     * @return array containing payload bytes
+     */
+    byte[] payloadArray() {
+        return payload;
+    }
+
+    int payloadOffset() {
+        return payloadOffset;
+    }
+
+    int payloadLength() {
+        return payloadLength;
+    }
+
+    /**
+     * @return payload decoded as UTF-8
+     */
+    String getPayloadUtf8() {
+        return new String(payload, payloadOffset, payloadLength, UTF_8);
+    }
+}
@@ -15,34 +15,34 @@
  */
 package su.litvak.chromecast.api.v2;
 
-import com.google.protobuf.InvalidProtocolBufferException;
-import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.annotation.JsonSubTypes;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import javax.net.ssl.SSLContext;
-import javax.net.ssl.TrustManager;
+import java.io.ByteArrayOutputStream;
 import java.io.Closeable;
 import java.io.IOException;
-import java.io.InputStream;
 import java.net.InetSocketAddress;
-import java.net.Socket;
 import java.security.GeneralSecurityException;
-import java.security.SecureRandom;
-import java.util.HashSet;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
-import java.util.Timer;
-import java.util.TimerTask;
+import java.util.concurrent.Callable;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
-
-import static su.litvak.chromecast.api.v2.Util.fromArray;
-import static su.litvak.chromecast.api.v2.Util.toArray;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * Internal class for low-level communication with ChromeCast device.
@@ -51,45 +51,96 @@ import static su.litvak.chromecast.api.v2.Util.toArray;
 class Channel implements Closeable {
     private static final Logger LOG = LoggerFactory.getLogger(Channel.class);
     /**
-     * Period for sending ping requests (in ms)
+     * Default time without any message from device after which connection is considered lost (in ms)
+     */
+    static final long DEFAULT_LIVENESS_TIMEOUT = 10 * 1000;
+    /**
+     * How long status requested while connecting in fast connect mode may be used instead of requesting it (in ns)
      */
-    private static final long PING_PERIOD = 30 * 1000;
+    private static final long INITIAL_STATUS_MAX_AGE = TimeUnit.MILLISECONDS.toNanos(2000);
+    /**
+     * How often graceful close re-checks that all requests are answered (in ns)
+     */
+    private static final long DRAIN_POLL_PERIOD = TimeUnit.MILLISECONDS.toNanos(50);
+    /**
+     * Default time for which state of device received from it is used instead of requesting it (in ms)
+     */
+    static final long DEFAULT_STATE_MAX_AGE = 30 * 1000;
     /**
      * Default value of much time to wait until request is processed
      */
     private static final long DEFAULT_REQUEST_TIMEOUT = 30 * 1000;
 
     private final static String DEFAULT_RECEIVER_ID = "receiver-0";
+    private static final String DEVICE_AUTH_NAMESPACE = "urn:x-cast:com.google.cast.tp.deviceauth";
 
     private final EventListenerHolder eventListener;
 
-    private static final JsonSubTypes.Type[] STANDARD_RESPONSE_TYPES =
-            StandardResponse.class.getAnnotation(JsonSubTypes.class).value();
+    /**
+     * Prefix of namespaces of the Cast protocol itself, as opposed to namespaces of receiver apps
+     */
+    private static final String CAST_NAMESPACE_PREFIX = "urn:x-cast:com.google.cast.";
+
+    /**
+     * How standard responses are handled when they do not answer any request.
+     */
+    private enum Handling {
+        EVENT, PONG, IGNORE
+    }
+
+    /**
+     * Handling of every standard response type, so message is classified by single lookup of its type
+     */
+    private static final Map<String, Handling> STANDARD_RESPONSE_TYPES = standardResponseTypes();
+
+    private static Map<String, Handling> standardResponseTypes() {
+        Map<String, Handling> types = new HashMap<String, Handling>();
+        for (JsonSubTypes.Type t : StandardResponse.class.getAnnotation(JsonSubTypes.class).value()) {
+            types.put(t.name(), Handling.IGNORE);
+        }
+        types.put("MEDIA_STATUS", Handling.EVENT);
+        types.put("RECEIVER_STATUS", Handling.EVENT);
+        types.put("CLOSE", Handling.EVENT);
+        types.put("PING", Handling.PONG);
+        return Collections.unmodifiableMap(types);
+    }
+
+    private static final ChromeCastFuture.Function<StandardResponse.MediaStatus, MediaStatus> FIRST_MEDIA_STATUS =
+            new ChromeCastFuture.Function<StandardResponse.MediaStatus, MediaStatus>() {
+                @Override
+                public MediaStatus apply(StandardResponse.MediaStatus status) {
+                    return status == null || status.statuses.length == 0 ? null : status.statuses[0];
+                }
+            };
 
     private static void warn(String message, Exception ex) {
         LOG.warn("{}, caused by {}", message, ex.toString());
     }
 
     /**
-     * Single socket instance for transfers
+     * Creates transport for every new connection
      */
-    private Socket socket;
+    private final Transport.Factory transportFactory;
     /**
-     * Address of ChromeCast
+     * Single transport instance for transfers
      */
-    private final InetSocketAddress address;
+    private Transport transport;
     /**
-     * Name of sender used in this channel
+     * Addresses of ChromeCast, the one connected last goes first
      */
-    private final String name;
+    private final List<InetSocketAddress> addresses;
+    /**
+     * Address of current connection
+     */
+    private volatile InetSocketAddress address;
     /**
-     * Timer for PING requests
+     * Name of sender used in this channel
      */
-    private Timer pingTimer;
+    private final String name;
     /**
-     * Thread for processing incoming requests
+     * Pre-encoded 'PING', 'PONG' and 'CONNECT' frames of this sender
      */
-    private ReadThread reader;
+    private final ControlFrames frames;
     /**
      * Counter for producing request numbers
      */
@@ -97,163 +148,308 @@ class Channel implements Closeable {
     /**
      * Processors of requests by their identifiers
      */
-    private final Map<Long, ResultProcessor<? extends Response>> requests = new ConcurrentHashMap<Long, ResultProcessor<? extends Response>>();
+    private final InFlightRequests<ResultProcessor<? extends Response>> requests =
+            new InFlightRequests<ResultProcessor<? extends Response>>();
     /**
-     * Single mapper object for marshalling JSON
+     * Namespaces of requests sent within this channel, messages of other non-Cast namespaces are app events
      */
-    private final ObjectMapper jsonMapper = JacksonHelper.createJSONMapper();
+    private final Set<String> requestNamespaces = Collections.newSetFromMap(new ConcurrentHashMap<String, Boolean>());
     /**
-     * Destination ids of sessions opened within this channel
+     * Destination ids of sessions opened within this channel, updated by callers and by reader (on 'CLOSE')
      */
-    private Set<String> sessions = new HashSet<String>();
+    private final Set<String> sessions = Collections.newSetFromMap(new ConcurrentHashMap<String, Boolean>());
     /**
      * Indicates that this channel was closed (explicitly, by remote host or for some connectivity issue)
      */
     private volatile boolean closed = true;
+    /**
+     * Indicates that channel waits for responses to requests in flight before closing
+     */
+    private volatile boolean draining;
+    private final Object drainSync = new Object();
+    /**
+     * Number of responses being dispatched and dependent steps submitted but not run yet. They may send dependent
+     * requests, so draining is not over until they are done.
+     */
+    private final AtomicInteger dispatching = new AtomicInteger();
     private final Object closedSync = new Object();
     /**
      * How much time to wait until request is processed
      */
     private volatile long requestTimeout = DEFAULT_REQUEST_TIMEOUT;
+    /**
+     * Maximum size of inbound frame, applies to new connections
+     */
+    private volatile int maxFrameSize = Transport.DEFAULT_MAX_FRAME_SIZE;
+    /**
+     * Maximum time to connect to one address in milliseconds
+     */
+    private volatile int connectTimeout = Transport.DEFAULT_CONNECT_TIMEOUT;
+    /**
+     * How long connection may stay silent until it is considered lost
+     */
+    private volatile long livenessTimeout = DEFAULT_LIVENESS_TIMEOUT;
+    /**
+     * Moments (in terms of {@link System#nanoTime()}) when last message was received and sent
+     */
+    private volatile long lastReceived;
+    private volatile long lastSent;
+    /**
+     * Liveness check of the current connection
+     */
+    private Heartbeat heartbeat;
+    /**
+     * Whether 'CONNECT', 'PING' and 'GET_STATUS' are sent right after the authentication challenge, without
+     * waiting for its response
+     */
+    private volatile boolean fastConnect;
+    /**
+     * Executor binding responses to requests, <code>null</code> to bind them on the thread getting result
+     */
+    private volatile Executor decodeExecutor;
+    /**
+     * Status requested while connecting in fast connect mode, taken by the first status request
+     */
+    private final AtomicReference<ChromeCastFuture<Status>> initialStatus =
+            new AtomicReference<ChromeCastFuture<Status>>();
+    private volatile long initialStatusRequested;
+    /**
+     * Whether concurrent identical status requests share one request in flight
+     */
+    private volatile boolean requestCoalescing = true;
+    /**
+     * Whether media, items and custom data of received media statuses are bound on demand.
+     */
+    private volatile boolean mediaStatusProjection;
+    private final SingleFlight reads = new SingleFlight();
+    /**
+     * Last known state of device, fed by every status received on this channel
+     */
+    private final DeviceState state = new DeviceState(DEFAULT_STATE_MAX_AGE);
+
+    /**
+     * Liveness check of one connection. Sends 'PING' once connection was idle for half of liveness timeout, either
+     * direction, so pings are skipped while other traffic is flowing. Closes channel once nothing was received
+     * from device for the whole liveness timeout, e.g. when device lost power and TCP connection became half-open.
+     *
+     * <p>Heartbeat thread is shared by all channels, so it only checks timestamps. Ping and closing of the lost
+     * connection (listeners included) are done by {@link SharedExecutor}, a wedged write to one device does not
+     * hold up checks of the others.</p>
+     */
+    private class Heartbeat implements Runnable {
+        private final Transport connection;
+        private volatile boolean cancelled;
+        private volatile ScheduledFuture<?> next;
+        /**
+         * Whether ping is being sent, next one is skipped until then
+         */
+        private final AtomicBoolean pinging = new AtomicBoolean();
+        private final Runnable pingTask = new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    ping();
+                } finally {
+                    pinging.set(false);
+                }
+            }
+        };
+
+        Heartbeat(Transport connection) {
+            this.connection = connection;
+        }
+
+        void schedule() {
+            next = HeartbeatScheduler.schedule(this, livenessTimeout / 4);
+        }
+
+        void cancel() {
+            cancelled = true;
+            ScheduledFuture<?> scheduled = next;
+            if (scheduled != null) {
+                scheduled.cancel(false);
+            }
+        }
 
-    private class PingThread extends TimerTask {
         @Override
         public void run() {
-            try {
-                write("urn:x-cast:com.google.cast.tp.heartbeat", StandardMessage.ping(), DEFAULT_RECEIVER_ID);
-            } catch (IOException ioex) {
-                warn("Error while sending 'PING'", ioex);
+            if (cancelled || connection.isClosed()) {
+                return;
+            }
+            long now = System.nanoTime();
+            long timeout = livenessTimeout;
+            long silence = TimeUnit.NANOSECONDS.toMillis(now - lastReceived);
+            if (silence > timeout) {
+                LOG.warn("Nothing received from {} for {} ms, closing connection", address, silence);
+                final IOException cause = new ChromeCastException("Nothing received for " + silence + " ms");
+                SharedExecutor.get().execute(new Runnable() {
+                    @Override
+                    public void run() {
+                        connectionLost(connection, cause);
+                    }
+                });
+                return;
             }
+            if ((silence >= timeout / 2 || TimeUnit.NANOSECONDS.toMillis(now - lastSent) >= timeout / 2)
+                    && pinging.compareAndSet(false, true)) {
+                SharedExecutor.get().execute(pingTask);
+            }
+            schedule();
         }
     }
 
-    private class ReadThread extends Thread {
-        volatile boolean stop;
+    private class MessageHandler implements Transport.Listener {
+        private final Transport connection;
 
-        @Override
-        public void run() {
-            while (!stop) {
-                JsonNode parsed = null;
-                String jsonMSG = null;
-                CastChannel.CastMessage message = null;
+        MessageHandler(Transport connection) {
+            this.connection = connection;
+        }
 
-                try {
-                    message = read();
-                    if (message.getPayloadType() == CastChannel.CastMessage.PayloadType.STRING) {
-                        LOG.debug(" <-- {}",  message.getPayloadUtf8());
-                        jsonMSG = message.getPayloadUtf8().replaceFirst("\"type\"", "\"responseType\"");
-                        if (jsonMSG == null || jsonMSG.isEmpty()) {
-                            LOG.warn(" <-- Received empty message. Ignore.");
-                            continue;
-                        }
+        @Override
+        public void messageReceived(CastFrame message) {
+            lastReceived = System.nanoTime();
+            JsonPayload payload = null;
 
-                        // Determine whether the message belongs to cast protocol or is a custom
-                        // message from the receiver app
-                        parsed = jsonMapper.readTree(jsonMSG);
-                    } else {
-                        LOG.warn("Received unexpected {} message", message.getPayloadType());
-                    }
-                } catch (InvalidProtocolBufferException ipbe) {
-                    warn("Error while processing protobuf", ipbe);
-                } catch (JsonProcessingException jpe) {
-                    warn("Error while processing json", jpe);
-                } catch (IOException ioex) {
-                    if (stop) {
-                        LOG.debug("Got IOException while reading due to stream being closed (stop=true)", ioex);
-                        continue;
+            try {
+                if (message.getPayloadType() == CastFrame.STRING) {
+                    if (LOG.isDebugEnabled()) {
+                        LOG.debug(" <-- {}", message.getPayloadUtf8());
                     }
-                    warn("Error while reading", ioex);
-                    String temp;
-                    if (message != null &&  message.getPayloadUtf8() != null) {
-                        temp = message.getPayloadUtf8();
-                    } else {
-                        temp = " null payload in message ";
+                    // Nothing is expected from receiver app in namespace no request was sent to, skip parsing
+                    if (isAppNamespace(message.getNamespace())) {
+                        notifyListenersAppEvent(message);
+                        return;
                     }
-                    LOG.warn(" <-- {}", temp);
-                    try {
-                        close();
-                    } catch (IOException e) {
-                        warn("Error while closing channel", ioex);
+                    // Tokenize right from payload bytes, without decoding them into a string first
+                    boolean projected = mediaStatusProjection
+                            && message.payloadLength() >= MediaStatusProjection.MIN_PAYLOAD_LENGTH;
+                    // Status tracker compares parts of media statuses as text, so they are put aside for it too
+                    boolean split = projected || eventListener != null && eventListener.isDeltaWanted();
+                    payload = JsonPayload.parse(message.payloadArray(), message.payloadOffset(),
+                            message.payloadLength(), split, projected);
+                    if (payload == null) {
+                        LOG.warn(" <-- Received empty message. Ignore.");
+                        return;
                     }
-                } catch (Exception e) {
-                    warn("Unknown error while reading", e);
-                    continue;
+                } else {
+                    LOG.warn("Received message of unexpected payload type {}", message.getPayloadType());
                 }
+            } catch (JsonProcessingException jpe) {
+                warn("Error while processing json", jpe);
+            } catch (Exception e) {
+                warn("Unknown error while reading", e);
+                return;
+            }
 
-                try {
-                    if (message == null) {
-                        continue;
+            try {
+                Handling handling = payload == null || payload.getType() == null ? null
+                        : STANDARD_RESPONSE_TYPES.get(payload.getType());
+                if (handling != null && message.getNamespace().startsWith(CAST_NAMESPACE_PREFIX)) {
+                    state.received(message.getSourceId(), payload);
+                    if ("CLOSE".equals(payload.getType())) {
+                        // session is closed by its side, it has to be connected again before next request
+                        sessions.remove(message.getSourceId());
                     }
-
-                    if (isAppEvent(parsed)) {
-                        // This handles when parsed == null.
-                        AppEvent event = new AppEvent(message.getNamespace(), message.getPayloadUtf8());
-                        notifyListenersAppEvent(event);
-                    } else {
-                        if (parsed.has("requestId")) {
-                            Long requestId = parsed.get("requestId").asLong();
-                            final ResultProcessor<? extends Response> rp = requests.remove(requestId);
-                            if (rp != null) {
-                                rp.put(jsonMSG);
-                            } else {
-                                notifyListenersOfSpontaneousEvent(parsed);
-                            }
-                        } else if (parsed.has("responseType") && parsed.get("responseType").asText().equals("MEDIA_STATUS")) {
-                            notifyListenersOfSpontaneousEvent(parsed);
-                        } else if (parsed.has("responseType") && parsed.get("responseType").asText().equals("PING")) {
-                            write("urn:x-cast:com.google.cast.tp.heartbeat", StandardMessage.pong(), DEFAULT_RECEIVER_ID);
-                        } else if (parsed.has("responseType") && parsed.get("responseType").asText().equals("CLOSE")) {
-                            notifyListenersOfSpontaneousEvent(parsed);
+                }
+                // Determine whether the message belongs to cast protocol or is a custom
+                // message from the receiver app
+                if (handling == null && (payload == null || !payload.hasRequestId())) {
+                    // This handles when payload == null.
+                    notifyListenersAppEvent(message);
+                } else if (payload.hasRequestId()) {
+                    dispatching.incrementAndGet();
+                    try {
+                        final ResultProcessor<? extends Response> rp = requests.remove(payload.getRequestId());
+                        if (rp != null) {
+                            rp.put(payload);
+                        } else {
+                            notifyListenersOfSpontaneousEvent(payload);
                         }
+                    } finally {
+                        dispatched();
                     }
-                } catch (Exception e) {
-                    warn("Error while handling", e);
+                } else if (handling == Handling.EVENT) {
+                    notifyListenersOfSpontaneousEvent(payload);
+                } else if (handling == Handling.PONG) {
+                    writeFrame(frames.pong(), ControlFrames.PONG_JSON);
                 }
+            } catch (Exception e) {
+                warn("Error while handling", e);
             }
         }
 
-        private boolean isAppEvent(JsonNode parsed) {
-            if (parsed != null && parsed.has("responseType")) {
-                String type = parsed.get("responseType").asText();
-                for (JsonSubTypes.Type t : STANDARD_RESPONSE_TYPES) {
-                    if (t.name().equals(type)) {
-                        return false;
-                    }
-                }
-            }
-            return parsed == null || !parsed.has("requestId");
+        @Override
+        public void transportClosed(IOException cause) {
+            warn("Error while reading", cause);
+            connectionLost(connection, cause);
+        }
+
+        private boolean isAppNamespace(String namespace) {
+            return !namespace.startsWith(CAST_NAMESPACE_PREFIX) && !requestNamespaces.contains(namespace);
         }
     }
 
-    private class ResultProcessor<T extends Response> {
+    private class ResultProcessor<T extends Response> extends ChromeCastFuture<T> {
+        final long requestId;
         final Class<T> responseClass;
-        T result;
 
-        private ResultProcessor(Class<T> responseClass) {
+        private ResultProcessor(long requestId, Class<T> responseClass) {
             if (responseClass == null) {
                 throw new NullPointerException();
             }
+            this.requestId = requestId;
             this.responseClass = responseClass;
         }
 
-        public void put(String jsonMSG) throws IOException {
-            synchronized (this) {
-                this.result = jsonMapper.readValue(jsonMSG, responseClass);
-                this.notify();
+        /**
+         * Completes request with response, which is bound on decode executor if it is set or by the thread
+         * getting the result otherwise, so reader only routes responses.
+         */
+        public void put(final JsonPayload payload) {
+            Executor executor = decodeExecutor;
+            if (executor != null) {
+                try {
+                    // listeners of response may start dependent steps, draining waits for them too
+                    dependentSteps(executor).execute(new Runnable() {
+                        @Override
+                        public void run() {
+                            try {
+                                complete(bind(payload));
+                            } catch (IOException ioex) {
+                                fail(ioex);
+                            }
+                        }
+                    });
+                    return;
+                } catch (RejectedExecutionException ree) {
+                    LOG.debug("Decode executor rejected response, it is bound lazily");
+                }
             }
+            completeLazily(new Callable<T>() {
+                @Override
+                public T call() throws IOException {
+                    return bind(payload);
+                }
+            });
         }
 
-        public T get() throws InterruptedException, TimeoutException {
-            synchronized (this) {
-                if (result != null) {
-                    return result;
-                }
-                this.wait(requestTimeout);
-                if (result == null) {
-                    throw new TimeoutException();
-                }
-                return result;
+        private T bind(JsonPayload payload) throws IOException {
+            T response = payload.bind(responseClass);
+            if (response instanceof StandardResponse.Invalid) {
+                StandardResponse.Invalid invalid = (StandardResponse.Invalid) response;
+                throw new ChromeCastException("Invalid request: " + invalid.reason);
+            } else if (response instanceof StandardResponse.LoadFailed) {
+                throw new ChromeCastException("Unable to load media");
+            } else if (response instanceof StandardResponse.LaunchError) {
+                StandardResponse.LaunchError launchError = (StandardResponse.LaunchError) response;
+                throw new ChromeCastException("Application launch error: " + launchError.reason);
             }
+            return response;
+        }
+
+        @Override
+        void cancelled() {
+            requests.remove(requestId);
         }
     }
 
@@ -262,9 +458,24 @@ class Channel implements Closeable {
     }
 
     Channel(String host, int port, EventListenerHolder eventListener) {
-        this.address = new InetSocketAddress(host, port);
+        this(host, port, eventListener, SocketTransport.FACTORY);
+    }
+
+    Channel(String host, int port, EventListenerHolder eventListener, Transport.Factory transportFactory) {
+        this(Collections.singletonList(new InetSocketAddress(host, port)), eventListener, transportFactory);
+    }
+
+    /**
+     * @param addresses all addresses of device in order of preference, connection attempts are raced over them
+     * @see ConnectionRace
+     */
+    Channel(List<InetSocketAddress> addresses, EventListenerHolder eventListener, Transport.Factory transportFactory) {
+        this.addresses = new ArrayList<InetSocketAddress>(addresses);
+        this.address = addresses.get(0);
         this.name = "sender-" + new RandomString(10).nextString();
+        this.frames = new ControlFrames(name, DEFAULT_RECEIVER_ID);
         this.eventListener = eventListener;
+        this.transportFactory = transportFactory;
     }
 
     /**
@@ -287,11 +498,13 @@ class Channel implements Closeable {
      */
     private void connect() throws IOException, GeneralSecurityException {
         synchronized (closedSync) {
-            if (socket == null || socket.isClosed()) {
-                SSLContext sc = SSLContext.getInstance("SSL");
-                sc.init(null, new TrustManager[] { new X509TrustAllManager() }, new SecureRandom());
-                socket = sc.getSocketFactory().createSocket();
-                socket.connect(address);
+            if (transport == null || transport.isClosed()) {
+                ConnectionRace race = new ConnectionRace(addresses, transportFactory, maxFrameSize, connectTimeout);
+                transport = race.connect();
+                address = race.getWinner();
+                // reconnect to the address which worked first
+                addresses.remove(address);
+                addresses.add(0, address);
             }
             /**
              * Authenticate
@@ -302,7 +515,7 @@ class Channel implements Closeable {
 
             CastChannel.CastMessage msg = CastChannel.CastMessage.newBuilder()
                     .setDestinationId(DEFAULT_RECEIVER_ID)
-                    .setNamespace("urn:x-cast:com.google.cast.tp.deviceauth")
+                    .setNamespace(DEVICE_AUTH_NAMESPACE)
                     .setPayloadType(CastChannel.CastMessage.PayloadType.BINARY)
                     .setProtocolVersion(CastChannel.CastMessage.ProtocolVersion.CASTV2_1_0)
                     .setSourceId(name)
@@ -310,45 +523,146 @@ class Channel implements Closeable {
                     .build();
 
             write(msg);
-            CastChannel.CastMessage response = read();
-            CastChannel.DeviceAuthMessage authResponse = CastChannel.DeviceAuthMessage.parseFrom(response.getPayloadBinary());
-            if (authResponse.hasError()) {
-                throw new ChromeCastException("Authentication failed: " + authResponse.getError().getErrorType().toString());
+
+            ChromeCastFuture<Status> status = null;
+            if (fastConnect) {
+                /**
+                 * Pipeline session start and initial status request with authentication, so status is received
+                 * one round trip after TLS handshake
+                 */
+                startConnection();
+                ChromeCastFuture<StandardResponse.Status> response = dispatchStandard(
+                        "urn:x-cast:com.google.cast.receiver", StandardRequest.status(), DEFAULT_RECEIVER_ID);
+                status = statusOf(response);
             }
 
             /**
-             * Send 'PING' message
+             * Messages pipelined after challenge may only be answered after it, but keep anything received before
+             * authentication response to deliver it later
              */
-            PingThread pingThread = new PingThread();
-            pingThread.run();
+            List<CastFrame> early = new ArrayList<CastFrame>();
+            CastFrame response;
+            while (!DEVICE_AUTH_NAMESPACE.equals((response = transport.read()).getNamespace())) {
+                early.add(response);
+            }
+            CastChannel.DeviceAuthMessage authResponse = CastChannel.DeviceAuthMessage.PARSER.parseFrom(
+                    response.payloadArray(), response.payloadOffset(), response.payloadLength());
+            if (authResponse.hasError()) {
+                if (status != null) {
+                    status.cancel(false);
+                }
+                throw new ChromeCastException("Authentication failed: " + authResponse.getError().getErrorType().toString());
+            }
 
-            /**
-             * Send 'CONNECT' message to start session
-             */
-            write("urn:x-cast:com.google.cast.tp.connection", StandardMessage.connect(), DEFAULT_RECEIVER_ID);
+            if (status == null) {
+                startConnection();
+            } else {
+                initialStatusRequested = System.nanoTime();
+                initialStatus.set(status);
+            }
 
             /**
-             * Start ping/pong and reader thread
+             * Start ping/pong and delivery of incoming messages
              */
-            pingTimer = new Timer(name + " PING");
-            pingTimer.schedule(pingThread, 1000, PING_PERIOD);
-
-            reader = new ReadThread();
-            reader.start();
+            lastReceived = System.nanoTime();
+            if (heartbeat != null) {
+                heartbeat.cancel();
+            }
+            heartbeat = new Heartbeat(transport);
+            heartbeat.schedule();
+            MessageHandler handler = new MessageHandler(transport);
+            for (CastFrame message : early) {
+                handler.messageReceived(message);
+            }
+            transport.start(handler);
 
             if (closed) {
                 closed = false;
-                notifyListenerOfConnectionEvent(true);
+                if (this.eventListener != null) {
+                    this.eventListener.deliverConnectionEvent(true, transport.getHandshakeTime(),
+                            transport.isSessionResumed());
+                }
             }
         }
     }
 
+    /**
+     * Sends 'PING' and 'CONNECT' message to start session
+     */
+    private void startConnection() throws IOException {
+        ping();
+        writeFrame(frames.connect(DEFAULT_RECEIVER_ID), ControlFrames.CONNECT_JSON);
+    }
+
     @SuppressWarnings("unchecked")
     private <T extends StandardResponse> T sendStandard(String namespace, StandardRequest message, String destinationId) throws IOException {
         return send(namespace, message, destinationId, (Class<T>) StandardResponse.class);
     }
 
+    @SuppressWarnings("unchecked")
+    private <T extends StandardResponse> ChromeCastFuture<T> sendStandardAsync(String namespace, StandardRequest message, String destinationId) throws IOException {
+        return sendAsync(namespace, message, destinationId, (Class<T>) StandardResponse.class);
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T extends StandardResponse> ChromeCastFuture<T> dispatchStandard(String namespace, StandardRequest message, String destinationId) throws IOException {
+        return dispatch(namespace, message, destinationId, (Class<T>) StandardResponse.class);
+    }
+
     private <T extends Response> T send(String namespace, Request message, String destinationId, Class<T> responseClass) throws IOException {
+        return await(sendAsync(namespace, message, destinationId, responseClass));
+    }
+
+    /**
+     * Waits for response, but not longer than request timeout.
+     */
+    private <T> T await(ChromeCastFuture<T> future) throws IOException {
+        try {
+            return future.get(requestTimeout, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            throw new ChromeCastException("Interrupted while waiting for response", e);
+        } catch (TimeoutException e) {
+            throw new ChromeCastException("Waiting for response timed out", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            throw new ChromeCastException("Error while processing response", e.getCause());
+        } finally {
+            future.cancel(false);
+        }
+    }
+
+    /**
+     * Sends request without waiting for response. Returned future is completed by the reader when response arrives.
+     * Only reconnection (if channel is closed) and writing of request are done in the calling thread.
+     */
+    private <T extends Response> ChromeCastFuture<T> sendAsync(String namespace, Request message, String destinationId, Class<T> responseClass) throws IOException {
+        reconnectIfClosed();
+        // request may change status, so status received while connecting can't be used anymore
+        discardInitialStatus();
+        return dispatch(namespace, message, destinationId, responseClass);
+    }
+
+    /**
+     * Sends read-only request, which is joined by identical requests until it is answered if request coalescing is
+     * enabled.
+     *
+     * @param query distinguishes requests of the same type to the same destination
+     */
+    private <T extends StandardResponse> ChromeCastFuture<T> readStandardAsync(final String namespace, final StandardRequest message, final String destinationId, String query) throws IOException {
+        if (!requestCoalescing) {
+            return sendStandardAsync(namespace, message, destinationId);
+        }
+        return reads.join(namespace + ' ' + destinationId + ' ' + query, new SingleFlight.Call<T>() {
+            @Override
+            public ChromeCastFuture<T> start() throws IOException {
+                return sendStandardAsync(namespace, message, destinationId);
+            }
+        });
+    }
+
+    private void reconnectIfClosed() throws IOException {
         /**
          * Try to reconnect
          */
@@ -359,143 +673,188 @@ class Channel implements Closeable {
                 throw new ChromeCastException("Unexpected security exception", gse);
             }
         }
+    }
 
-        Long requestId = requestCounter.getAndIncrement();
+    /**
+     * Registers request and writes it to the current connection.
+     */
+    private <T extends Response> ChromeCastFuture<T> dispatch(String namespace, Request message, String destinationId, Class<T> responseClass) throws IOException {
+        long requestId = requestCounter.getAndIncrement();
         message.setRequestId(requestId);
-        if (!requestId.equals(message.getRequestId())) {
+        Long echoed = message.getRequestId();
+        if (echoed == null || echoed != requestId) {
             throw new IllegalStateException("Request Id getter/setter contract violation");
         }
+        requestNamespaces.add(namespace);
 
         if (responseClass == null) {
             write(namespace, message, destinationId);
-            return null;
+            return ChromeCastFuture.completed(null);
         }
 
-        ResultProcessor<T> rp = new ResultProcessor<T>(responseClass);
-        requests.put(requestId, rp);
+        ResultProcessor<T> rp = new ResultProcessor<T>(requestId, responseClass);
+        requests.put(requestId, rp, System.nanoTime());
 
-        write(namespace, message, destinationId);
         try {
-            T response = rp.get();
-            if (response instanceof StandardResponse.Invalid) {
-                StandardResponse.Invalid invalid = (StandardResponse.Invalid) response;
-                throw new ChromeCastException("Invalid request: " + invalid.reason);
-            } else if (response instanceof StandardResponse.LoadFailed) {
-                throw new ChromeCastException("Unable to load media");
-            } else if (response instanceof StandardResponse.LaunchError) {
-                StandardResponse.LaunchError launchError = (StandardResponse.LaunchError) response;
-                throw new ChromeCastException("Application launch error: " + launchError.reason);
-            }
-            return response;
-        } catch (InterruptedException e) {
-            throw new ChromeCastException("Interrupted while waiting for response", e);
-        } catch (TimeoutException e) {
-            throw new ChromeCastException("Waiting for response timed out", e);
-        } finally {
-            requests.remove(requestId);
+            write(namespace, message, destinationId);
+        } catch (IOException ioex) {
+            rp.cancel(false);
+            throw ioex;
         }
+        return rp;
     }
 
     private void write(String namespace, Message message, String destinationId) throws IOException {
-        write(namespace, jsonMapper.writeValueAsString(message), destinationId);
-    }
-
-    private void write(String namespace, String message, String destinationId) throws IOException {
-        LOG.debug(" --> {}", message);
-        CastChannel.CastMessage msg = CastChannel.CastMessage.newBuilder()
-                .setProtocolVersion(CastChannel.CastMessage.ProtocolVersion.CASTV2_1_0)
-                .setSourceId(name)
-                .setDestinationId(destinationId)
-                .setNamespace(namespace)
-                .setPayloadType(CastChannel.CastMessage.PayloadType.STRING)
-                .setPayloadUtf8(message)
-                .build();
-        write(msg);
+        JsonFrameEncoder encoder = JsonFrameEncoder.get();
+        try {
+            encoder.encode(name, destinationId, namespace, message);
+            if (LOG.isDebugEnabled()) {
+                LOG.debug(" --> {}", encoder.payload());
+            }
+            transport.writeFrame(encoder.array(), encoder.offset(), encoder.length());
+            lastSent = System.nanoTime();
+        } finally {
+            encoder.release();
+        }
     }
 
     private void write(CastChannel.CastMessage message) throws IOException {
-        socket.getOutputStream().write(toArray(message.getSerializedSize()));
-        message.writeTo(socket.getOutputStream());
+        transport.write(message);
+        lastSent = System.nanoTime();
     }
 
-    private CastChannel.CastMessage read() throws IOException {
-        InputStream is = socket.getInputStream();
-        byte[] buf = new byte[4];
+    /**
+     * Writes pre-encoded frame, its JSON payload is only used for logging.
+     */
+    private void writeFrame(byte[] frame, String json) throws IOException {
+        LOG.debug(" --> {}", json);
+        transport.writeFrame(frame);
+        lastSent = System.nanoTime();
+    }
 
-        int read = 0;
-        while (read < buf.length) {
-            int nextByte = is.read();
-            if (nextByte == -1) {
-                throw new ChromeCastException("Remote socket closed");
-            }
-            buf[read++] = (byte) nextByte;
+    private void ping() {
+        try {
+            writeFrame(frames.ping(), ControlFrames.PING_JSON);
+        } catch (IOException ioex) {
+            warn("Error while sending 'PING'", ioex);
         }
+    }
 
-        int size = fromArray(buf);
-        buf = new byte[size];
-        read = 0;
-        while (read < size) {
-            int nowRead = is.read(buf, read, buf.length - read);
-            if (nowRead == -1) {
-                throw new ChromeCastException("Remote socket closed");
+    /**
+     * Closes channel if it is still open on specified connection, which is found dead.
+     */
+    private void connectionLost(Transport connection, IOException cause) {
+        synchronized (closedSync) {
+            if (closed || transport != connection) {
+                return;
+            }
+            try {
+                close(new ChromeCastConnectionLostException("Connection lost", cause));
+            } catch (IOException ioex) {
+                warn("Error while closing channel", ioex);
             }
-            read += nowRead;
         }
-
-        return CastChannel.CastMessage.parseFrom(buf);
     }
 
-    private void notifyListenerOfConnectionEvent(final boolean connected) {
+    private void notifyListenerOfDisconnection() {
         if (this.eventListener != null) {
-            this.eventListener.deliverConnectionEvent(connected);
+            this.eventListener.deliverConnectionEvent(false);
         }
     }
 
-    private void notifyListenersOfSpontaneousEvent(JsonNode json) throws IOException {
+    private void notifyListenersOfSpontaneousEvent(JsonPayload payload) throws IOException {
+        discardInitialStatus();
         if (this.eventListener != null) {
-            this.eventListener.deliverEvent(json);
+            this.eventListener.deliverEvent(payload);
         }
     }
 
-    private void notifyListenersAppEvent(AppEvent event) throws IOException {
-        if (this.eventListener != null) {
-            this.eventListener.deliverAppEvent(event);
+    private void notifyListenersAppEvent(CastFrame message) throws IOException {
+        // payload is decoded only if somebody listens to its namespace
+        if (this.eventListener != null && this.eventListener.wantsAppEvent(message.getNamespace())) {
+            this.eventListener.deliverAppEvent(new AppEvent(message.getNamespace(), message.getPayloadUtf8()));
         }
     }
 
     public Status getStatus() throws IOException {
-        StandardResponse.Status status = sendStandard("urn:x-cast:com.google.cast.receiver", StandardRequest.status(), DEFAULT_RECEIVER_ID);
-        return status == null ? null : status.status;
+        return await(getStatusAsync());
+    }
+
+    public ChromeCastFuture<Status> getStatusAsync() throws IOException {
+        ChromeCastFuture<Status> initial = takeInitialStatus();
+        if (initial != null) {
+            return initial;
+        }
+        ChromeCastFuture<StandardResponse.Status> status = readStandardAsync("urn:x-cast:com.google.cast.receiver", StandardRequest.status(), DEFAULT_RECEIVER_ID, "GET_STATUS");
+        return statusOf(status);
+    }
+
+    private static ChromeCastFuture<Status> statusOf(ChromeCastFuture<StandardResponse.Status> status) {
+        return status.transform(new ChromeCastFuture.Function<StandardResponse.Status, Status>() {
+            @Override
+            public Status apply(StandardResponse.Status input) {
+                return input == null ? null : input.status;
+            }
+        });
+    }
+
+    private void discardInitialStatus() {
+        ChromeCastFuture<Status> initial = initialStatus.getAndSet(null);
+        if (initial != null) {
+            initial.cancel(false);
+        }
+    }
+
+    /**
+     * @return status requested while connecting if it is still fresh, <code>null</code> otherwise
+     */
+    private ChromeCastFuture<Status> takeInitialStatus() {
+        ChromeCastFuture<Status> initial = initialStatus.getAndSet(null);
+        if (initial != null && System.nanoTime() - initialStatusRequested > INITIAL_STATUS_MAX_AGE) {
+            initial.cancel(false);
+            return null;
+        }
+        return initial;
     }
 
     public boolean isAppAvailable(String appId) throws IOException {
-        StandardResponse.AppAvailability availability = sendStandard("urn:x-cast:com.google.cast.receiver", StandardRequest.appAvailability(appId), DEFAULT_RECEIVER_ID);
+        StandardResponse.AppAvailability availability = await(this.<StandardResponse.AppAvailability>readStandardAsync("urn:x-cast:com.google.cast.receiver", StandardRequest.appAvailability(appId), DEFAULT_RECEIVER_ID, "GET_APP_AVAILABILITY " + appId));
         return availability != null && "APP_AVAILABLE".equals(availability.availability.get(appId));
     }
 
     public Status launch(String appId) throws IOException {
-        StandardResponse.Status status = sendStandard("urn:x-cast:com.google.cast.receiver", StandardRequest.launch(appId), DEFAULT_RECEIVER_ID);
+        StandardResponse.Status status = await(state.changedBy(this.<StandardResponse.Status>sendStandardAsync("urn:x-cast:com.google.cast.receiver", StandardRequest.launch(appId), DEFAULT_RECEIVER_ID)));
         return status == null ? null : status.status;
     }
 
     public Status stop(String sessionId) throws IOException {
-        StandardResponse.Status status = sendStandard("urn:x-cast:com.google.cast.receiver", StandardRequest.stop(sessionId), DEFAULT_RECEIVER_ID);
+        StandardResponse.Status status = await(state.changedBy(this.<StandardResponse.Status>sendStandardAsync("urn:x-cast:com.google.cast.receiver", StandardRequest.stop(sessionId), DEFAULT_RECEIVER_ID)));
         return status == null ? null : status.status;
     }
 
     private void startSession(String destinationId) throws IOException {
-        if (!sessions.contains(destinationId)) {
-            write("urn:x-cast:com.google.cast.tp.connection", StandardMessage.connect(), destinationId);
-            sessions.add(destinationId);
+        if (sessions.add(destinationId)) {
+            try {
+                writeFrame(frames.connect(destinationId), ControlFrames.CONNECT_JSON);
+            } catch (IOException ioex) {
+                sessions.remove(destinationId);
+                throw ioex;
+            }
         }
     }
 
     public MediaStatus load(String destinationId, String sessionId, Media media, boolean autoplay, double currentTime, Map<String, String> customData) throws IOException {
         startSession(destinationId);
-        StandardResponse.MediaStatus status = sendStandard("urn:x-cast:com.google.cast.media", StandardRequest.load(sessionId, media, autoplay, currentTime, customData), destinationId);
+        StandardResponse.MediaStatus status = await(state.changedBy(this.<StandardResponse.MediaStatus>sendStandardAsync("urn:x-cast:com.google.cast.media", StandardRequest.load(sessionId, media, autoplay, currentTime, customData), destinationId)));
         return status == null || status.statuses.length == 0 ? null : status.statuses[0];
     }
 
+    public ChromeCastFuture<MediaStatus> loadAsync(String destinationId, String sessionId, Media media, boolean autoplay, double currentTime, Map<String, String> customData) throws IOException {
+        startSession(destinationId);
+        ChromeCastFuture<StandardResponse.MediaStatus> status = state.changedBy(this.<StandardResponse.MediaStatus>sendStandardAsync("urn:x-cast:com.google.cast.media", StandardRequest.load(sessionId, media, autoplay, currentTime, customData), destinationId));
+        return status.transform(FIRST_MEDIA_STATUS);
+    }
+
     public MediaStatus play(String destinationId, String sessionId, long mediaSessionId) throws IOException {
         startSession(destinationId);
         StandardResponse.MediaStatus status = sendStandard("urn:x-cast:com.google.cast.media", StandardRequest.play(sessionId, mediaSessionId), destinationId);
@@ -520,9 +879,18 @@ class Channel implements Closeable {
     }
 
     public MediaStatus getMediaStatus(String destinationId) throws IOException {
+        return await(getMediaStatusAsync(destinationId));
+    }
+
+    public ChromeCastFuture<MediaStatus> getMediaStatusAsync(String destinationId) throws IOException {
         startSession(destinationId);
-        StandardResponse.MediaStatus status = sendStandard("urn:x-cast:com.google.cast.media", StandardRequest.status(), destinationId);
-        return status == null || status.statuses.length == 0 ? null : status.statuses[0];
+        ChromeCastFuture<StandardResponse.MediaStatus> status = readStandardAsync("urn:x-cast:com.google.cast.media", StandardRequest.status(), destinationId, "GET_STATUS");
+        return status.transform(FIRST_MEDIA_STATUS);
+    }
+
+    public <T extends Response> ChromeCastFuture<T> sendGenericRequestAsync(String destinationId, String namespace, Request request, Class<T> responseClass) throws IOException {
+        startSession(destinationId);
+        return sendAsync(namespace, request, destinationId, responseClass);
     }
 
     public <T extends Response> T sendGenericRequest(String destinationId, String namespace, Request request, Class<T> responseClass) throws IOException {
@@ -530,22 +898,137 @@ class Channel implements Closeable {
         return send(namespace, request, destinationId, responseClass);
     }
 
+    /**
+     * Sends requests, which expect no response, in a single write. Frames are encoded one after another into one
+     * buffer, so transport gets it all at once instead of a frame per request.
+     */
+    public void sendGenericRequests(String destinationId, String namespace, List<? extends Request> batch) throws IOException {
+        startSession(destinationId);
+        reconnectIfClosed();
+        discardInitialStatus();
+        requestNamespaces.add(namespace);
+        ByteArrayOutputStream frames = new ByteArrayOutputStream();
+        JsonFrameEncoder encoder = JsonFrameEncoder.get();
+        try {
+            for (Request message : batch) {
+                message.setRequestId(requestCounter.getAndIncrement());
+                encoder.encode(name, destinationId, namespace, message);
+                if (LOG.isDebugEnabled()) {
+                    LOG.debug(" --> {}", encoder.payload());
+                }
+                frames.write(encoder.array(), encoder.offset(), encoder.length());
+            }
+        } finally {
+            encoder.release();
+        }
+        transport.writeFrame(frames.toByteArray());
+        lastSent = System.nanoTime();
+    }
+
     @Override
     public void close() throws IOException {
+        close(new ChromeCastConnectionLostException("Channel closed"));
+    }
+
+    /**
+     * Waits until responses to all requests in flight are received, but not longer than specified time, then closes
+     * channel. Requests sent meanwhile are waited for too.
+     *
+     * @param drainTimeout maximum time to wait in milliseconds
+     */
+    public void close(long drainTimeout) throws IOException {
+        draining = true;
+        try {
+            awaitRequests(drainTimeout);
+        } catch (InterruptedException e) {
+            throw new ChromeCastException("Interrupted while waiting for pending requests", e);
+        } finally {
+            draining = false;
+            synchronized (closedSync) {
+                // may be already closed because connection was lost meanwhile
+                if (!closed) {
+                    close();
+                }
+            }
+        }
+    }
+
+    private void dispatched() {
+        if (dispatching.decrementAndGet() == 0 && draining) {
+            synchronized (drainSync) {
+                drainSync.notifyAll();
+            }
+        }
+    }
+
+    /**
+     * @return executor, which runs dependent steps of asynchronous operations by specified one and makes draining
+     * wait for them: step submitted while response is dispatched may send its request after all requests in flight
+     * are answered
+     */
+    Executor dependentSteps(final Executor executor) {
+        return new Executor() {
+            @Override
+            public void execute(final Runnable command) {
+                dispatching.incrementAndGet();
+                try {
+                    executor.execute(new Runnable() {
+                        @Override
+                        public void run() {
+                            try {
+                                command.run();
+                            } finally {
+                                dispatched();
+                            }
+                        }
+                    });
+                } catch (RuntimeException e) {
+                    dispatched();
+                    throw e;
+                }
+            }
+        };
+    }
+
+    private void awaitRequests(long timeout) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeout);
+        synchronized (drainSync) {
+            while (!requests.isEmpty() || dispatching.get() > 0) {
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    return;
+                }
+                // requests may also be cancelled by callers, which does not notify
+                TimeUnit.NANOSECONDS.timedWait(drainSync, Math.min(remaining, DRAIN_POLL_PERIOD));
+            }
+        }
+    }
+
+    /**
+     * Closes channel and fails all requests in flight with specified exception.
+     */
+    private void close(ChromeCastConnectionLostException failure) throws IOException {
         synchronized (closedSync) {
             if (closed) {
                 throw new ChromeCastException("Channel already closed.");
             } else {
                 closed = true;
-                notifyListenerOfConnectionEvent(false);
-                if (pingTimer != null) {
-                    pingTimer.cancel();
-                }
-                if (reader != null) {
-                    reader.stop = true;
+                initialStatus.set(null);
+                state.clear();
+                if (heartbeat != null) {
+                    heartbeat.cancel();
+                    heartbeat = null;
                 }
-                if (socket != null) {
-                    socket.close();
+                notifyListenerOfDisconnection();
+                try {
+                    if (transport != null) {
+                        transport.close();
+                    }
+                } finally {
+                    // after transport is closed, so any request registered later fails to be written
+                    for (ResultProcessor<? extends Response> rp : requests.removeAll()) {
+                        rp.fail(failure);
+                    }
                 }
             }
         }
@@ -558,4 +1041,76 @@ class Channel implements Closeable {
     public void setRequestTimeout(long requestTimeout) {
         this.requestTimeout = requestTimeout;
     }
+
+    public void setMaxFrameSize(int maxFrameSize) {
+        this.maxFrameSize = maxFrameSize;
+    }
+
+    public void setConnectTimeout(int connectTimeout) {
+        this.connectTimeout = connectTimeout;
+    }
+
+    /**
+     * @return address of current or last connection
+     */
+    InetSocketAddress getAddress() {
+        return address;
+    }
+
+    public void setLivenessTimeout(long livenessTimeout) {
+        this.livenessTimeout = livenessTimeout;
+    }
+
+    public void setFastConnect(boolean fastConnect) {
+        this.fastConnect = fastConnect;
+    }
+
+    /**
+     * @return number of requests waiting for response
+     */
+    int getRequestsInFlight() {
+        return requests.size();
+    }
+
+    /**
+     * @return time in milliseconds since the earliest of requests waiting for response was sent, 0 if there are none
+     */
+    long getOldestRequestAge() {
+        return TimeUnit.NANOSECONDS.toMillis(requests.oldestAge(System.nanoTime()));
+    }
+
+    public void setDecodeExecutor(Executor decodeExecutor) {
+        this.decodeExecutor = decodeExecutor;
+    }
+
+    public void setRequestCoalescing(boolean requestCoalescing) {
+        this.requestCoalescing = requestCoalescing;
+    }
+
+    public void setStateMaxAge(long stateMaxAge) {
+        state.setMaxAge(stateMaxAge);
+    }
+
+    /**
+     * <b>Warning:</b> public fields <code>media</code>, <code>items</code> and <code>customData</code> of
+     * projected media statuses are <code>null</code>, see {@link ChromeCast#setMediaStatusProjection(boolean)}.
+     */
+    public void setMediaStatusProjection(boolean mediaStatusProjection) {
+        this.mediaStatusProjection = mediaStatusProjection;
+    }
+
+    /**
+     * @return receiver status last received from device if it is still fresh, <code>null</code> otherwise
+     */
+    Status getKnownStatus() {
+        return state.getStatus();
+    }
+
+    /**
+     * @return media status last received from specified application if it is still fresh, <code>null</code>
+     *         otherwise
+     */
+    MediaStatus getKnownMediaStatus(String transportId) {
+        return state.getMediaStatus(transportId);
+    }
 }
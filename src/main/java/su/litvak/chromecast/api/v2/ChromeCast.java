@@ -15,13 +15,22 @@
  */
 package su.litvak.chromecast.api.v2;
 
+import su.litvak.chromecast.api.v2.ChromeCastSpontaneousEvent.SpontaneousEventType;
+
 import javax.jmdns.JmDNS;
 import javax.jmdns.ServiceInfo;
 
 import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
 import java.security.GeneralSecurityException;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executor;
 
 import static su.litvak.chromecast.api.v2.Util.getContentType;
 import static su.litvak.chromecast.api.v2.Util.getMediaTitle;
@@ -36,11 +45,24 @@ public class ChromeCast {
 
     private String name;
     private final String address;
+    /**
+     * All addresses advertised by device, the one connected last goes first. Empty if device was created by address.
+     */
+    private final List<InetAddress> addresses;
     private final int port;
     private String appsURL;
     private String application;
     private Channel channel;
     private boolean autoReconnect = true;
+    private Transport.Factory transportFactory = SocketTransport.FACTORY;
+    private int maxFrameSize = Transport.DEFAULT_MAX_FRAME_SIZE;
+    private int connectTimeout = Transport.DEFAULT_CONNECT_TIMEOUT;
+    private long livenessTimeout = Channel.DEFAULT_LIVENESS_TIMEOUT;
+    private boolean fastConnect;
+    private Executor decodeExecutor;
+    private boolean requestCoalescing = true;
+    private long stateMaxAge = Channel.DEFAULT_STATE_MAX_AGE;
+    private boolean mediaStatusProjection;
 
     private String title;
     private String appTitle;
@@ -49,7 +71,11 @@ public class ChromeCast {
     ChromeCast(JmDNS mDNS, String name) {
         this.name = name;
         ServiceInfo serviceInfo = mDNS.getServiceInfo(SERVICE_TYPE, name);
-        this.address = serviceInfo.getInet4Addresses()[0].getHostAddress();
+        List<InetAddress> advertised = new ArrayList<InetAddress>();
+        Collections.addAll(advertised, serviceInfo.getInet4Addresses());
+        Collections.addAll(advertised, serviceInfo.getInet6Addresses());
+        this.addresses = ConnectionRace.interleave(advertised);
+        this.address = addresses.get(0).getHostAddress();
         this.port = serviceInfo.getPort();
         this.appsURL = serviceInfo.getURLs().length == 0 ? null : serviceInfo.getURLs()[0];
         this.application = serviceInfo.getApplication();
@@ -65,9 +91,19 @@ public class ChromeCast {
 
     public ChromeCast(String address, int port) {
         this.address = address;
+        this.addresses = new ArrayList<InetAddress>();
         this.port = port;
     }
 
+    /**
+     * Prepares JSON serializers and deserializers of all standard messages, which are otherwise built on first use.
+     * They are shared by all devices, so calling this once at application startup makes the first command sent to
+     * any device as fast as subsequent ones.
+     */
+    public static void warmUp() {
+        JsonCodecs.warmUp();
+    }
+
     /**
      * @return The technical name of the device. Usually something like Chromecast-e28835678bc02247abcdef112341278f.
      */
@@ -143,7 +179,7 @@ public class ChromeCast {
     * and it's not yet or no longer open.
     * @return an open channel.
     */
-    private synchronized Channel channel() throws IOException {
+    final synchronized Channel channel() throws IOException {
         if (autoReconnect) {
             try {
                 connect();
@@ -155,15 +191,64 @@ public class ChromeCast {
         return channel;
     }
 
-    private String getTransportId(Application runningApp) {
+    final String getTransportId(Application runningApp) {
         return runningApp.transportId == null ? runningApp.sessionId : runningApp.transportId;
     }
 
+    /**
+     * @return application running according to known state of device, which is requested unless it is fresh
+     * @throws ChromeCastException if no application is running
+     */
+    private Application requireRunningApp() throws IOException {
+        Status status = channel().getKnownStatus();
+        if (status == null) {
+            status = getStatus();
+        }
+        Application runningApp = status.getRunningApp();
+        if (runningApp == null) {
+            throw new ChromeCastException("No application is running in ChromeCast");
+        }
+        return runningApp;
+    }
+
+    /**
+     * @return status of media played by specified application, which is requested unless known one is fresh
+     */
+    private MediaStatus knownMediaStatus(Application runningApp) throws IOException {
+        Channel current = channel();
+        MediaStatus mediaStatus = current.getKnownMediaStatus(getTransportId(runningApp));
+        return mediaStatus == null ? current.getMediaStatus(getTransportId(runningApp)) : mediaStatus;
+    }
+
     public final synchronized void connect() throws IOException, GeneralSecurityException {
         if (channel == null || channel.isClosed()) {
-            channel = new Channel(this.address, this.port, this.eventListenerHolder);
+            channel = new Channel(socketAddresses(), this.eventListenerHolder, this.transportFactory);
+            channel.setMaxFrameSize(maxFrameSize);
+            channel.setConnectTimeout(connectTimeout);
+            channel.setLivenessTimeout(livenessTimeout);
+            channel.setFastConnect(fastConnect);
+            channel.setDecodeExecutor(decodeExecutor);
+            channel.setRequestCoalescing(requestCoalescing);
+            channel.setStateMaxAge(stateMaxAge);
+            channel.setMediaStatusProjection(mediaStatusProjection);
             channel.open();
+            // remember address which worked for the next connection
+            InetAddress connected = channel.getAddress().getAddress();
+            if (addresses.remove(connected)) {
+                addresses.add(0, connected);
+            }
+        }
+    }
+
+    private List<InetSocketAddress> socketAddresses() {
+        if (addresses.isEmpty()) {
+            return Collections.singletonList(new InetSocketAddress(address, port));
+        }
+        List<InetSocketAddress> result = new ArrayList<InetSocketAddress>(addresses.size());
+        for (InetAddress each : addresses) {
+            result.add(new InetSocketAddress(each, port));
         }
+        return result;
     }
 
     public final synchronized void disconnect() throws IOException {
@@ -175,10 +260,53 @@ public class ChromeCast {
         channel = null;
     }
 
+    /**
+     * Disconnects gracefully: waits until responses to all requests in flight are received, but not longer than
+     * specified time, and then closes connection. Requests sent meanwhile (e.g. second step of
+     * {@link #sendAsync(String, Request, Class)}) are waited for too. Requests which are still not answered fail
+     * with {@link ChromeCastConnectionLostException}, as all pending requests do when connection is lost.
+     *
+     * @param drainTimeout maximum time to wait for pending responses in milliseconds
+     * @throws IOException
+     */
+    public final void disconnect(long drainTimeout) throws IOException {
+        Channel current;
+        synchronized (this) {
+            current = channel;
+        }
+        if (current == null) {
+            return;
+        }
+
+        current.close(drainTimeout);
+        synchronized (this) {
+            if (channel == current) {
+                channel = null;
+            }
+        }
+    }
+
     public final boolean isConnected() {
         return channel != null && !channel.isClosed();
     }
 
+    /**
+     * @return number of requests sent to device and still waiting for response
+     */
+    public final int getRequestsInFlight() {
+        Channel current = channel;
+        return current == null ? 0 : current.getRequestsInFlight();
+    }
+
+    /**
+     * @return time in milliseconds since the earliest of requests still waiting for response was sent, 0 if there are
+     *         none. Growing age means device or network stalls, well before requests time out.
+     */
+    public final long getOldestRequestAge() {
+        Channel current = channel;
+        return current == null ? 0 : current.getOldestRequestAge();
+    }
+
     /**
      * Changes behaviour for opening/closing of connection with ChromeCast device. If set to "true" (default value)
      * then connection will be re-established on every request in case it is not present yet, or has been lost.
@@ -203,6 +331,157 @@ public class ChromeCast {
         return autoReconnect;
     }
 
+    /**
+     * Makes this device use non-blocking transport driven by threads of specified group instead of the blocking
+     * socket with dedicated reader thread. Takes effect on next connection.
+     *
+     * @param group group of selector threads shared by many devices, <code>null</code> to use blocking socket
+     * @see NioTransportGroup
+     */
+    public final synchronized void setTransportGroup(NioTransportGroup group) {
+        this.transportFactory = group == null ? SocketTransport.FACTORY : group.factory();
+    }
+
+    /**
+     * Sets maximum time to connect to the device including TLS handshake (in milliseconds). Default is 5 seconds.
+     * If device advertises several addresses (IPv4 and IPv6), connection attempts to them are raced, so an
+     * unreachable address only delays connection by a fraction of a second, and this timeout applies to each
+     * attempt. Takes effect on next connection.
+     *
+     * @param connectTimeout maximum time to connect in milliseconds
+     */
+    public final synchronized void setConnectTimeout(int connectTimeout) {
+        if (connectTimeout < 1) {
+            throw new IllegalArgumentException("Connect timeout must be positive");
+        }
+        this.connectTimeout = connectTimeout;
+    }
+
+    /**
+     * Sets maximum size of message accepted from device (in bytes). Connection is considered corrupt and is closed
+     * once device sends message with larger or invalid length. Default is 64 KiB, the limit of the Cast protocol.
+     * Takes effect on next connection.
+     *
+     * @param maxFrameSize maximum size of inbound message in bytes
+     */
+    public final synchronized void setMaxFrameSize(int maxFrameSize) {
+        if (maxFrameSize < 1) {
+            throw new IllegalArgumentException("Maximum frame size must be positive");
+        }
+        this.maxFrameSize = maxFrameSize;
+    }
+
+    /**
+     * Enables fast connect mode. Normally connection is established serially: authentication challenge is sent and
+     * its response awaited, then session is started and only then status may be requested. In fast connect mode
+     * session start and status request are sent together with the challenge, so device status is available one
+     * round trip after TLS handshake. The first {@link #getStatus()} (or any method which needs status) called
+     * shortly after connection returns that status instead of requesting it again. Takes effect on next
+     * connection.
+     *
+     * @param fastConnect true to pipeline connection bring-up with initial status request
+     */
+    public final synchronized void setFastConnect(boolean fastConnect) {
+        this.fastConnect = fastConnect;
+        if (channel != null) {
+            channel.setFastConnect(fastConnect);
+        }
+    }
+
+    /**
+     * Sets executor, which binds responses to their classes. By default response is bound by the thread which gets
+     * result of the request, so thread reading from device only routes messages and a large response does not
+     * delay other messages (heartbeat included). Executor makes sense when results are consumed by listeners of
+     * {@link ChromeCastFuture}, so they are not bound by the reading thread. Dependent steps of asynchronous
+     * operations (like sending request of {@link #sendAsync} once receiver status is known) are run by this executor
+     * too, or by a shared pool of daemon threads when it is not set.
+     *
+     * @param decodeExecutor executor binding responses or <code>null</code> to bind them by thread getting result
+     */
+    public final synchronized void setDecodeExecutor(Executor decodeExecutor) {
+        this.decodeExecutor = decodeExecutor;
+        if (channel != null) {
+            channel.setDecodeExecutor(decodeExecutor);
+        }
+    }
+
+    /**
+     * @return executor running dependent steps of asynchronous operations, so they are not run by the thread
+     *         reading from device
+     */
+    private synchronized Executor continuations() {
+        Executor executor = decodeExecutor == null ? SharedExecutor.get() : decodeExecutor;
+        // graceful disconnect waits for steps started by responses it has waited for
+        return channel == null ? executor : channel.dependentSteps(executor);
+    }
+
+    /**
+     * Enables or disables coalescing of status requests. When enabled (default), receiver status, media status and
+     * application availability requested by several threads at once are requested from device only once, and all
+     * of them get the same response. Request made after response has arrived is always sent to device.
+     *
+     * @param requestCoalescing whether concurrent identical status requests share one request to device
+     */
+    public final synchronized void setRequestCoalescing(boolean requestCoalescing) {
+        this.requestCoalescing = requestCoalescing;
+        if (channel != null) {
+            channel.setRequestCoalescing(requestCoalescing);
+        }
+    }
+
+    /**
+     * Sets how long state of device received from it may be used by commands instead of requesting it (in
+     * milliseconds). Every receiver and media status received, either as response or as event, is remembered, so
+     * e.g. {@link #pause()} needs single round trip instead of three. State is forgotten once application is
+     * closed, launched or stopped and when connection is closed. Default is 30 seconds, 0 disables the cache.
+     *
+     * @param stateMaxAge time in milliseconds after which received state is requested again
+     */
+    public final synchronized void setStateMaxAge(long stateMaxAge) {
+        this.stateMaxAge = stateMaxAge;
+        if (channel != null) {
+            channel.setStateMaxAge(stateMaxAge);
+        }
+    }
+
+    /**
+     * <p>Enables or disables projected binding of media statuses (disabled by default). When enabled, 'media',
+     * 'items' and 'customData' of received media status are skipped while message is parsed and bound only when
+     * they are requested through {@link MediaStatus#getMedia()}, {@link MediaStatus#getItems()} and
+     * {@link MediaStatus#getCustomData()}. Consumers, which need only player state and time position, skip
+     * parsing and binding of metadata, images and queue items.</p>
+     *
+     * <p><b>Warning:</b> in this mode public fields <code>media</code>, <code>items</code> and
+     * <code>customData</code> of {@link MediaStatus} are <code>null</code>, except for short messages, which are
+     * bound eagerly anyway. Enable it only if all code reading media statuses uses the getters.</p>
+     *
+     * @param mediaStatusProjection whether heavy parts of media statuses are bound on demand
+     */
+    public final synchronized void setMediaStatusProjection(boolean mediaStatusProjection) {
+        this.mediaStatusProjection = mediaStatusProjection;
+        if (channel != null) {
+            channel.setMediaStatusProjection(mediaStatusProjection);
+        }
+    }
+
+    /**
+     * Sets how long connection may stay silent until it is considered lost (in milliseconds). Device is pinged once
+     * nothing was sent or received for half of this time, and connection is closed (with disconnection event sent
+     * to listeners) once nothing, not even reply to the ping, was received for the whole time. Default is 10
+     * seconds.
+     *
+     * @param livenessTimeout time in milliseconds without any message from device after which connection is closed
+     */
+    public final synchronized void setLivenessTimeout(long livenessTimeout) {
+        if (livenessTimeout < 4) {
+            throw new IllegalArgumentException("Liveness timeout is too small");
+        }
+        this.livenessTimeout = livenessTimeout;
+        if (channel != null) {
+            channel.setLivenessTimeout(livenessTimeout);
+        }
+    }
+
     /**
      * Set up how much time to wait until request is processed (in milliseconds).
      * @param requestTimeout value in milliseconds until request times out waiting for response
@@ -219,6 +498,16 @@ public class ChromeCast {
         return channel().getStatus();
     }
 
+    /**
+     * <p>Requests current chromecast status without waiting for response.</p>
+     *
+     * @return future completed with current chromecast status - volume, running applications, etc.
+     * @throws IOException if request could not be sent
+     */
+    public final ChromeCastFuture<Status> getStatusAsync() throws IOException {
+        return channel().getStatusAsync();
+    }
+
     /**
      * @return descriptor of currently running application
      * @throws IOException
@@ -345,6 +634,27 @@ public class ChromeCast {
         return channel().getMediaStatus(getTransportId(runningApp));
     }
 
+    /**
+     * <p>Requests current media status without waiting for response.</p>
+     *
+     * <p>If no application is running at the moment then future fails with {@link ChromeCastException}.</p>
+     *
+     * @return future completed with current media status, state, time, playback rate, etc.
+     * @throws IOException if request could not be sent
+     */
+    public final ChromeCastFuture<MediaStatus> getMediaStatusAsync() throws IOException {
+        return getStatusAsync().transformAsync(new ChromeCastFuture.Function<Status, ChromeCastFuture<MediaStatus>>() {
+            @Override
+            public ChromeCastFuture<MediaStatus> apply(Status status) throws IOException {
+                Application runningApp = status.getRunningApp();
+                if (runningApp == null) {
+                    throw new ChromeCastException("No application is running in ChromeCast");
+                }
+                return channel().getMediaStatusAsync(getTransportId(runningApp));
+            }
+        }, continuations());
+    }
+
     /**
      * <p>Resume paused media playback</p>
      *
@@ -353,12 +663,8 @@ public class ChromeCast {
      * @throws IOException
      */
     public final void play() throws IOException {
-        Status status = getStatus();
-        Application runningApp = status.getRunningApp();
-        if (runningApp == null) {
-            throw new ChromeCastException("No application is running in ChromeCast");
-        }
-        MediaStatus mediaStatus = channel().getMediaStatus(getTransportId(runningApp));
+        Application runningApp = requireRunningApp();
+        MediaStatus mediaStatus = knownMediaStatus(runningApp);
         if (mediaStatus == null) {
             throw new ChromeCastException("ChromeCast has invalid state to resume media playback");
         }
@@ -373,12 +679,8 @@ public class ChromeCast {
      * @throws IOException
      */
     public final void pause() throws IOException {
-        Status status = getStatus();
-        Application runningApp = status.getRunningApp();
-        if (runningApp == null) {
-            throw new ChromeCastException("No application is running in ChromeCast");
-        }
-        MediaStatus mediaStatus = channel().getMediaStatus(getTransportId(runningApp));
+        Application runningApp = requireRunningApp();
+        MediaStatus mediaStatus = knownMediaStatus(runningApp);
         if (mediaStatus == null) {
             throw new ChromeCastException("ChromeCast has invalid state to pause media playback");
         }
@@ -394,12 +696,8 @@ public class ChromeCast {
      * @throws IOException
      */
     public final void seek(double time) throws IOException {
-        Status status = getStatus();
-        Application runningApp = status.getRunningApp();
-        if (runningApp == null) {
-            throw new ChromeCastException("No application is running in ChromeCast");
-        }
-        MediaStatus mediaStatus = channel().getMediaStatus(getTransportId(runningApp));
+        Application runningApp = requireRunningApp();
+        MediaStatus mediaStatus = knownMediaStatus(runningApp);
         if (mediaStatus == null) {
             throw new ChromeCastException("ChromeCast has invalid state to seek media playback");
         }
@@ -432,11 +730,7 @@ public class ChromeCast {
      * @throws IOException
      */
     public final MediaStatus load(String mediaTitle, String thumb, String url, String contentType) throws IOException {
-        Status status = getStatus();
-        Application runningApp = status.getRunningApp();
-        if (runningApp == null) {
-            throw new ChromeCastException("No application is running in ChromeCast");
-        }
+        Application runningApp = requireRunningApp();
         Map<String, Object> metadata = new HashMap<String, Object>(2);
         metadata.put("title", mediaTitle);
         metadata.put("thumb", thumb);
@@ -457,11 +751,7 @@ public class ChromeCast {
      * @throws IOException
      */
     public final MediaStatus load(final Media media) throws IOException {
-        Status status = getStatus();
-        Application runningApp = status.getRunningApp();
-        if (runningApp == null) {
-            throw new ChromeCastException("No application is running in ChromeCast");
-        }
+        Application runningApp = requireRunningApp();
         Media mediaToPlay;
         if (media.contentType == null) {
             mediaToPlay = new Media(media.url, getContentType(media.url), media.duration, media.streamType,
@@ -472,6 +762,66 @@ public class ChromeCast {
         return channel().load(getTransportId(runningApp), runningApp.sessionId, mediaToPlay, true, 0d, null);
     }
 
+    /**
+     * <p>Loads and starts playing specified media without waiting for response.</p>
+     *
+     * <p>If no application is running at the moment then future fails with {@link ChromeCastException}.</p>
+     *
+     * @param media The media to load and play.
+     * @return future completed with the new media status that resulted from loading the media.
+     * @throws IOException if request could not be sent
+     * @see #load(Media)
+     */
+    public final ChromeCastFuture<MediaStatus> loadAsync(final Media media) throws IOException {
+        final Media mediaToPlay;
+        if (media.contentType == null) {
+            mediaToPlay = new Media(media.url, getContentType(media.url), media.duration, media.streamType,
+                    media.customData, media.metadata, media.textTrackStyle, media.tracks);
+        } else {
+            mediaToPlay = media;
+        }
+        return getStatusAsync().transformAsync(new ChromeCastFuture.Function<Status, ChromeCastFuture<MediaStatus>>() {
+            @Override
+            public ChromeCastFuture<MediaStatus> apply(Status status) throws IOException {
+                Application runningApp = status.getRunningApp();
+                if (runningApp == null) {
+                    throw new ChromeCastException("No application is running in ChromeCast");
+                }
+                return channel().loadAsync(getTransportId(runningApp), runningApp.sessionId, mediaToPlay, true,
+                        0d, null);
+            }
+        }, continuations());
+    }
+
+    /**
+     * <p>Sends some generic request to the currently running application without waiting for response.</p>
+     *
+     * <p>If no application is running at the moment then future fails with {@link ChromeCastException}.</p>
+     *
+     * @param namespace         request namespace
+     * @param request           request object
+     * @param responseClass     class of the response for proper deserialization, <code>null</code> if
+     *                          no response is expected
+     * @param <T>               type of response
+     * @return                  future completed with deserialized response
+     * @throws IOException if request could not be sent
+     */
+    public final <T extends Response> ChromeCastFuture<T> sendAsync(final String namespace, final Request request,
+                                                                    final Class<T> responseClass)
+            throws IOException {
+        return getStatusAsync().transformAsync(new ChromeCastFuture.Function<Status, ChromeCastFuture<T>>() {
+            @Override
+            public ChromeCastFuture<T> apply(Status status) throws IOException {
+                Application runningApp = status.getRunningApp();
+                if (runningApp == null) {
+                    throw new ChromeCastException("No application is running in ChromeCast");
+                }
+                return channel().sendGenericRequestAsync(getTransportId(runningApp), namespace, request,
+                        responseClass);
+            }
+        }, continuations());
+    }
+
     /**
      * <p>Sends some generic request to the currently running application.</p>
      *
@@ -508,14 +858,104 @@ public class ChromeCast {
         send(namespace, request, null);
     }
 
+    /**
+     * <p>Opens channel to specified namespace of the currently running application, which sends requests without
+     * looking up the application each time. Suits applications exchanging many messages with sender.</p>
+     *
+     * <p>If no application is running at the moment then exception is thrown.</p>
+     *
+     * @param namespace     namespace of application messages
+     * @return              channel bound to the running application
+     * @throws IOException
+     * @see AppChannel
+     */
+    public final AppChannel openAppChannel(String namespace) throws IOException {
+        return openAppChannel(namespace, AppChannel.DEFAULT_CAPACITY);
+    }
+
+    /**
+     * <p>Opens channel to specified namespace of the currently running application.</p>
+     *
+     * <p>If no application is running at the moment then exception is thrown.</p>
+     *
+     * @param namespace     namespace of application messages
+     * @param capacity      number of received messages kept until they are taken from channel
+     * @return              channel bound to the running application
+     * @throws IOException
+     * @see AppChannel
+     */
+    public final AppChannel openAppChannel(String namespace, int capacity) throws IOException {
+        return new AppChannel(this, namespace, requireRunningApp(), capacity);
+    }
+
     public final void registerListener(ChromeCastSpontaneousEventListener listener) {
         this.eventListenerHolder.registerListener(listener);
     }
 
+    /**
+     * <p>Registers listener of specified event types only. Message of a type no listener is registered for is
+     * dropped without being deserialized.</p>
+     *
+     * <p>If <code>namespaces</code> are specified, listener gets {@link SpontaneousEventType#APPEVENT} events of
+     * these namespaces only. Message of application namespace no listener is registered for is not even decoded.</p>
+     *
+     * @param listener   listener to register
+     * @param types      types of events listener gets
+     * @param namespaces namespaces of application events listener gets, all if none specified
+     */
+    public final void registerListener(ChromeCastSpontaneousEventListener listener, Set<SpontaneousEventType> types,
+                                       String... namespaces) {
+        this.eventListenerHolder.registerListener(listener, types, namespaces);
+    }
+
+    /**
+     * <p>Registers listener, which gets events on its own queue drained on specified executor, and only the latest
+     * of statuses waiting for it: receiver status waiting in the queue is replaced by newer receiver status, media
+     * status by newer status of the same media session. So listener, which can't keep up with frequent
+     * 'MEDIA_STATUS' updates during playback, sees current state instead of growing backlog.</p>
+     *
+     * <p>Replaced statuses and other events dropped once <code>capacity</code> events are waiting are reported by
+     * {@link #getListenerStats(Object)}.</p>
+     *
+     * @param listener listener to register
+     * @param executor executor delivering events to listener
+     * @param capacity maximum number of events waiting for listener
+     */
+    public final void registerLatestStatusListener(ChromeCastSpontaneousEventListener listener, Executor executor,
+                                                   int capacity) {
+        this.eventListenerHolder.registerLatestStatusListener(listener, executor, capacity);
+    }
+
     public final void unregisterListener(ChromeCastSpontaneousEventListener listener) {
         this.eventListenerHolder.unregisterListener(listener);
     }
 
+    /**
+     * <p>Sets how events are delivered to listeners. By default every listener is called by the thread which reads
+     * messages from device, so slow listener delays responses and liveness checks of the connection.</p>
+     *
+     * <p>With executor set, every listener gets its own queue of at most <code>capacity</code> events, which is
+     * drained on the executor. Listener gets events one at a time, in order they were received, independently of
+     * other listeners. Once listener falls <code>capacity</code> events behind, <code>overflow</code> policy
+     * applies. See {@link #getListenerStats(Object)} for how far listener lags.</p>
+     *
+     * @param executor executor delivering events, shared by all listeners, <code>null</code> to deliver events
+     *                 by the thread receiving them
+     * @param capacity maximum number of events waiting for one listener
+     * @param overflow what happens to event for listener, whose queue is full
+     */
+    public final void setEventDispatch(Executor executor, int capacity, EventOverflow overflow) {
+        this.eventListenerHolder.setDispatch(executor, capacity, overflow);
+    }
+
+    /**
+     * @param listener registered spontaneous event or connection event listener
+     * @return number of events waiting for listener, how long the oldest one waits and how many were dropped
+     */
+    public final ListenerStats getListenerStats(Object listener) {
+        return this.eventListenerHolder.stats(listener);
+    }
+
     public final void registerConnectionListener(ChromeCastConnectionEventListener listener) {
         this.eventListenerHolder.registerConnectionListener(listener);
     }
@@ -26,12 +26,36 @@ public class ChromeCastConnectionEvent {
      * <code>false</code> value means connection was closed.
      */
     private final boolean connected;
+    private final long handshakeTime;
+    private final boolean sessionResumed;
 
     ChromeCastConnectionEvent(final boolean connected) {
+        this(connected, -1, false);
+    }
+
+    ChromeCastConnectionEvent(final boolean connected, final long handshakeTime, final boolean sessionResumed) {
         this.connected = connected;
+        this.handshakeTime = handshakeTime;
+        this.sessionResumed = sessionResumed;
     }
 
     public final boolean isConnected() {
         return connected;
     }
+
+    /**
+     * @return duration of TLS handshake in milliseconds when connection was established, <code>-1</code> when
+     *         connection was closed
+     */
+    public final long getHandshakeTime() {
+        return handshakeTime;
+    }
+
+    /**
+     * @return <code>true</code> when connection was established by resuming TLS session of previous connection
+     *         to the same device, which makes handshake shorter
+     */
+    public final boolean isSessionResumed() {
+        return sessionResumed;
+    }
 }
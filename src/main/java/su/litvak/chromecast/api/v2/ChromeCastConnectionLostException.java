@@ -0,0 +1,32 @@
+/*
+ * Copyright 2026 Vitaly Litvak (vitavaque@gmail.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package su.litvak.chromecast.api.v2;
+
+/**
+ * Request failed because connection with ChromeCast device was closed (or lost) before response was received.
+ * Request may have reached the device or not.
+ */
+public class ChromeCastConnectionLostException extends ChromeCastException {
+    private static final long serialVersionUID = 1L;
+
+    public ChromeCastConnectionLostException(String message) {
+        super(message);
+    }
+
+    public ChromeCastConnectionLostException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,376 @@
+/*
+ * Copyright 2026 Vitaly Litvak (vitavaque@gmail.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package su.litvak.chromecast.api.v2;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * <p>Result of an asynchronous request to ChromeCast device. Completed by the thread reading responses from
+ * device, so no thread is blocked while request is in flight. Response is bound to its class by the thread which
+ * first asks for the result (or by decode executor, see {@link ChromeCast#setDecodeExecutor(Executor)}), so large
+ * responses do not hold up reading of other messages.</p>
+ *
+ * <p>Listeners added via {@link #addListener(Runnable, Executor)} are run once the future is done. Cancelling the
+ * future discards the pending request, late response to it is then ignored.</p>
+ *
+ * @param <T> type of result
+ */
+public class ChromeCastFuture<T> implements Future<T> {
+    private static final Logger LOG = LoggerFactory.getLogger(ChromeCastFuture.class);
+
+    /**
+     * Runs listeners on the thread which completes the future.
+     */
+    static final Executor DIRECT = new Executor() {
+        @Override
+        public void execute(Runnable command) {
+            command.run();
+        }
+    };
+
+    /**
+     * Transformation of a result of one future to the result (or another future) of the dependent operation.
+     *
+     * @param <F> type of input
+     * @param <R> type of output
+     */
+    interface Function<F, R> {
+        R apply(F input) throws IOException;
+    }
+
+    private final List<Runnable> listeners = new ArrayList<Runnable>();
+    private boolean done;
+    private boolean cancelled;
+    private T result;
+    private Throwable failure;
+    /**
+     * Produces result of lazily completed future, cleared once result is produced.
+     */
+    private Callable<? extends T> binding;
+    private volatile Future<?> upstream;
+
+    ChromeCastFuture() {
+    }
+
+    static <T> ChromeCastFuture<T> completed(T value) {
+        ChromeCastFuture<T> future = new ChromeCastFuture<T>();
+        future.complete(value);
+        return future;
+    }
+
+    static <T> ChromeCastFuture<T> failed(Throwable failure) {
+        ChromeCastFuture<T> future = new ChromeCastFuture<T>();
+        future.fail(failure);
+        return future;
+    }
+
+    final boolean complete(T value) {
+        synchronized (this) {
+            if (done) {
+                return false;
+            }
+            this.result = value;
+            this.done = true;
+            notifyAll();
+        }
+        runListeners();
+        return true;
+    }
+
+    final boolean fail(Throwable cause) {
+        synchronized (this) {
+            if (done) {
+                return false;
+            }
+            this.failure = cause;
+            this.done = true;
+            notifyAll();
+        }
+        runListeners();
+        return true;
+    }
+
+    /**
+     * Completes future with result, which is produced by specified callable on the thread which asks for it first
+     * (by {@link #get()} or from a listener) instead of the completing thread. Exception thrown by callable fails
+     * the future.
+     */
+    final boolean completeLazily(Callable<? extends T> resultBinding) {
+        synchronized (this) {
+            if (done) {
+                return false;
+            }
+            this.binding = resultBinding;
+            this.done = true;
+            notifyAll();
+        }
+        runListeners();
+        return true;
+    }
+
+    /**
+     * Produces result of lazily completed future, unless it is already produced.
+     */
+    private synchronized void resolve() {
+        if (binding == null) {
+            return;
+        }
+        Callable<? extends T> pending = binding;
+        binding = null;
+        try {
+            result = pending.call();
+        } catch (ExecutionException ee) {
+            failure = ee.getCause();
+        } catch (CancellationException ce) {
+            cancelled = true;
+        } catch (Exception e) {
+            failure = e;
+        }
+    }
+
+    @Override
+    public final boolean cancel(boolean mayInterruptIfRunning) {
+        synchronized (this) {
+            if (done) {
+                return false;
+            }
+            this.cancelled = true;
+            this.done = true;
+            notifyAll();
+        }
+        cancelled();
+        Future<?> dependency = upstream;
+        if (dependency != null) {
+            dependency.cancel(mayInterruptIfRunning);
+        }
+        runListeners();
+        return true;
+    }
+
+    /**
+     * Called once when this future is cancelled.
+     */
+    void cancelled() {
+    }
+
+    @Override
+    public final synchronized boolean isCancelled() {
+        return cancelled;
+    }
+
+    @Override
+    public final synchronized boolean isDone() {
+        return done;
+    }
+
+    @Override
+    public final synchronized T get() throws InterruptedException, ExecutionException {
+        while (!done) {
+            wait();
+        }
+        return getDone();
+    }
+
+    @Override
+    public final synchronized T get(long timeout, TimeUnit unit)
+            throws InterruptedException, ExecutionException, TimeoutException {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        while (!done) {
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) {
+                throw new TimeoutException();
+            }
+            TimeUnit.NANOSECONDS.timedWait(this, remaining);
+        }
+        return getDone();
+    }
+
+    private synchronized T getDone() throws ExecutionException {
+        resolve();
+        if (cancelled) {
+            throw new CancellationException();
+        } else if (failure != null) {
+            throw new ExecutionException(failure);
+        }
+        return result;
+    }
+
+    /**
+     * Registers listener, which will be run by specified executor once this future is done. If future is already
+     * done, listener is run immediately.
+     *
+     * @param listener listener to run
+     * @param executor executor to run listener with
+     */
+    public final void addListener(final Runnable listener, final Executor executor) {
+        Runnable task = new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    executor.execute(listener);
+                } catch (RuntimeException e) {
+                    LOG.warn("Error while running listener", e);
+                }
+            }
+        };
+        synchronized (this) {
+            if (!done) {
+                listeners.add(task);
+                return;
+            }
+        }
+        task.run();
+    }
+
+    private void runListeners() {
+        List<Runnable> toRun;
+        synchronized (this) {
+            toRun = new ArrayList<Runnable>(listeners);
+            listeners.clear();
+        }
+        for (Runnable listener : toRun) {
+            listener.run();
+        }
+    }
+
+    /**
+     * Completes this future with result (or failure) of specified one once it is done. Unlike transformation,
+     * cancelling this future does not cancel the source.
+     */
+    final void follow(final ChromeCastFuture<? extends T> source) {
+        source.addListener(new Runnable() {
+            @Override
+            public void run() {
+                if (source.isCancelled()) {
+                    cancel(false);
+                    return;
+                }
+                completeLazily(new Callable<T>() {
+                    @Override
+                    public T call() throws ExecutionException {
+                        return source.getDone();
+                    }
+                });
+            }
+        }, DIRECT);
+    }
+
+    /**
+     * @return future, which is completed with the result of function applied to result of this future
+     */
+    final <R> ChromeCastFuture<R> transform(final Function<? super T, R> function) {
+        final ChromeCastFuture<R> transformed = new ChromeCastFuture<R>();
+        transformed.upstream = this;
+        addListener(new Runnable() {
+            @Override
+            public void run() {
+                if (isCancelled()) {
+                    transformed.cancel(false);
+                    return;
+                }
+                // result of this future is bound (and function is applied) by whoever gets transformed result
+                transformed.completeLazily(new Callable<R>() {
+                    @Override
+                    public R call() throws Exception {
+                        return function.apply(getDone());
+                    }
+                });
+            }
+        }, DIRECT);
+        return transformed;
+    }
+
+    /**
+     * Function may bind result of this future and start another request, so it is applied by specified executor
+     * rather than by the thread completing this future (which is the thread reading from device).
+     *
+     * @param executor executor applying the function
+     * @return future, which is completed with the result of future returned by function applied to result of
+     *         this future
+     */
+    final <R> ChromeCastFuture<R> transformAsync(final Function<? super T, ChromeCastFuture<R>> function,
+                                                 final Executor executor) {
+        final ChromeCastFuture<R> transformed = new ChromeCastFuture<R>();
+        transformed.upstream = this;
+        final Runnable application = new Runnable() {
+            @Override
+            public void run() {
+                if (transformed.isCancelled()) {
+                    // nobody waits for the result, do not start dependent operation
+                    return;
+                }
+                final ChromeCastFuture<R> next;
+                try {
+                    next = function.apply(getDone());
+                } catch (ExecutionException ee) {
+                    transformed.fail(ee.getCause());
+                    return;
+                } catch (CancellationException ce) {
+                    transformed.cancel(false);
+                    return;
+                } catch (Exception e) {
+                    transformed.fail(e);
+                    return;
+                }
+                transformed.upstream = next;
+                if (transformed.isCancelled()) {
+                    // cancelled while function was applied, before it could see the dependent future
+                    next.cancel(false);
+                    return;
+                }
+                next.addListener(new Runnable() {
+                    @Override
+                    public void run() {
+                        if (next.isCancelled()) {
+                            transformed.cancel(false);
+                            return;
+                        }
+                        transformed.completeLazily(new Callable<R>() {
+                            @Override
+                            public R call() throws ExecutionException {
+                                return next.getDone();
+                            }
+                        });
+                    }
+                }, DIRECT);
+            }
+        };
+        addListener(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    executor.execute(application);
+                } catch (RejectedExecutionException ree) {
+                    transformed.fail(ree);
+                }
+            }
+        }, DIRECT);
+        return transformed;
+    }
+}
@@ -37,6 +37,13 @@ public class ChromeCastSpontaneousEvent {
          */
         MEDIA_STATUS(MediaStatus.class),
 
+        /**
+         * Data type will be {@link MediaStatusDelta}. Sent along with {@link #MEDIA_STATUS} for every media status,
+         * but only to listeners registered for this type explicitly, see
+         * {@link ChromeCast#registerListener(ChromeCastSpontaneousEventListener, java.util.Set, String...)}.
+         */
+        MEDIA_STATUS_DELTA(MediaStatusDelta.class),
+
         /**
          * Data type will be {@link Status}.
          */
@@ -0,0 +1,226 @@
+/*
+ * Copyright 2026 Vitaly Litvak (vitavaque@gmail.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package su.litvak.chromecast.api.v2;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.Inet4Address;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.security.GeneralSecurityException;
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * <p>Connects to a device advertising several addresses, "happy eyeballs" style (RFC 8305).</p>
+ *
+ * <p>Connection attempts are started one after another in order of addresses, each next one when the previous
+ * has failed or has not completed within {@link #ATTEMPT_DELAY}. Attempts already started keep running, so the
+ * first transport which connects (including TLS handshake) wins and the others are closed. An unreachable or
+ * stale address costs at most that delay instead of the whole connect timeout.</p>
+ *
+ * <p>Attempts of all races run on {@link SharedExecutor}.</p>
+ */
+final class ConnectionRace {
+    private static final Logger LOG = LoggerFactory.getLogger(ConnectionRace.class);
+
+    /**
+     * Delay before starting attempt to connect to the next address, in milliseconds.
+     */
+    static final long ATTEMPT_DELAY = 250;
+
+    private final List<InetSocketAddress> addresses;
+    private final Transport.Factory factory;
+    private final int maxFrameSize;
+    private final int connectTimeout;
+    private final BlockingQueue<Attempt> completed = new LinkedBlockingQueue<Attempt>();
+    private final List<Attempt> started = new ArrayList<Attempt>();
+    private boolean decided;
+    private InetSocketAddress winner;
+
+    /**
+     * Connects transport to one address.
+     */
+    private class Attempt implements Runnable {
+        final InetSocketAddress address;
+        final Transport transport;
+        Exception failure;
+
+        Attempt(InetSocketAddress address) {
+            this.address = address;
+            this.transport = create();
+        }
+
+        @Override
+        public void run() {
+            try {
+                transport.connect(address);
+            } catch (IOException ioex) {
+                failure = ioex;
+            } catch (GeneralSecurityException gse) {
+                failure = gse;
+            }
+            synchronized (ConnectionRace.this) {
+                if (!decided) {
+                    completed.add(this);
+                    return;
+                }
+            }
+            // race is over, nobody will use this connection
+            closeQuietly(transport);
+        }
+    }
+
+    /**
+     * @param addresses addresses to try, in order of preference
+     */
+    ConnectionRace(List<InetSocketAddress> addresses, Transport.Factory factory, int maxFrameSize,
+                   int connectTimeout) {
+        if (addresses.isEmpty()) {
+            throw new IllegalArgumentException("No addresses to connect to");
+        }
+        this.addresses = addresses;
+        this.factory = factory;
+        this.maxFrameSize = maxFrameSize;
+        this.connectTimeout = connectTimeout;
+    }
+
+    /**
+     * Runs the race. Blocks until some address is connected or all attempts have failed.
+     *
+     * @return connected transport
+     * @throws IOException failure of the last attempt if none succeeded
+     */
+    Transport connect() throws IOException, GeneralSecurityException {
+        if (addresses.size() == 1) {
+            // nothing to race with, connect in the calling thread
+            Transport transport = create();
+            transport.connect(addresses.get(0));
+            winner = addresses.get(0);
+            return transport;
+        }
+
+        Exception failure = null;
+        int failed = 0;
+        try {
+            start();
+            while (failed < addresses.size()) {
+                Attempt attempt = started.size() < addresses.size()
+                        ? completed.poll(ATTEMPT_DELAY, TimeUnit.MILLISECONDS)
+                        : completed.take();
+                if (attempt == null) {
+                    start();
+                } else if (attempt.failure == null) {
+                    finish(attempt);
+                    winner = attempt.address;
+                    return attempt.transport;
+                } else {
+                    LOG.debug("Could not connect to {}, caused by {}", attempt.address, attempt.failure.toString());
+                    failure = attempt.failure;
+                    failed++;
+                    // no reason to wait for the delay, try next address at once
+                    if (started.size() < addresses.size()) {
+                        start();
+                    }
+                }
+            }
+        } catch (InterruptedException ie) {
+            finish(null);
+            InterruptedIOException ioex = new InterruptedIOException("Interrupted while connecting");
+            ioex.initCause(ie);
+            throw ioex;
+        }
+        if (failure instanceof GeneralSecurityException) {
+            throw (GeneralSecurityException) failure;
+        }
+        throw (IOException) failure;
+    }
+
+    /**
+     * @return address of transport returned by {@link #connect()}
+     */
+    InetSocketAddress getWinner() {
+        return winner;
+    }
+
+    private Transport create() {
+        Transport transport = factory.create();
+        transport.setMaxFrameSize(maxFrameSize);
+        transport.setConnectTimeout(connectTimeout);
+        return transport;
+    }
+
+    private void start() {
+        Attempt attempt = new Attempt(addresses.get(started.size()));
+        started.add(attempt);
+        SharedExecutor.get().execute(attempt);
+    }
+
+    /**
+     * Ends the race and closes all connections except the winner's, aborting attempts still in progress.
+     */
+    private void finish(Attempt won) {
+        synchronized (this) {
+            decided = true;
+        }
+        for (Attempt attempt : started) {
+            if (attempt != won) {
+                closeQuietly(attempt.transport);
+            }
+        }
+    }
+
+    private static void closeQuietly(Transport transport) {
+        try {
+            transport.close();
+        } catch (IOException ioex) {
+            LOG.debug("Error while closing transport", ioex);
+        }
+    }
+
+    /**
+     * Orders addresses for the race: address families alternate, starting with the family of the first address, and
+     * order within each family is kept.
+     */
+    static List<InetAddress> interleave(List<InetAddress> addresses) {
+        LinkedList<InetAddress> first = new LinkedList<InetAddress>();
+        LinkedList<InetAddress> second = new LinkedList<InetAddress>();
+        for (InetAddress address : addresses) {
+            if (first.isEmpty() || first.getFirst() instanceof Inet4Address == address instanceof Inet4Address) {
+                first.add(address);
+            } else {
+                second.add(address);
+            }
+        }
+        List<InetAddress> result = new ArrayList<InetAddress>(addresses.size());
+        while (!first.isEmpty() || !second.isEmpty()) {
+            if (!first.isEmpty()) {
+                result.add(first.removeFirst());
+            }
+            if (!second.isEmpty()) {
+                result.add(second.removeFirst());
+            }
+        }
+        return result;
+    }
+}
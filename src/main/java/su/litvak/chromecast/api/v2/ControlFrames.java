@@ -0,0 +1,97 @@
+/*
+ * Copyright 2026 Vitaly Litvak (vitavaque@gmail.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package su.litvak.chromecast.api.v2;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import su.litvak.chromecast.api.v2.CastChannel.CastMessage;
+
+import java.io.IOException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * <p>Wire frames (length prefix included) of 'PING', 'PONG' and 'CONNECT' messages of one sender.</p>
+ *
+ * <p>These messages never change except for destination, so each one is encoded once per destination and then
+ * written as is by {@link Transport#writeFrame(byte[])}, which makes heartbeat traffic allocation free.</p>
+ */
+final class ControlFrames {
+    static final String HEARTBEAT_NAMESPACE = "urn:x-cast:com.google.cast.tp.heartbeat";
+    static final String CONNECTION_NAMESPACE = "urn:x-cast:com.google.cast.tp.connection";
+
+    static final String PING_JSON = json(StandardMessage.ping());
+    static final String PONG_JSON = json(StandardMessage.pong());
+    static final String CONNECT_JSON = json(StandardMessage.connect());
+
+    private final String sourceId;
+    private final byte[] ping;
+    private final byte[] pong;
+    private final ConcurrentMap<String, byte[]> connect = new ConcurrentHashMap<String, byte[]>();
+
+    ControlFrames(String sourceId, String receiverId) {
+        this.sourceId = sourceId;
+        this.ping = encode(HEARTBEAT_NAMESPACE, PING_JSON, receiverId);
+        this.pong = encode(HEARTBEAT_NAMESPACE, PONG_JSON, receiverId);
+    }
+
+    byte[] ping() {
+        return ping;
+    }
+
+    byte[] pong() {
+        return pong;
+    }
+
+    /**
+     * @return 'CONNECT' frame to specified destination, encoded on first use
+     */
+    byte[] connect(String destinationId) {
+        byte[] frame = connect.get(destinationId);
+        if (frame == null) {
+            frame = encode(CONNECTION_NAMESPACE, CONNECT_JSON, destinationId);
+            connect.put(destinationId, frame);
+        }
+        return frame;
+    }
+
+    private byte[] encode(String namespace, String payload, String destinationId) {
+        CastMessage message = CastMessage.newBuilder()
+                .setProtocolVersion(CastMessage.ProtocolVersion.CASTV2_1_0)
+                .setSourceId(sourceId)
+                .setDestinationId(destinationId)
+                .setNamespace(namespace)
+                .setPayloadType(CastMessage.PayloadType.STRING)
+                .setPayloadUtf8(payload)
+                .build();
+        int size = message.getSerializedSize();
+        byte[] frame = new byte[4 + size];
+        try {
+            FrameWriter.encode(message, size, frame, 0);
+        } catch (IOException ioex) {
+            // encoding into array of exact size does not fail
+            throw new IllegalStateException(ioex);
+        }
+        return frame;
+    }
+
+    private static String json(StandardMessage message) {
+        try {
+            return JsonCodecs.writer(message.getClass()).writeValueAsString(message);
+        } catch (JsonProcessingException jpe) {
+            throw new IllegalStateException(jpe);
+        }
+    }
+}
@@ -0,0 +1,177 @@
+/*
+ * Copyright 2026 Vitaly Litvak (vitavaque@gmail.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package su.litvak.chromecast.api.v2;
+
+import com.fasterxml.jackson.databind.JsonMappingException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+
+/**
+ * <p>Last known state of device on one connection: receiver status and media status of the running application.
+ * Kept up to date with every <code>RECEIVER_STATUS</code> and <code>MEDIA_STATUS</code> message received, whether
+ * it answers a request or is an event, so commands may skip requesting status from device.</p>
+ *
+ * <p>Messages are kept as received and bound only when state is asked for, so reader does not bind statuses
+ * nobody uses. State is not used while it is older than maximum age or while request, which changes it (e.g.
+ * 'LAUNCH'), is waiting for response.</p>
+ */
+final class DeviceState {
+    private static final Logger LOG = LoggerFactory.getLogger(DeviceState.class);
+
+    private static final String RECEIVER_STATUS = "RECEIVER_STATUS";
+    private static final String MEDIA_STATUS = "MEDIA_STATUS";
+    private static final String CLOSE = "CLOSE";
+
+    private volatile long maxAge;
+
+    private JsonPayload statusPayload;
+    private Status status;
+    private long statusReceived;
+
+    private String mediaSource;
+    private JsonPayload mediaPayload;
+    private MediaStatus mediaStatus;
+    private long mediaReceived;
+
+    /**
+     * Number of requests changing state, which are not answered yet.
+     */
+    private int changing;
+
+    DeviceState(long maxAge) {
+        this.maxAge = maxAge;
+    }
+
+    /**
+     * @param maxAge how long received state may be used (in ms), 0 to never use it
+     */
+    void setMaxAge(long maxAge) {
+        this.maxAge = maxAge;
+    }
+
+    /**
+     * Records message received from specified sender, ignores messages other than statuses and 'CLOSE'.
+     */
+    synchronized void received(String sourceId, JsonPayload payload) {
+        String type = payload.getType();
+        if (RECEIVER_STATUS.equals(type)) {
+            statusPayload = payload;
+            status = null;
+            statusReceived = System.nanoTime();
+        } else if (MEDIA_STATUS.equals(type)) {
+            mediaSource = sourceId;
+            mediaPayload = payload;
+            mediaStatus = null;
+            mediaReceived = System.nanoTime();
+        } else if (CLOSE.equals(type)) {
+            // application is gone along with its media
+            clear();
+        }
+    }
+
+    /**
+     * Marks state as unusable until returned future is done.
+     */
+    <T> ChromeCastFuture<T> changedBy(ChromeCastFuture<T> request) {
+        synchronized (this) {
+            changing++;
+        }
+        request.addListener(new Runnable() {
+            @Override
+            public void run() {
+                synchronized (DeviceState.this) {
+                    changing--;
+                }
+            }
+        }, ChromeCastFuture.DIRECT);
+        return request;
+    }
+
+    synchronized void clear() {
+        statusPayload = null;
+        status = null;
+        mediaSource = null;
+        mediaPayload = null;
+        mediaStatus = null;
+    }
+
+    /**
+     * @return receiver status if it is known and fresh, <code>null</code> otherwise
+     */
+    synchronized Status getStatus() {
+        if (!usable(statusReceived) || statusPayload == null) {
+            return null;
+        }
+        if (status == null) {
+            try {
+                StandardResponse response = statusPayload.bind(StandardResponse.class);
+                status = response instanceof StandardResponse.Status
+                        ? ((StandardResponse.Status) response).status : null;
+            } catch (IOException ioex) {
+                LOG.debug("Unable to bind receiver status", ioex);
+            }
+            if (status == null) {
+                statusPayload = null;
+            }
+        }
+        return status;
+    }
+
+    /**
+     * @return status of media played by specified application if it is known and fresh, <code>null</code> otherwise
+     */
+    synchronized MediaStatus getMediaStatus(String transportId) {
+        if (!usable(mediaReceived) || mediaPayload == null || !transportId.equals(mediaSource)) {
+            return null;
+        }
+        if (mediaStatus == null) {
+            try {
+                mediaStatus = bindMediaStatus(mediaPayload);
+            } catch (IOException ioex) {
+                LOG.debug("Unable to bind media status", ioex);
+            }
+            if (mediaStatus == null) {
+                mediaPayload = null;
+            }
+        }
+        return mediaStatus;
+    }
+
+    private boolean usable(long received) {
+        long age = maxAge;
+        return changing == 0 && age > 0 && System.nanoTime() - received < age * 1000000L;
+    }
+
+    private static MediaStatus bindMediaStatus(JsonPayload payload) throws IOException {
+        StandardResponse response;
+        try {
+            response = payload.bind(StandardResponse.class);
+        } catch (JsonMappingException jme) {
+            return null;
+        }
+        if (!(response instanceof StandardResponse.MediaStatus)) {
+            return null;
+        }
+        MediaStatus[] statuses = ((StandardResponse.MediaStatus) response).statuses;
+        if (statuses == null) {
+            // it may be a single media status event
+            return payload.has("media") ? payload.bind(MediaStatus.class) : null;
+        }
+        return statuses.length == 0 ? null : statuses[0];
+    }
+}
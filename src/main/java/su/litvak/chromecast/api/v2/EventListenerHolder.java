@@ -17,47 +17,281 @@ package su.litvak.chromecast.api.v2;
 
 import com.fasterxml.jackson.databind.JsonMappingException;
 import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import su.litvak.chromecast.api.v2.ChromeCastSpontaneousEvent.SpontaneousEventType;
 
 import java.io.IOException;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.Executor;
 
 /**
- * Helper class for delivering spontaneous events to their listeners.
+ * <p>Helper class for delivering spontaneous events to their listeners.</p>
+ *
+ * <p>By default listeners are called by the thread which received the event. Once dispatch executor is set, each
+ * listener gets its own bounded queue drained on that executor, see {@link ListenerQueue}.</p>
+ *
+ * <p>Listener may be registered for some event types and application namespaces only. Message is not bound at all
+ * unless some listener is interested in its type, and application events are passed only to listeners of their
+ * namespace.</p>
  */
 class EventListenerHolder implements ChromeCastSpontaneousEventListener, ChromeCastConnectionEventListener {
+    /**
+     * Event types listener gets unless it is registered for some types only.
+     */
+    private static final Set<SpontaneousEventType> DEFAULT_TYPES =
+            EnumSet.complementOf(EnumSet.of(SpontaneousEventType.MEDIA_STATUS_DELTA));
 
-    private final ObjectMapper jsonMapper = JacksonHelper.createJSONMapper();
     private final Set<ChromeCastSpontaneousEventListener> eventListeners =
             new CopyOnWriteArraySet<ChromeCastSpontaneousEventListener>();
     private final Set<ChromeCastConnectionEventListener> eventListenersConnection =
             new CopyOnWriteArraySet<ChromeCastConnectionEventListener>();
+    /**
+     * Queue of every listener, which got any event since dispatch executor was set, by listener.
+     */
+    private final ConcurrentMap<Object, ListenerQueue> queues = new ConcurrentHashMap<Object, ListenerQueue>();
+    /**
+     * Queues of listeners, which get only the latest of statuses waiting for them, by listener.
+     */
+    private final ConcurrentMap<Object, ListenerQueue> latestStatus = new ConcurrentHashMap<Object, ListenerQueue>();
+    private volatile Executor dispatchExecutor;
+    private volatile int queueCapacity;
+    private volatile EventOverflow overflow;
+    /**
+     * Event types of listeners registered for some types only, by listener.
+     */
+    private final ConcurrentMap<ChromeCastSpontaneousEventListener, Set<SpontaneousEventType>> filters =
+            new ConcurrentHashMap<ChromeCastSpontaneousEventListener, Set<SpontaneousEventType>>();
+    /**
+     * Listeners of application events of every namespace.
+     */
+    private final Set<ChromeCastSpontaneousEventListener> appEventListeners =
+            new CopyOnWriteArraySet<ChromeCastSpontaneousEventListener>();
+    /**
+     * Listeners of application events of some namespaces only, by namespace.
+     */
+    private final ConcurrentMap<String, Set<ChromeCastSpontaneousEventListener>> namespaceListeners =
+            new ConcurrentHashMap<String, Set<ChromeCastSpontaneousEventListener>>();
+    /**
+     * Event types any listener is interested in, application events excluded.
+     */
+    private volatile Set<SpontaneousEventType> wanted = EnumSet.noneOf(SpontaneousEventType.class);
+    /**
+     * Whether any listener is interested in changes of media statuses.
+     */
+    private volatile boolean deltaWanted;
+    private final MediaStatusTracker mediaStatuses = new MediaStatusTracker();
 
     EventListenerHolder() {}
 
+    /**
+     * @param executor executor delivering events to listeners, <code>null</code> to call listeners directly
+     * @param capacity maximum number of events waiting for one listener
+     * @param overflowPolicy what happens to event for listener, whose queue is full
+     */
+    synchronized void setDispatch(Executor executor, int capacity, EventOverflow overflowPolicy) {
+        if (executor != null && capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive: " + capacity);
+        }
+        this.queueCapacity = capacity;
+        this.overflow = overflowPolicy == null ? EventOverflow.BLOCK : overflowPolicy;
+        this.dispatchExecutor = executor;
+        // new queues wait until events already queued are delivered by old ones, so do listeners called directly
+        for (Map.Entry<Object, ListenerQueue> entry : queues.entrySet()) {
+            if (executor != null) {
+                entry.setValue(entry.getValue().handOver(executor, capacity, overflow));
+            } else if (entry.getValue().isIdle()) {
+                queues.remove(entry.getKey(), entry.getValue());
+            }
+        }
+    }
+
+    /**
+     * Queues event for listener if dispatch executor is set, delivers it right away otherwise.
+     */
+    private void dispatch(Object listener, Object kind, Runnable delivery) {
+        Executor executor = dispatchExecutor;
+        if (executor == null) {
+            ListenerQueue queue = queues.isEmpty() ? null : queues.get(listener);
+            if (queue != null) {
+                // events queued before dispatch was switched off go first
+                if (queue.offerIfBusy(kind, delivery)) {
+                    return;
+                }
+                queues.remove(listener, queue);
+            }
+            delivery.run();
+            return;
+        }
+        ListenerQueue queue = queues.get(listener);
+        if (queue == null) {
+            ListenerQueue created = new ListenerQueue(executor, queueCapacity, overflow);
+            queue = queues.putIfAbsent(listener, created);
+            if (queue == null) {
+                queue = created;
+            }
+        }
+        queue.offer(kind, delivery);
+    }
+
+    /**
+     * @return how far specified listener lags behind events
+     */
+    ListenerStats stats(Object listener) {
+        ListenerQueue queue = latestStatus.get(listener);
+        if (queue == null) {
+            queue = queues.get(listener);
+        }
+        return queue == null ? new ListenerStats(0, 0, 0) : queue.stats();
+    }
+
     public void registerListener(ChromeCastSpontaneousEventListener listener) {
         if (listener != null) {
+            synchronized (this) {
+                removeListener(listener);
+                this.eventListeners.add(listener);
+                this.appEventListeners.add(listener);
+                updateWanted();
+            }
+        }
+    }
+
+    /**
+     * Registers listener of specified event types only. If namespaces are specified, listener gets application
+     * events of these namespaces only.
+     */
+    void registerListener(ChromeCastSpontaneousEventListener listener, Set<SpontaneousEventType> types,
+                          String... namespaces) {
+        if (listener == null) {
+            return;
+        }
+        Set<SpontaneousEventType> accepted = types.isEmpty() ? EnumSet.noneOf(SpontaneousEventType.class)
+                : EnumSet.copyOf(types);
+        synchronized (this) {
+            removeListener(listener);
+            this.filters.put(listener, accepted);
             this.eventListeners.add(listener);
+            if (accepted.contains(SpontaneousEventType.APPEVENT)) {
+                if (namespaces.length == 0) {
+                    this.appEventListeners.add(listener);
+                }
+                for (String namespace : new HashSet<String>(Arrays.asList(namespaces))) {
+                    Set<ChromeCastSpontaneousEventListener> listeners = namespaceListeners.get(namespace);
+                    if (listeners == null) {
+                        listeners = new CopyOnWriteArraySet<ChromeCastSpontaneousEventListener>();
+                        namespaceListeners.put(namespace, listeners);
+                    }
+                    listeners.add(listener);
+                }
+            }
+            updateWanted();
+        }
+    }
+
+    /**
+     * Removes listener from all listener sets, caller holds the lock.
+     */
+    private void removeListener(ChromeCastSpontaneousEventListener listener) {
+        this.eventListeners.remove(listener);
+        this.appEventListeners.remove(listener);
+        this.filters.remove(listener);
+        for (Iterator<Set<ChromeCastSpontaneousEventListener>> it = namespaceListeners.values().iterator();
+             it.hasNext();) {
+            Set<ChromeCastSpontaneousEventListener> listeners = it.next();
+            listeners.remove(listener);
+            if (listeners.isEmpty()) {
+                it.remove();
+            }
+        }
+    }
+
+    private void updateWanted() {
+        Set<SpontaneousEventType> types = EnumSet.noneOf(SpontaneousEventType.class);
+        for (ChromeCastSpontaneousEventListener listener : eventListeners) {
+            Set<SpontaneousEventType> filter = filters.get(listener);
+            types.addAll(filter == null ? DEFAULT_TYPES : filter);
+        }
+        types.remove(SpontaneousEventType.APPEVENT);
+        boolean delta = types.remove(SpontaneousEventType.MEDIA_STATUS_DELTA);
+        if (delta) {
+            // delta is made of media status message
+            types.add(SpontaneousEventType.MEDIA_STATUS);
+        } else {
+            // statuses are not tracked meanwhile, so the last known ones may become outdated
+            mediaStatuses.clear();
+        }
+        this.deltaWanted = delta;
+        this.wanted = types;
+    }
+
+    /**
+     * @return true if some listener gets media status deltas, which are made by {@link MediaStatusTracker}
+     */
+    boolean isDeltaWanted() {
+        return deltaWanted;
+    }
+
+    /**
+     * @return true if some listener gets application events of specified namespace
+     */
+    boolean wantsAppEvent(String namespace) {
+        return !appEventListeners.isEmpty() || namespaceListeners.containsKey(namespace);
+    }
+
+    /**
+     * Registers listener, which gets events on its own queue drained on specified executor. Status waiting in the
+     * queue is replaced by newer status of the same kind: receiver status by receiver status, media status by status
+     * of the same media session. Replaced statuses are counted as dropped.
+     */
+    void registerLatestStatusListener(ChromeCastSpontaneousEventListener listener, Executor executor, int capacity) {
+        if (listener != null) {
+            this.latestStatus.put(listener, new ListenerQueue(executor, capacity, EventOverflow.DROP_OLDEST));
+            registerListener(listener);
         }
     }
 
     public void unregisterListener(ChromeCastSpontaneousEventListener listener) {
         if (listener != null) {
-            this.eventListeners.remove(listener);
+            synchronized (this) {
+                removeListener(listener);
+                updateWanted();
+            }
+            this.queues.remove(listener);
+            this.latestStatus.remove(listener);
         }
     }
 
     public void deliverEvent(JsonNode json) throws IOException {
-        if (json == null || this.eventListeners.isEmpty()) {
+        if (json == null || this.wanted.isEmpty()) {
+            return;
+        }
+        deliverEvent(JsonPayload.of(json, deltaWanted));
+    }
+
+    void deliverEvent(JsonPayload payload) throws IOException {
+        SpontaneousEventType type = payload == null ? null : typeOf(payload);
+        if (type == SpontaneousEventType.CLOSE) {
+            mediaStatuses.clear();
+        }
+        if (type == null || !this.wanted.contains(type)) {
+            return;
+        }
+        // statuses are compared with previous ones only if somebody needs changes
+        if (type == SpontaneousEventType.MEDIA_STATUS && deltaWanted && deliverMediaStatus(payload)) {
             return;
         }
 
         StandardResponse resp;
-        if (json.has("responseType")) {
+        if (payload.hasType()) {
             try {
-                resp = this.jsonMapper.treeToValue(json, StandardResponse.class);
+                resp = payload.bind(StandardResponse.class);
             } catch (JsonMappingException jme) {
                 resp = null;
             }
@@ -75,9 +309,9 @@ class EventListenerHolder implements ChromeCastSpontaneousEventListener, ChromeC
             StandardResponse.MediaStatus mediaStatusResponse = (StandardResponse.MediaStatus) resp;
             // it may be a single media status event
             if (mediaStatusResponse.statuses == null) {
-                if (json.has("media")) {
+                if (payload.has("media")) {
                     try {
-                        MediaStatus ms = jsonMapper.treeToValue(json, MediaStatus.class);
+                        MediaStatus ms = payload.bind(MediaStatus.class);
                         spontaneousEventReceived(new ChromeCastSpontaneousEvent(SpontaneousEventType.MEDIA_STATUS, ms));
                     } catch (JsonMappingException jme) {
                         // ignored
@@ -94,21 +328,115 @@ class EventListenerHolder implements ChromeCastSpontaneousEventListener, ChromeC
         } else if (resp instanceof StandardResponse.Close) {
             spontaneousEventReceived(new ChromeCastSpontaneousEvent(SpontaneousEventType.CLOSE, new Object()));
         } else {
-            spontaneousEventReceived(new ChromeCastSpontaneousEvent(SpontaneousEventType.UNKNOWN, json));
+            spontaneousEventReceived(new ChromeCastSpontaneousEvent(SpontaneousEventType.UNKNOWN,
+                    payload.tree()));
         }
     }
 
+    /**
+     * Delivers media statuses of message along with their changes against previous statuses.
+     *
+     * @return false if message is not recognized as media status
+     */
+    private boolean deliverMediaStatus(JsonPayload payload) throws IOException {
+        List<MediaStatusDelta> deltas;
+        try {
+            deltas = mediaStatuses.update(payload);
+        } catch (JsonMappingException jme) {
+            return false;
+        }
+        if (deltas == null) {
+            return false;
+        }
+        for (MediaStatusDelta delta : deltas) {
+            spontaneousEventReceived(new ChromeCastSpontaneousEvent(SpontaneousEventType.MEDIA_STATUS,
+                    delta.getStatus()));
+            spontaneousEventReceived(new ChromeCastSpontaneousEvent(SpontaneousEventType.MEDIA_STATUS_DELTA, delta));
+        }
+        return true;
+    }
+
+    /**
+     * @return type of event made of specified payload, judging by its type property only
+     */
+    private static SpontaneousEventType typeOf(JsonPayload payload) {
+        String type = payload.getType();
+        if ("MEDIA_STATUS".equals(type)) {
+            return SpontaneousEventType.MEDIA_STATUS;
+        } else if ("RECEIVER_STATUS".equals(type)) {
+            return SpontaneousEventType.STATUS;
+        } else if ("CLOSE".equals(type)) {
+            return SpontaneousEventType.CLOSE;
+        }
+        return SpontaneousEventType.UNKNOWN;
+    }
+
     public void deliverAppEvent(AppEvent event) throws IOException {
-        spontaneousEventReceived(new ChromeCastSpontaneousEvent(SpontaneousEventType.APPEVENT, event));
+        ChromeCastSpontaneousEvent appEvent = new ChromeCastSpontaneousEvent(SpontaneousEventType.APPEVENT, event);
+        for (ChromeCastSpontaneousEventListener listener : this.appEventListeners) {
+            deliver(listener, appEvent);
+        }
+        Set<ChromeCastSpontaneousEventListener> listeners = namespaceListeners.get(event.namespace);
+        if (listeners != null) {
+            for (ChromeCastSpontaneousEventListener listener : listeners) {
+                deliver(listener, appEvent);
+            }
+        }
     }
 
     @Override
-    public void spontaneousEventReceived(ChromeCastSpontaneousEvent event) {
+    public void spontaneousEventReceived(final ChromeCastSpontaneousEvent event) {
+        if (event.getType() == SpontaneousEventType.APPEVENT) {
+            try {
+                deliverAppEvent(event.getData(AppEvent.class));
+            } catch (IOException ioex) {
+                throw new IllegalStateException(ioex);
+            }
+            return;
+        }
         for (ChromeCastSpontaneousEventListener listener : this.eventListeners) {
+            Set<SpontaneousEventType> filter = filters.get(listener);
+            if ((filter == null ? DEFAULT_TYPES : filter).contains(event.getType())) {
+                deliver(listener, event);
+            }
+        }
+    }
+
+    /**
+     * Calls listener right away or queues event for it, depending on how listener is registered.
+     */
+    private void deliver(final ChromeCastSpontaneousEventListener listener, final ChromeCastSpontaneousEvent event) {
+        if (dispatchExecutor == null && latestStatus.isEmpty() && queues.isEmpty()) {
             listener.spontaneousEventReceived(event);
+            return;
+        }
+        Runnable delivery = new Runnable() {
+            @Override
+            public void run() {
+                listener.spontaneousEventReceived(event);
+            }
+        };
+        ListenerQueue latest = latestStatus.get(listener);
+        if (latest != null) {
+            latest.offer(event.getType(), statusKey(event), delivery);
+        } else {
+            dispatch(listener, event.getType(), delivery);
         }
     }
 
+    /**
+     * @return key of status, which is superseded by newer status with the same key, <code>null</code> for other
+     *         events
+     */
+    private static Object statusKey(ChromeCastSpontaneousEvent event) {
+        if (event.getType() == SpontaneousEventType.MEDIA_STATUS) {
+            return event.getData(MediaStatus.class).mediaSessionId;
+        } else if (event.getType() == SpontaneousEventType.STATUS) {
+            return SpontaneousEventType.STATUS;
+        }
+        return null;
+    }
+
     public void registerConnectionListener(ChromeCastConnectionEventListener listener) {
         if (listener != null) {
             this.eventListenersConnection.add(listener);
@@ -118,6 +446,7 @@ class EventListenerHolder implements ChromeCastSpontaneousEventListener, ChromeC
     public void unregisterConnectionListener(ChromeCastConnectionEventListener listener) {
         if (listener != null) {
             this.eventListenersConnection.remove(listener);
+            this.queues.remove(listener);
         }
     }
 
@@ -125,10 +454,25 @@ class EventListenerHolder implements ChromeCastSpontaneousEventListener, ChromeC
         connectionEventReceived(new ChromeCastConnectionEvent(connected));
     }
 
+    public void deliverConnectionEvent(boolean connected, long handshakeTime, boolean sessionResumed) {
+        connectionEventReceived(new ChromeCastConnectionEvent(connected, handshakeTime, sessionResumed));
+    }
+
     @Override
-    public void connectionEventReceived(ChromeCastConnectionEvent event) {
-        for (ChromeCastConnectionEventListener listener : this.eventListenersConnection) {
-            listener.connectionEventReceived(event);
+    public void connectionEventReceived(final ChromeCastConnectionEvent event) {
+        if (dispatchExecutor == null && queues.isEmpty()) {
+            for (ChromeCastConnectionEventListener listener : this.eventListenersConnection) {
+                listener.connectionEventReceived(event);
+            }
+            return;
+        }
+        for (final ChromeCastConnectionEventListener listener : this.eventListenersConnection) {
+            dispatch(listener, ChromeCastConnectionEvent.class, new Runnable() {
+                @Override
+                public void run() {
+                    listener.connectionEventReceived(event);
+                }
+            });
         }
     }
 }
@@ -0,0 +1,38 @@
+/*
+ * Copyright 2026 Vitaly Litvak (vitavaque@gmail.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package su.litvak.chromecast.api.v2;
+
+/**
+ * What happens to event for a listener, whose queue is full, see
+ * {@link ChromeCast#setEventDispatch(java.util.concurrent.Executor, int, EventOverflow)}.
+ */
+public enum EventOverflow {
+    /**
+     * Thread receiving messages from device waits until listener catches up, so no event is lost.
+     */
+    BLOCK,
+
+    /**
+     * The oldest event waiting for listener is dropped.
+     */
+    DROP_OLDEST,
+
+    /**
+     * The oldest waiting event of the same type is dropped, as newer status supersedes it. If there is none,
+     * the oldest event is dropped.
+     */
+    COALESCE
+}
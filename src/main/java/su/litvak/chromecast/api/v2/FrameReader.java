@@ -0,0 +1,105 @@
+/*
+ * Copyright 2026 Vitaly Litvak (vitavaque@gmail.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package su.litvak.chromecast.api.v2;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * <p>Inbound path of a blocking connection.</p>
+ *
+ * <p>Reads from the stream in bulk into one reusable buffer and parses length-prefixed frames right from it, so
+ * neither length prefix is read byte by byte nor a new array is allocated per frame. Frames longer than maximum
+ * frame size are treated as corrupt stream.</p>
+ */
+final class FrameReader {
+    private static final int INITIAL_BUFFER_SIZE = 8192;
+    /**
+     * Buffers grown above this size are dropped once emptied instead of being kept for reuse.
+     */
+    private static final int MAX_RETAINED_BUFFER_SIZE = 256 * 1024;
+
+    private final InputStream in;
+    private final int maxFrameSize;
+    private byte[] buffer = new byte[INITIAL_BUFFER_SIZE];
+    /**
+     * Buffered data not decoded yet is <code>buffer[start, end)</code>.
+     */
+    private int start;
+    private int end;
+
+    FrameReader(InputStream in, int maxFrameSize) {
+        this.in = in;
+        this.maxFrameSize = maxFrameSize;
+    }
+
+    /**
+     * Reads next frame, blocking until it is received completely. Payload of returned frame refers to the reader's
+     * buffer and is only valid until the next call.
+     *
+     * @throws com.google.protobuf.InvalidProtocolBufferException if frame could not be parsed, it is skipped then
+     * @throws ChromeCastException if frame size is invalid or stream is closed
+     */
+    CastFrame read() throws IOException {
+        fill(4);
+        int size = (buffer[start] & 0xFF) << 24 | (buffer[start + 1] & 0xFF) << 16
+                | (buffer[start + 2] & 0xFF) << 8 | buffer[start + 3] & 0xFF;
+        checkFrameSize(size, maxFrameSize);
+        fill(4 + size);
+        int offset = start + 4;
+        start = offset + size;
+        try {
+            return CastFrame.decode(buffer, offset, size);
+        } finally {
+            if (start == end) {
+                start = 0;
+                end = 0;
+                if (buffer.length > MAX_RETAINED_BUFFER_SIZE) {
+                    buffer = new byte[INITIAL_BUFFER_SIZE];
+                }
+            }
+        }
+    }
+
+    /**
+     * Reads from stream until at least specified number of bytes is buffered.
+     */
+    private void fill(int needed) throws IOException {
+        if (end - start >= needed) {
+            return;
+        }
+        if (buffer.length - start < needed) {
+            byte[] target = buffer.length < needed ? new byte[Math.max(needed, buffer.length * 2)] : buffer;
+            System.arraycopy(buffer, start, target, 0, end - start);
+            buffer = target;
+            end -= start;
+            start = 0;
+        }
+        while (end - start < needed) {
+            int read = in.read(buffer, end, buffer.length - end);
+            if (read == -1) {
+                throw new ChromeCastException("Remote socket closed");
+            }
+            end += read;
+        }
+    }
+
+    static void checkFrameSize(int size, int maxFrameSize) throws ChromeCastException {
+        if (size < 0 || size > maxFrameSize) {
+            throw new ChromeCastException("Invalid frame size " + size + ", maximum is " + maxFrameSize);
+        }
+    }
+}
@@ -0,0 +1,224 @@
+/*
+ * Copyright 2026 Vitaly Litvak (vitavaque@gmail.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package su.litvak.chromecast.api.v2;
+
+import com.google.protobuf.CodedOutputStream;
+import su.litvak.chromecast.api.v2.CastChannel.CastMessage;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * <p>Thread-safe outbound path of a blocking connection.</p>
+ *
+ * <p>Every caller enqueues its frame, then the one holding the lock drains the queue: all pending frames are
+ * encoded (length prefix included) into a single reusable buffer and written to the stream with one call. So frames
+ * are never interleaved and several frames written concurrently share one TLS record.</p>
+ */
+final class FrameWriter {
+    private static final int INITIAL_BUFFER_SIZE = 4096;
+    /**
+     * Buffers grown above this size are dropped after write instead of being kept for reuse.
+     */
+    private static final int MAX_RETAINED_BUFFER_SIZE = 256 * 1024;
+
+    /**
+     * Frame waiting to be written.
+     */
+    private static final class Pending {
+        final CastMessage message;
+        volatile boolean written;
+        volatile IOException failure;
+
+        Pending(CastMessage message) {
+            this.message = message;
+        }
+    }
+
+    private final OutputStream out;
+    private final Queue<Pending> queue = new ConcurrentLinkedQueue<Pending>();
+    private final Object lock = new Object();
+    private byte[] buffer = new byte[INITIAL_BUFFER_SIZE];
+    private Pending[] batch = new Pending[16];
+
+    FrameWriter(OutputStream out) {
+        this.out = out;
+    }
+
+    /**
+     * Writes frame. Returns once the frame (possibly together with frames of other threads) is written.
+     */
+    void write(CastMessage message) throws IOException {
+        Pending pending = new Pending(message);
+        queue.add(pending);
+        synchronized (lock) {
+            if (!pending.written) {
+                drain(null, 0, 0);
+            }
+        }
+        if (pending.failure != null) {
+            throw pending.failure;
+        }
+    }
+
+    /**
+     * Writes encoded frame together with frames queued by other threads. Nothing is allocated, so frames sent
+     * periodically (like heartbeats) produce no garbage.
+     */
+    void write(byte[] frame, int offset, int length) throws IOException {
+        synchronized (lock) {
+            drain(frame, offset, length);
+        }
+    }
+
+    /**
+     * @return number of frames waiting for a writer
+     */
+    int queued() {
+        return queue.size();
+    }
+
+    /**
+     * Encodes all queued frames followed by specified encoded frame (if any) and writes them at once. Encoded frame
+     * is written as is when there is nothing queued. If one of queued frames can't be encoded, none of frames taken
+     * from the queue is written and all of them fail.
+     *
+     * @throws IOException if writing has failed and there was encoded frame to write
+     */
+    private void drain(byte[] frame, int offset, int frameLength) throws IOException {
+        int count = 0;
+        int length = 0;
+        Pending next;
+        try {
+            while ((next = queue.poll()) != null) {
+                if (count == batch.length) {
+                    Pending[] bigger = new Pending[count * 2];
+                    System.arraycopy(batch, 0, bigger, 0, count);
+                    batch = bigger;
+                }
+                batch[count++] = next;
+                int size = next.message.getSerializedSize();
+                ensureCapacity(length + 4 + size);
+                length = encode(next.message, size, buffer, length);
+            }
+        } catch (Exception e) {
+            IOException failure = e instanceof IOException ? (IOException) e
+                    : new ChromeCastException("Unable to encode frame", e);
+            complete(count, failure);
+            count = 0;
+        }
+        if (count == 0 && frame == null) {
+            // frames of the queue were written or failed by others meanwhile
+            return;
+        }
+        IOException failure = null;
+        try {
+            if (count == 0) {
+                out.write(frame, offset, frameLength);
+            } else {
+                if (frame != null) {
+                    ensureCapacity(length + frameLength);
+                    System.arraycopy(frame, offset, buffer, length, frameLength);
+                    length += frameLength;
+                }
+                out.write(buffer, 0, length);
+            }
+            out.flush();
+        } catch (IOException ioex) {
+            failure = ioex;
+        }
+        complete(count, failure);
+        if (failure != null && frame != null) {
+            throw failure;
+        }
+    }
+
+    /**
+     * Releases owners of the first frames of batch, the frames are failed with specified exception if it is not
+     * <code>null</code>.
+     */
+    private void complete(int count, IOException failure) {
+        if (buffer.length > MAX_RETAINED_BUFFER_SIZE) {
+            buffer = new byte[INITIAL_BUFFER_SIZE];
+        }
+        for (int i = 0; i < count; i++) {
+            batch[i].failure = failure;
+            batch[i].written = true;
+            batch[i] = null;
+        }
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (buffer.length < capacity) {
+            byte[] bigger = new byte[Math.max(capacity, buffer.length * 2)];
+            System.arraycopy(buffer, 0, bigger, 0, buffer.length);
+            buffer = bigger;
+        }
+    }
+
+    /**
+     * Encodes length-prefixed frame into specified array.
+     *
+     * @return offset right after encoded frame
+     */
+    static int encode(CastMessage message, int size, byte[] target, int offset) throws IOException {
+        target[offset] = (byte) (size >> 24);
+        target[offset + 1] = (byte) (size >> 16);
+        target[offset + 2] = (byte) (size >> 8);
+        target[offset + 3] = (byte) size;
+        CodedOutputStream cos = CodedOutputStream.newInstance(target, offset + 4, size);
+        message.writeTo(cos);
+        cos.checkNoSpaceLeft();
+        return offset + 4 + size;
+    }
+
+    /**
+     * Appends length-prefixed frame to specified buffer, which is grown if needed.
+     *
+     * @return buffer containing appended frame, it is either the passed buffer or a bigger copy of it
+     */
+    static ByteBuffer encode(CastMessage message, ByteBuffer target) throws IOException {
+        int size = message.getSerializedSize();
+        ByteBuffer result = ensureRemaining(target, 4 + size);
+        int end = encode(message, size, result.array(), result.arrayOffset() + result.position());
+        result.position(end - result.arrayOffset());
+        return result;
+    }
+
+    /**
+     * Appends encoded frame to specified buffer, which is grown if needed.
+     *
+     * @return buffer containing appended frame, it is either the passed buffer or a bigger copy of it
+     */
+    static ByteBuffer append(byte[] frame, ByteBuffer target) {
+        ByteBuffer result = ensureRemaining(target, frame.length);
+        result.put(frame);
+        return result;
+    }
+
+    private static ByteBuffer ensureRemaining(ByteBuffer target, int remaining) {
+        if (target.remaining() >= remaining) {
+            return target;
+        }
+        ByteBuffer result = ByteBuffer.allocate(Math.max(target.position() + remaining, target.capacity() * 2));
+        target.flip();
+        result.put(target);
+        return result;
+    }
+}
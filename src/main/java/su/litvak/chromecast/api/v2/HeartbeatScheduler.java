@@ -0,0 +1,61 @@
+/*
+ * Copyright 2026 Vitaly Litvak (vitavaque@gmail.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package su.litvak.chromecast.api.v2;
+
+import java.util.Random;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Single daemon thread running heartbeat checks of all channels. Every check is delayed by a random jitter, so
+ * heartbeats of many devices connected at once spread over time instead of firing together.
+ */
+final class HeartbeatScheduler {
+    private static final Random JITTER = new Random();
+    private static ScheduledExecutorService executor;
+
+    private HeartbeatScheduler() {
+    }
+
+    private static synchronized ScheduledExecutorService executor() {
+        if (executor == null) {
+            executor = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+                @Override
+                public Thread newThread(Runnable r) {
+                    Thread thread = new Thread(r, "ChromeCast heartbeat");
+                    thread.setDaemon(true);
+                    return thread;
+                }
+            });
+        }
+        return executor;
+    }
+
+    /**
+     * Runs task once after random delay between half and full specified period.
+     *
+     * @param task task to run
+     * @param period maximum delay in milliseconds
+     * @return future, which may be used to cancel the task
+     */
+    static ScheduledFuture<?> schedule(Runnable task, long period) {
+        long delay = period / 2 + (long) (JITTER.nextDouble() * (period - period / 2));
+        return executor().schedule(task, delay, TimeUnit.MILLISECONDS);
+    }
+}
@@ -0,0 +1,225 @@
+/*
+ * Copyright 2026 Vitaly Litvak (vitavaque@gmail.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package su.litvak.chromecast.api.v2;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeMap;
+
+/**
+ * <p>Requests waiting for response, by request id.</p>
+ *
+ * <p>Request ids come from a counter, so pending ones are close to each other and the table is a ring indexed by
+ * request id modulo capacity: lookup is a single array access without boxing or hashing. Ring grows once a new id
+ * collides with a still pending one while the ring is at least half full.</p>
+ *
+ * <p>Request, which is never answered (e.g. asynchronous request to application ignoring it), would otherwise make
+ * the ring grow with every id wrapping onto its slot. So when ring is sparse, pending request colliding with a new
+ * one is parked in a sorted map instead, and table stays proportional to the number of requests in flight.</p>
+ *
+ * @param <V> type of request
+ */
+final class InFlightRequests<V> {
+    private static final int INITIAL_CAPACITY = 64;
+
+    /**
+     * Request moved out of the ring.
+     */
+    private static final class Parked {
+        final Object value;
+        final long sentAt;
+
+        Parked(Object value, long sentAt) {
+            this.value = value;
+            this.sentAt = sentAt;
+        }
+    }
+
+    private long[] ids = new long[INITIAL_CAPACITY];
+    private long[] sentAt = new long[INITIAL_CAPACITY];
+    private Object[] values = new Object[INITIAL_CAPACITY];
+    /**
+     * Number of requests in the ring.
+     */
+    private int ringCount;
+    private final TreeMap<Long, Parked> parked = new TreeMap<Long, Parked>();
+    /**
+     * Least id of pending requests, valid when there are any.
+     */
+    private long oldest;
+
+    /**
+     * Registers request sent at specified time (as of {@link System#nanoTime()}).
+     */
+    synchronized void put(long id, V value, long sentAtNanos) {
+        if (!parked.isEmpty() && parked.containsKey(id)) {
+            throw new IllegalStateException("Request " + id + " is already in flight");
+        }
+        int slot = slot(id);
+        while (values[slot] != null) {
+            if (ids[slot] == id) {
+                throw new IllegalStateException("Request " + id + " is already in flight");
+            }
+            if (ringCount * 2 < values.length) {
+                // ids in between are answered, the one occupying slot is far behind
+                park(slot);
+            } else {
+                grow();
+                slot = slot(id);
+            }
+        }
+        ids[slot] = id;
+        sentAt[slot] = sentAtNanos;
+        values[slot] = value;
+        if (size() == 0 || id < oldest) {
+            oldest = id;
+        }
+        ringCount++;
+    }
+
+    /**
+     * @return request with specified id or <code>null</code> if there is no such request in flight
+     */
+    @SuppressWarnings("unchecked")
+    synchronized V remove(long id) {
+        int slot = slot(id);
+        V value;
+        if (values[slot] != null && ids[slot] == id) {
+            value = (V) values[slot];
+            values[slot] = null;
+            ringCount--;
+        } else if (!parked.isEmpty() && parked.containsKey(id)) {
+            value = (V) parked.remove(id).value;
+        } else {
+            return null;
+        }
+        if (size() > 0 && id == oldest) {
+            oldest = nextOldest(id);
+        }
+        return value;
+    }
+
+    /**
+     * @return all requests in flight, table is empty afterwards
+     */
+    @SuppressWarnings("unchecked")
+    synchronized List<V> removeAll() {
+        List<V> removed = new ArrayList<V>(size());
+        for (int i = 0; i < values.length; i++) {
+            if (values[i] != null) {
+                removed.add((V) values[i]);
+                values[i] = null;
+            }
+        }
+        for (Parked request : parked.values()) {
+            removed.add((V) request.value);
+        }
+        ringCount = 0;
+        parked.clear();
+        return removed;
+    }
+
+    synchronized int size() {
+        return ringCount + parked.size();
+    }
+
+    synchronized boolean isEmpty() {
+        return size() == 0;
+    }
+
+    /**
+     * @return number of slots in the ring
+     */
+    synchronized int capacity() {
+        return values.length;
+    }
+
+    /**
+     * @return time in nanoseconds since the earliest of requests in flight was sent, 0 if there are none
+     */
+    synchronized long oldestAge(long nowNanos) {
+        if (size() == 0) {
+            return 0;
+        }
+        int slot = slot(oldest);
+        return nowNanos - (values[slot] != null && ids[slot] == oldest ? sentAt[slot] : parked.get(oldest).sentAt);
+    }
+
+    private int slot(long id) {
+        return (int) id & (values.length - 1);
+    }
+
+    /**
+     * Moves request out of specified slot of the ring.
+     */
+    private void park(int slot) {
+        parked.put(ids[slot], new Parked(values[slot], sentAt[slot]));
+        values[slot] = null;
+        ringCount--;
+    }
+
+    /**
+     * @return least pending id greater than removed oldest one
+     */
+    private long nextOldest(long removed) {
+        long next = parked.isEmpty() ? Long.MAX_VALUE : parked.firstKey();
+        if (ringCount == 0) {
+            return next;
+        }
+        // ids right after the removed one are usually pending or answered recently
+        for (long id = removed + 1; id < next && id <= removed + values.length; id++) {
+            int slot = slot(id);
+            if (values[slot] != null && ids[slot] == id) {
+                return id;
+            }
+        }
+        for (int i = 0; i < values.length; i++) {
+            if (values[i] != null && ids[i] < next) {
+                next = ids[i];
+            }
+        }
+        return next;
+    }
+
+    /**
+     * Doubles capacity. Requests colliding in the bigger ring are far apart, the older one is parked.
+     */
+    private void grow() {
+        long[] oldIds = ids;
+        long[] oldSentAt = sentAt;
+        Object[] oldValues = values;
+        int capacity = oldValues.length * 2;
+        ids = new long[capacity];
+        sentAt = new long[capacity];
+        values = new Object[capacity];
+        for (int i = 0; i < oldValues.length; i++) {
+            if (oldValues[i] != null) {
+                int slot = slot(oldIds[i]);
+                if (values[slot] != null) {
+                    if (ids[slot] > oldIds[i]) {
+                        parked.put(oldIds[i], new Parked(oldValues[i], oldSentAt[i]));
+                        ringCount--;
+                        continue;
+                    }
+                    park(slot);
+                }
+                ids[slot] = oldIds[i];
+                sentAt[slot] = oldSentAt[i];
+                values[slot] = oldValues[i];
+            }
+        }
+    }
+}
@@ -0,0 +1,126 @@
+/*
+ * Copyright 2026 Vitaly Litvak (vitavaque@gmail.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package su.litvak.chromecast.api.v2;
+
+import com.fasterxml.jackson.annotation.JsonSubTypes;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * <p>Process-wide JSON codecs shared by all channels.</p>
+ *
+ * <p>Holds one pre-configured mapper and caches immutable readers and writers per class, so (de)serializers of every
+ * message class are resolved once per process instead of once per device. Readers of custom response classes
+ * are cached on first use the same way.</p>
+ */
+final class JsonCodecs {
+    private static final ObjectMapper MAPPER = JacksonHelper.createJSONMapper();
+    /**
+     * Mapper, which binds media statuses projected, see {@link MediaStatusProjection}.
+     */
+    private static final ObjectMapper PROJECTING_MAPPER = JacksonHelper.createJSONMapper()
+            .registerModule(MediaStatusProjection.module());
+    private static final ObjectReader TREE_READER = MAPPER.readerFor(JsonNode.class);
+    private static final ConcurrentMap<Class<?>, ObjectReader> READERS =
+            new ConcurrentHashMap<Class<?>, ObjectReader>();
+    private static final ConcurrentMap<Class<?>, ObjectReader> PROJECTING_READERS =
+            new ConcurrentHashMap<Class<?>, ObjectReader>();
+    private static final ConcurrentMap<Class<?>, ObjectWriter> WRITERS =
+            new ConcurrentHashMap<Class<?>, ObjectWriter>();
+
+    private JsonCodecs() {
+    }
+
+    static JsonFactory factory() {
+        return MAPPER.getFactory();
+    }
+
+    static ObjectMapper mapper() {
+        return MAPPER;
+    }
+
+    /**
+     * @return reader of JSON trees
+     */
+    static ObjectReader treeReader() {
+        return TREE_READER;
+    }
+
+    /**
+     * @return reader of specified class, its deserializer is resolved when reader is created
+     */
+    static ObjectReader reader(Class<?> type) {
+        ObjectReader reader = READERS.get(type);
+        if (reader == null) {
+            reader = MAPPER.readerFor(type);
+            ObjectReader existing = READERS.putIfAbsent(type, reader);
+            if (existing != null) {
+                reader = existing;
+            }
+        }
+        return reader;
+    }
+
+    /**
+     * @return reader of specified class, which binds media statuses projected
+     */
+    static ObjectReader projectingReader(Class<?> type) {
+        ObjectReader reader = PROJECTING_READERS.get(type);
+        if (reader == null) {
+            reader = PROJECTING_MAPPER.readerFor(type);
+            ObjectReader existing = PROJECTING_READERS.putIfAbsent(type, reader);
+            if (existing != null) {
+                reader = existing;
+            }
+        }
+        return reader;
+    }
+
+    /**
+     * @return writer of specified class, its serializer is resolved when writer is created
+     */
+    static ObjectWriter writer(Class<?> type) {
+        ObjectWriter writer = WRITERS.get(type);
+        if (writer == null) {
+            writer = MAPPER.writerFor(type);
+            ObjectWriter existing = WRITERS.putIfAbsent(type, writer);
+            if (existing != null) {
+                writer = existing;
+            }
+        }
+        return writer;
+    }
+
+    /**
+     * Resolves readers of all standard responses and writers of all standard messages.
+     */
+    static void warmUp() {
+        reader(StandardResponse.class);
+        for (JsonSubTypes.Type type : StandardResponse.class.getAnnotation(JsonSubTypes.class).value()) {
+            reader(type.value());
+        }
+        reader(MediaStatus.class);
+        for (JsonSubTypes.Type type : StandardMessage.class.getAnnotation(JsonSubTypes.class).value()) {
+            writer(type.value());
+        }
+    }
+}
@@ -0,0 +1,158 @@
+/*
+ * Copyright 2026 Vitaly Litvak (vitavaque@gmail.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package su.litvak.chromecast.api.v2;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.Charset;
+
+/**
+ * <p>Encodes outbound messages with JSON payload into length-prefixed frames.</p>
+ *
+ * <p>JSON is generated straight into the frame buffer after room reserved for the frame header, then the header
+ * (length prefix and <code>CastMessage</code> fields up to payload length, see {@link CastFrame#writeHeader}) is
+ * written right in front of it. So payload is encoded to UTF-8 once and is not copied to any other buffer before it
+ * is handed to the transport, instead of going through a string which protobuf encodes again.</p>
+ *
+ * <p>Each thread has its own encoder with a reusable buffer, see {@link #get()}. Encoded frame is valid until next
+ * {@link #encode} or {@link #release()} on the same thread.</p>
+ */
+final class JsonFrameEncoder {
+    private static final int INITIAL_BUFFER_SIZE = 1024;
+    /**
+     * Buffers grown above this size are dropped once released instead of being kept for reuse.
+     */
+    private static final int MAX_RETAINED_BUFFER_SIZE = 256 * 1024;
+    /**
+     * Maximum size of varint encoding of payload length.
+     */
+    private static final int MAX_VARINT_SIZE = 5;
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    private static final ThreadLocal<JsonFrameEncoder> ENCODERS = new ThreadLocal<JsonFrameEncoder>() {
+        @Override
+        protected JsonFrameEncoder initialValue() {
+            return new JsonFrameEncoder();
+        }
+    };
+
+    private byte[] buffer = new byte[INITIAL_BUFFER_SIZE];
+    private int start;
+    private int payloadStart;
+    private int end;
+
+    /**
+     * Appends generated JSON to the buffer, growing it if needed.
+     */
+    private final OutputStream out = new OutputStream() {
+        @Override
+        public void write(int b) {
+            ensureCapacity(end + 1);
+            buffer[end++] = (byte) b;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            ensureCapacity(end + len);
+            System.arraycopy(b, off, buffer, end, len);
+            end += len;
+        }
+    };
+
+    JsonFrameEncoder() {
+    }
+
+    /**
+     * @return encoder of the calling thread
+     */
+    static JsonFrameEncoder get() {
+        return ENCODERS.get();
+    }
+
+    /**
+     * Encodes frame of a message with specified JSON payload.
+     */
+    void encode(String sourceId, String destinationId, String namespace, Object payload) throws IOException {
+        byte[] source = CastFrame.utf8(sourceId);
+        byte[] destination = CastFrame.utf8(destinationId);
+        byte[] ns = CastFrame.utf8(namespace);
+        // header size with payload length taking one byte
+        int minHeaderSize = CastFrame.headerSize(source, destination, ns, 0);
+        payloadStart = 4 + minHeaderSize - 1 + MAX_VARINT_SIZE;
+        end = 0;
+        ensureCapacity(payloadStart);
+        end = payloadStart;
+        JsonCodecs.writer(payload.getClass()).writeValue(out, payload);
+
+        int payloadSize = end - payloadStart;
+        int headerSize = CastFrame.headerSize(source, destination, ns, payloadSize);
+        int size = headerSize + payloadSize;
+        start = payloadStart - headerSize - 4;
+        buffer[start] = (byte) (size >> 24);
+        buffer[start + 1] = (byte) (size >> 16);
+        buffer[start + 2] = (byte) (size >> 8);
+        buffer[start + 3] = (byte) size;
+        CastFrame.writeHeader(buffer, start + 4, source, destination, ns, CastFrame.STRING, payloadSize);
+    }
+
+    /**
+     * @return array containing encoded frame
+     */
+    byte[] array() {
+        return buffer;
+    }
+
+    /**
+     * @return offset of encoded frame in {@link #array()}
+     */
+    int offset() {
+        return start;
+    }
+
+    /**
+     * @return length of encoded frame, length prefix included
+     */
+    int length() {
+        return end - start;
+    }
+
+    /**
+     * @return JSON payload of encoded frame, for logging
+     */
+    String payload() {
+        return new String(buffer, payloadStart, end - payloadStart, UTF_8);
+    }
+
+    /**
+     * Marks encoded frame as no longer used, so buffer grown by a big message is not retained.
+     */
+    void release() {
+        start = 0;
+        payloadStart = 0;
+        end = 0;
+        if (buffer.length > MAX_RETAINED_BUFFER_SIZE) {
+            buffer = new byte[INITIAL_BUFFER_SIZE];
+        }
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (buffer.length < capacity) {
+            byte[] bigger = new byte[Math.max(capacity, buffer.length * 2)];
+            System.arraycopy(buffer, 0, bigger, 0, end);
+            buffer = bigger;
+        }
+    }
+}
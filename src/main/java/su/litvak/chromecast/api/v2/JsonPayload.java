@@ -0,0 +1,312 @@
+/*
+ * Copyright 2026 Vitaly Litvak (vitavaque@gmail.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package su.litvak.chromecast.api.v2;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * <p>JSON payload of inbound message, tokenized in a single streaming pass.</p>
+ *
+ * <p>While tokens are buffered, top-level <code>type</code> and <code>requestId</code> are picked up, so message
+ * may be routed without building a tree, and top-level <code>type</code> is renamed to <code>responseType</code>,
+ * which is the type property of {@link StandardResponse}. Buffered tokens are then bound to the class chosen by
+ * routing without parsing text again.</p>
+ *
+ * <p>Payload parsed for projection (see {@link MediaStatusProjection}) does not buffer tokens of 'media', 'items'
+ * and 'customData' of media statuses: they are skipped and their text is copied aside, so it is parsed only if
+ * these parts are requested.</p>
+ */
+final class JsonPayload {
+    private static final String TYPE = "type";
+    private static final String RESPONSE_TYPE = "responseType";
+    private static final String REQUEST_ID = "requestId";
+    private static final String MEDIA_STATUS = "MEDIA_STATUS";
+
+    private final TokenBuffer tokens;
+    private final List<String> fields = new ArrayList<String>(8);
+    private boolean hasType;
+    private String type;
+    private boolean hasRequestId;
+    private long requestId;
+    private final boolean projected;
+    /**
+     * Parts of media statuses skipped while tokens were buffered, <code>null</code> if there are none.
+     */
+    private List<MediaStatusProjection.Part> parts;
+
+    private JsonPayload(JsonParser parser, boolean projected) {
+        this.tokens = new TokenBuffer(parser);
+        this.projected = projected;
+    }
+
+    /**
+     * @return parsed payload or <code>null</code> if input is empty
+     */
+    static JsonPayload parse(InputStream in) throws IOException {
+        JsonParser parser = JsonCodecs.factory().createParser(in);
+        try {
+            return scan(parser, null, 0, false);
+        } finally {
+            parser.close();
+        }
+    }
+
+    /**
+     * @return parsed payload of specified part of array or <code>null</code> if it is empty
+     */
+    static JsonPayload parse(byte[] buffer, int offset, int length) throws IOException {
+        return parse(buffer, offset, length, false, false);
+    }
+
+    /**
+     * @param split whether parts of media statuses are skipped and kept aside, see {@link MediaStatusProjection}
+     * @param projected whether media statuses of payload are bound projected, ignored unless parts are skipped
+     * @return parsed payload of specified part of array or <code>null</code> if it is empty
+     */
+    static JsonPayload parse(byte[] buffer, int offset, int length, boolean split, boolean projected)
+            throws IOException {
+        JsonParser parser = JsonCodecs.factory().createParser(buffer, offset, length);
+        try {
+            return scan(parser, split ? buffer : null, offset, projected);
+        } finally {
+            parser.close();
+        }
+    }
+
+    /**
+     * Makes payload of already parsed tree.
+     *
+     * @param split whether parts of media statuses are skipped and kept aside, tree is then serialized for that
+     */
+    static JsonPayload of(JsonNode json, boolean split) throws IOException {
+        if (split) {
+            byte[] buffer = JsonCodecs.mapper().writeValueAsBytes(json);
+            return parse(buffer, 0, buffer.length, true, false);
+        }
+        return scan(JsonCodecs.mapper().treeAsTokens(json), null, 0, false);
+    }
+
+    /**
+     * @param buffer array parser reads from if parts of media statuses are to be skipped, <code>null</code>
+     *               otherwise
+     * @param offset position in array parser starts from
+     * @param projected whether media statuses are bound projected if their parts are skipped
+     */
+    private static JsonPayload scan(JsonParser parser, byte[] buffer, int offset, boolean projected)
+            throws IOException {
+        if (parser.nextToken() == null) {
+            return null;
+        }
+        JsonPayload payload = new JsonPayload(parser, buffer != null && projected);
+        if (parser.getCurrentToken() != JsonToken.START_OBJECT) {
+            payload.tokens.copyCurrentStructure(parser);
+            return payload;
+        }
+        payload.tokens.writeStartObject();
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String name = parser.getCurrentName();
+            parser.nextToken();
+            if (TYPE.equals(name) || RESPONSE_TYPE.equals(name)) {
+                name = RESPONSE_TYPE;
+                payload.hasType = true;
+                payload.type = parser.getCurrentToken().isScalarValue() ? parser.getValueAsString() : null;
+            } else if (REQUEST_ID.equals(name)) {
+                payload.hasRequestId = true;
+                payload.requestId = parser.getValueAsLong();
+            }
+            payload.fields.add(name);
+            if (buffer != null && MediaStatusProjection.STATUS.equals(name)
+                    && parser.getCurrentToken() == JsonToken.START_ARRAY) {
+                payload.tokens.writeFieldName(name);
+                payload.copyStatuses(parser, buffer, offset);
+            } else if (buffer != null && MEDIA_STATUS.equals(payload.type)) {
+                // payload is a single status itself
+                payload.copyField(parser, name, -1, buffer, offset);
+            } else {
+                payload.tokens.writeFieldName(name);
+                payload.tokens.copyCurrentStructure(parser);
+            }
+        }
+        payload.tokens.writeEndObject();
+        return payload;
+    }
+
+    /**
+     * Copies array of statuses parser is positioned at, without their parts bound on demand.
+     */
+    private void copyStatuses(JsonParser parser, byte[] buffer, int offset) throws IOException {
+        tokens.writeStartArray();
+        int index = 0;
+        while (parser.nextToken() != JsonToken.END_ARRAY) {
+            if (parser.getCurrentToken() != JsonToken.START_OBJECT) {
+                tokens.copyCurrentStructure(parser);
+                continue;
+            }
+            tokens.writeStartObject();
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String name = parser.getCurrentName();
+                parser.nextToken();
+                copyField(parser, name, index, buffer, offset);
+            }
+            tokens.writeEndObject();
+            index++;
+        }
+        tokens.writeEndArray();
+    }
+
+    /**
+     * Copies field, which value parser is positioned at, or puts its text aside if it is a part of status bound on
+     * demand.
+     *
+     * @param index index of status among objects of 'status' array, -1 if payload is status itself
+     */
+    private void copyField(JsonParser parser, String name, int index, byte[] buffer, int offset) throws IOException {
+        JsonToken token = parser.getCurrentToken();
+        if (!MediaStatusProjection.isPart(name) || token != JsonToken.START_OBJECT && token != JsonToken.START_ARRAY) {
+            tokens.writeFieldName(name);
+            tokens.copyCurrentStructure(parser);
+            return;
+        }
+        // byte offsets reported by parser are relative to the start of its input
+        int start = offset + (int) parser.getTokenLocation().getByteOffset();
+        parser.skipChildren();
+        int end = offset + (int) parser.getCurrentLocation().getByteOffset();
+        if (parts == null) {
+            parts = new ArrayList<MediaStatusProjection.Part>(4);
+        }
+        parts.add(new MediaStatusProjection.Part(index, name, Arrays.copyOfRange(buffer, start, end)));
+    }
+
+    /**
+     * @return true if payload has top-level type property (either <code>type</code> or <code>responseType</code>)
+     */
+    boolean hasType() {
+        return hasType;
+    }
+
+    /**
+     * @return text of top-level type property, <code>null</code> if there is none or it is not a scalar
+     */
+    String getType() {
+        return type;
+    }
+
+    boolean hasRequestId() {
+        return hasRequestId;
+    }
+
+    long getRequestId() {
+        return requestId;
+    }
+
+    /**
+     * @return true if payload has specified top-level property, <code>type</code> is reported as
+     * <code>responseType</code>
+     */
+    boolean has(String field) {
+        return fields.contains(field);
+    }
+
+    /**
+     * @return true if payload was parsed for projected binding of its media statuses, their parts are then skipped
+     */
+    boolean isProjected() {
+        return projected;
+    }
+
+    /**
+     * @param index index of status among objects of 'status' array, -1 if payload is status itself
+     * @return part of status skipped while tokens were buffered, <code>null</code> if it was not skipped
+     */
+    MediaStatusProjection.Part part(int index, String field) {
+        if (parts != null) {
+            // looked up for every status bound, so without iterator
+            for (int i = 0; i < parts.size(); i++) {
+                MediaStatusProjection.Part part = parts.get(i);
+                if (part.index == index && part.field.equals(field)) {
+                    return part;
+                }
+            }
+        }
+        return null;
+    }
+
+    <T> T bind(Class<T> valueType) throws IOException {
+        if (parts == null) {
+            return bind(JsonCodecs.reader(valueType));
+        }
+        Object binding = MediaStatusProjection.binding(this, valueType);
+        if (binding == null) {
+            // skipped parts are needed by this class
+            return JsonCodecs.reader(valueType).readValue(tree());
+        }
+        // statuses pick up parts skipped in this payload
+        return bind(JsonCodecs.projectingReader(valueType).withAttribute(MediaStatusProjection.ATTRIBUTE, binding));
+    }
+
+    /**
+     * Binds payload without parts of media statuses skipped in it, which are taken by {@link #part(int, String)}.
+     */
+    <T> T bindDetached(Class<T> valueType) throws IOException {
+        return bind(JsonCodecs.reader(valueType));
+    }
+
+    private <T> T bind(ObjectReader reader) throws IOException {
+        JsonParser parser = tokens.asParser();
+        try {
+            return reader.readValue(parser);
+        } finally {
+            parser.close();
+        }
+    }
+
+    /**
+     * @return tree of the whole payload, including parts of media statuses skipped while tokens were buffered
+     */
+    JsonNode tree() throws IOException {
+        JsonNode tree;
+        JsonParser parser = tokens.asParser();
+        try {
+            tree = JsonCodecs.treeReader().readValue(parser);
+        } finally {
+            parser.close();
+        }
+        if (parts != null) {
+            List<JsonNode> statuses = new ArrayList<JsonNode>();
+            for (JsonNode status : tree.path(MediaStatusProjection.STATUS)) {
+                if (status.isObject()) {
+                    statuses.add(status);
+                }
+            }
+            for (MediaStatusProjection.Part part : parts) {
+                ObjectNode status = (ObjectNode) (part.index < 0 ? tree : statuses.get(part.index));
+                status.set(part.field, part.tree());
+            }
+        }
+        return tree;
+    }
+}
@@ -0,0 +1,113 @@
+/*
+ * Copyright 2026 Vitaly Litvak (vitavaque@gmail.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package su.litvak.chromecast.api.v2;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.ObjectReader;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * <p>Part of received message, which is kept undecoded until its value is requested for the first time. Part is
+ * decoded only once: its source is released after the first attempt. If part can't be decoded, the error is logged
+ * and value is <code>null</code> from then on, same as value of part which is absent.</p>
+ *
+ * <p>Decoded lists and maps are unmodifiable, as ones of eagerly bound objects.</p>
+ *
+ * @param <T> type of value
+ */
+final class LazyJson<T> {
+    private static final Logger LOG = LoggerFactory.getLogger(LazyJson.class);
+
+    /**
+     * Where undecoded part is read from.
+     */
+    interface Source {
+        /**
+         * @return parser positioned at the first token of the part, <code>null</code> if there is no such part
+         */
+        JsonParser parser() throws IOException;
+    }
+
+    private final ObjectReader reader;
+    private Source source;
+    private T value;
+
+    private LazyJson(ObjectReader reader, Source source, T value) {
+        this.reader = reader;
+        this.source = source;
+        this.value = value;
+    }
+
+    static <T> LazyJson<T> of(ObjectReader reader, Source source) {
+        return new LazyJson<T>(reader, source, null);
+    }
+
+    /**
+     * @return holder of already decoded value
+     */
+    static <T> LazyJson<T> decoded(T value) {
+        return new LazyJson<T>(null, null, value);
+    }
+
+    synchronized T get() {
+        if (source != null) {
+            try {
+                value = LazyJson.<T>decode(reader, source);
+            } catch (IOException ioex) {
+                LOG.warn("Unable to decode part of message bound on demand", ioex);
+            } finally {
+                source = null;
+            }
+        }
+        return value;
+    }
+
+    /**
+     * @return true if part was decoded or its decoding was attempted
+     */
+    synchronized boolean isDecoded() {
+        return source == null;
+    }
+
+    /**
+     * @return value of specified part decoded right away
+     */
+    @SuppressWarnings("unchecked")
+    static <T> T decode(ObjectReader reader, Source source) throws IOException {
+        JsonParser parser = source.parser();
+        if (parser == null) {
+            return null;
+        }
+        Object decoded;
+        try {
+            decoded = reader.readValue(parser);
+        } finally {
+            parser.close();
+        }
+        if (decoded instanceof List) {
+            decoded = Collections.unmodifiableList((List<?>) decoded);
+        } else if (decoded instanceof Map) {
+            decoded = Collections.unmodifiableMap((Map<?, ?>) decoded);
+        }
+        return (T) decoded;
+    }
+}
@@ -0,0 +1,273 @@
+/*
+ * Copyright 2026 Vitaly Litvak (vitavaque@gmail.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package su.litvak.chromecast.api.v2;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * <p>Bounded queue of events for one listener, drained on shared executor. At most one task drains the queue at a
+ * time, so listener gets events one by one in order they were received, while slow listener holds up neither the
+ * thread receiving messages nor other listeners.</p>
+ *
+ * <p>Task delivers a limited number of events and then is resubmitted, so busy listener does not hold executor
+ * thread forever.</p>
+ *
+ * <p>Event may be queued with a key (e.g. media session of status), then it replaces event with the same key, which
+ * is still waiting, so listener gets only the latest of them.</p>
+ *
+ * <p>Queue may be replaced by another one (e.g. draining on another executor), see {@link #handOver}. Events are
+ * then passed to the new queue, which does not start delivering until this one has delivered all of its events,
+ * so listener is still called one event at a time in order.</p>
+ */
+final class ListenerQueue {
+    private static final Logger LOG = LoggerFactory.getLogger(ListenerQueue.class);
+    /**
+     * Maximum number of events delivered by one task.
+     */
+    private static final int BATCH = 64;
+
+    /**
+     * Event waiting for listener.
+     */
+    private static final class Pending {
+        final Object kind;
+        final Object key;
+        final Runnable delivery;
+        final long enqueued;
+
+        Pending(Object kind, Object key, Runnable delivery, long enqueued) {
+            this.kind = kind;
+            this.key = key;
+            this.delivery = delivery;
+            this.enqueued = enqueued;
+        }
+    }
+
+    private final Executor executor;
+    private final int capacity;
+    private final EventOverflow overflow;
+    private final ArrayDeque<Pending> pending = new ArrayDeque<Pending>();
+    private boolean scheduled;
+    private long dropped;
+    /**
+     * Queue taking over from this one, <code>null</code> until it is handed over.
+     */
+    private ListenerQueue successor;
+    /**
+     * Whether queue waits for its predecessor to deliver all of its events.
+     */
+    private boolean held;
+
+    private final Runnable drain = new Runnable() {
+        @Override
+        public void run() {
+            drain();
+        }
+    };
+
+    ListenerQueue(Executor executor, int capacity, EventOverflow overflow) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive: " + capacity);
+        }
+        this.executor = executor;
+        this.capacity = capacity;
+        this.overflow = overflow;
+    }
+
+    /**
+     * Queues event for delivery.
+     *
+     * @param kind     events of the same kind supersede each other when queue is coalescing
+     * @param delivery passes event to listener
+     */
+    void offer(Object kind, Runnable delivery) {
+        offer(kind, null, delivery);
+    }
+
+    /**
+     * Queues event for delivery, which replaces event with the same key if it is still waiting.
+     *
+     * @param key      identifies events superseding each other, <code>null</code> if event is not superseded
+     */
+    void offer(Object kind, Object key, Runnable delivery) {
+        ListenerQueue next;
+        synchronized (this) {
+            next = successor;
+            if (next == null) {
+                if (!add(kind, key, delivery) || scheduled || held) {
+                    return;
+                }
+                scheduled = true;
+            }
+        }
+        if (next != null) {
+            next.offer(kind, key, delivery);
+        } else {
+            schedule();
+        }
+    }
+
+    /**
+     * Queues event only if there are events it must not overtake: ones waiting or being delivered by this queue.
+     *
+     * @return false if queue is idle and event was not queued
+     */
+    boolean offerIfBusy(Object kind, Runnable delivery) {
+        if (isIdle()) {
+            return false;
+        }
+        offer(kind, delivery);
+        return true;
+    }
+
+    /**
+     * @return true if queue has no events to deliver and is not replaced by another one
+     */
+    synchronized boolean isIdle() {
+        return !scheduled && successor == null;
+    }
+
+    /**
+     * Replaces this queue by a new one. Events offered to this queue afterwards go to the new one, which starts
+     * delivering once this one is done with events it already has.
+     *
+     * @return the new queue
+     */
+    ListenerQueue handOver(Executor newExecutor, int newCapacity, EventOverflow newOverflow) {
+        ListenerQueue next = new ListenerQueue(newExecutor, newCapacity, newOverflow);
+        synchronized (this) {
+            if (successor != null) {
+                return successor.handOver(newExecutor, newCapacity, newOverflow);
+            }
+            // queue is scheduled as long as it has events to deliver
+            next.held = scheduled;
+            successor = next;
+        }
+        return next;
+    }
+
+    /**
+     * Lets held queue start delivering, called once predecessor has delivered all of its events.
+     */
+    private void release() {
+        synchronized (this) {
+            held = false;
+            if (pending.isEmpty() || scheduled) {
+                return;
+            }
+            scheduled = true;
+        }
+        schedule();
+    }
+
+    /**
+     * Adds event to the queue, called while holding its lock.
+     *
+     * @return false if event was dropped because thread was interrupted while waiting for room
+     */
+    private boolean add(Object kind, Object key, Runnable delivery) {
+        if (key != null) {
+            for (Iterator<Pending> it = pending.iterator(); it.hasNext();) {
+                if (key.equals(it.next().key)) {
+                    // newer one goes to the end, so events are still delivered in order they were received
+                    it.remove();
+                    dropped++;
+                    break;
+                }
+            }
+        }
+        while (pending.size() >= capacity) {
+            if (overflow == EventOverflow.BLOCK) {
+                try {
+                    wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    dropped++;
+                    return false;
+                }
+            } else {
+                dropOne(kind);
+            }
+        }
+        pending.add(new Pending(kind, key, delivery, System.nanoTime()));
+        return true;
+    }
+
+    private void dropOne(Object kind) {
+        if (overflow == EventOverflow.COALESCE) {
+            for (Iterator<Pending> it = pending.iterator(); it.hasNext();) {
+                if (it.next().kind == kind) {
+                    it.remove();
+                    dropped++;
+                    return;
+                }
+            }
+        }
+        pending.poll();
+        dropped++;
+    }
+
+    private void schedule() {
+        try {
+            executor.execute(drain);
+        } catch (RejectedExecutionException ree) {
+            LOG.debug("Event executor rejected delivery, events are delivered by calling thread");
+            drain();
+        }
+    }
+
+    private void drain() {
+        for (int i = 0; i < BATCH; i++) {
+            Pending next;
+            ListenerQueue waiting;
+            synchronized (this) {
+                next = pending.poll();
+                waiting = successor;
+                if (next == null) {
+                    scheduled = false;
+                } else {
+                    // room for blocked producer
+                    notifyAll();
+                }
+            }
+            if (next == null) {
+                if (waiting != null) {
+                    waiting.release();
+                }
+                return;
+            }
+            try {
+                next.delivery.run();
+            } catch (RuntimeException e) {
+                LOG.warn("Error while delivering event", e);
+            }
+        }
+        schedule();
+    }
+
+    synchronized ListenerStats stats() {
+        long lag = pending.isEmpty() ? 0
+                : TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - pending.peek().enqueued);
+        return new ListenerStats(pending.size(), lag, dropped);
+    }
+}
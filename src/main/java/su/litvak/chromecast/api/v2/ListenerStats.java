@@ -0,0 +1,57 @@
+/*
+ * Copyright 2026 Vitaly Litvak (vitavaque@gmail.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package su.litvak.chromecast.api.v2;
+
+/**
+ * Snapshot of how far event listener lags behind events of device, see {@link ChromeCast#getListenerStats(Object)}.
+ */
+public final class ListenerStats {
+    private final int pending;
+    private final long lag;
+    private final long dropped;
+
+    ListenerStats(int pending, long lag, long dropped) {
+        this.pending = pending;
+        this.lag = lag;
+        this.dropped = dropped;
+    }
+
+    /**
+     * @return number of events waiting for listener
+     */
+    public int getPending() {
+        return pending;
+    }
+
+    /**
+     * @return time in milliseconds the oldest of events waiting for listener is waiting, 0 if there are none
+     */
+    public long getLag() {
+        return lag;
+    }
+
+    /**
+     * @return number of events dropped since listener queue was created because listener did not keep up
+     */
+    public long getDropped() {
+        return dropped;
+    }
+
+    @Override
+    public String toString() {
+        return "ListenerStats{pending=" + pending + ", lag=" + lag + ", dropped=" + dropped + "}";
+    }
+}
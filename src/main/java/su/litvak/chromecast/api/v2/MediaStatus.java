@@ -23,7 +23,13 @@ import java.util.List;
 import java.util.Map;
 
 /**
- * Current media player status - which media is played, volume, time position, etc.
+ * <p>Current media player status - which media is played, volume, time position, etc.</p>
+ *
+ * <p><b>Warning:</b> status may be bound projected (see {@link ChromeCast#setMediaStatusProjection(boolean)}),
+ * which is disabled by default. Then <code>media</code>, <code>items</code> and <code>customData</code> fields are
+ * usually <code>null</code>, even if status has these parts, which are bound on first call to {@link #getMedia()},
+ * {@link #getItems()} and {@link #getCustomData()} instead. Code reading these fields directly breaks once
+ * projection is enabled, getters work for either kind of status.</p>
  *
  * @see <a href="https://developers.google.com/cast/docs/reference/receiver/cast.receiver.media.MediaStatus">
  *     https://developers.google.com/cast/docs/reference/receiver/cast.receiver.media.MediaStatus</a>
@@ -62,15 +68,30 @@ public class MediaStatus {
     public final PlayerState playerState;
     public final Integer currentItemId;
     public final double currentTime;
+    /**
+     * Usually <code>null</code> in projected status, use {@link #getCustomData()}.
+     */
     public final Map<String, Object> customData;
     public final Integer loadingItemId;
+    /**
+     * Usually <code>null</code> in projected status, use {@link #getItems()}.
+     */
     public final List<Item> items;
     public final Integer preloadedItemId;
     public final int supportedMediaCommands;
     public final Volume volume;
+    /**
+     * Usually <code>null</code> in projected status, use {@link #getMedia()}.
+     */
     public final Media media;
     public final RepeatMode repeatMode;
     public final IdleReason idleReason;
+    /**
+     * Parts of projected status, which are bound on demand, <code>null</code> if status is bound eagerly.
+     */
+    private final LazyJson<Media> lazyMedia;
+    private final LazyJson<List<Item>> lazyItems;
+    private final LazyJson<Map<String, Object>> lazyCustomData;
 
     MediaStatus(@JsonProperty("activeTrackIds") List<Integer> activeTrackIds,
                 @JsonProperty("mediaSessionId") long mediaSessionId,
@@ -102,6 +123,96 @@ public class MediaStatus {
         this.media = media;
         this.repeatMode = repeatMode;
         this.idleReason = idleReason;
+        this.lazyMedia = null;
+        this.lazyItems = null;
+        this.lazyCustomData = null;
+    }
+
+    /**
+     * Copies status with other media, items and custom data, lists and maps are expected to be unmodifiable already.
+     */
+    private MediaStatus(MediaStatus status, Media media, List<Item> items, Map<String, Object> customData,
+                        LazyJson<Media> lazyMedia, LazyJson<List<Item>> lazyItems,
+                        LazyJson<Map<String, Object>> lazyCustomData) {
+        this.activeTrackIds = status.activeTrackIds;
+        this.mediaSessionId = status.mediaSessionId;
+        this.playbackRate = status.playbackRate;
+        this.playerState = status.playerState;
+        this.currentItemId = status.currentItemId;
+        this.currentTime = status.currentTime;
+        this.customData = customData;
+        this.loadingItemId = status.loadingItemId;
+        this.items = items;
+        this.preloadedItemId = status.preloadedItemId;
+        this.supportedMediaCommands = status.supportedMediaCommands;
+        this.volume = status.volume;
+        this.media = media;
+        this.repeatMode = status.repeatMode;
+        this.idleReason = status.idleReason;
+        this.lazyMedia = lazyMedia;
+        this.lazyItems = lazyItems;
+        this.lazyCustomData = lazyCustomData;
+    }
+
+    /**
+     * @return copy of this status with specified media, unmodifiable list of items and unmodifiable custom data
+     */
+    MediaStatus with(Media newMedia, List<Item> newItems, Map<String, Object> newCustomData) {
+        return new MediaStatus(this, newMedia, newItems, newCustomData, null, null, null);
+    }
+
+    /**
+     * @return copy of this status, which binds specified parts on demand, <code>null</code> part is kept as it is
+     */
+    MediaStatus projected(LazyJson<Media> partMedia, LazyJson<List<Item>> partItems,
+                          LazyJson<Map<String, Object>> partCustomData) {
+        return new MediaStatus(this, partMedia == null ? media : null, partItems == null ? items : null,
+                partCustomData == null ? customData : null, partMedia, partItems, partCustomData);
+    }
+
+    /**
+     * @return media of this status, which may be bound on demand
+     */
+    LazyJson<Media> mediaPart() {
+        return lazyMedia != null ? lazyMedia : LazyJson.decoded(media);
+    }
+
+    /**
+     * @return items of this status, which may be bound on demand
+     */
+    LazyJson<List<Item>> itemsPart() {
+        return lazyItems != null ? lazyItems : LazyJson.decoded(items);
+    }
+
+    /**
+     * @return custom data of this status, which may be bound on demand
+     */
+    LazyJson<Map<String, Object>> customDataPart() {
+        return lazyCustomData != null ? lazyCustomData : LazyJson.decoded(customData);
+    }
+
+    /**
+     * @return media being played, bound on first call if status is projected, <code>null</code> if it can't be
+     * bound
+     */
+    public final Media getMedia() {
+        return lazyMedia != null ? lazyMedia.get() : media;
+    }
+
+    /**
+     * @return items of the queue, bound on first call if status is projected, <code>null</code> if they can't be
+     * bound
+     */
+    public final List<Item> getItems() {
+        return lazyItems != null ? lazyItems.get() : items;
+    }
+
+    /**
+     * @return custom data of receiver application, bound on first call if status is projected, <code>null</code>
+     * if it can't be bound
+     */
+    public final Map<String, Object> getCustomData() {
+        return lazyCustomData != null ? lazyCustomData.get() : customData;
     }
 
     @Override
@@ -109,12 +220,14 @@ public class MediaStatus {
         String activeTrackIdsString = this.activeTrackIds == null
                 ? "<null>"
                 : Arrays.toString(this.activeTrackIds.toArray());
-        String itemsString = this.items == null
+        List<Item> currentItems = getItems();
+        String itemsString = currentItems == null
                 ? "<null>"
-                : Arrays.toString(this.items.toArray());
-        String customDataString = this.customData == null
+                : Arrays.toString(currentItems.toArray());
+        Map<String, Object> currentCustomData = getCustomData();
+        String customDataString = currentCustomData == null
                 ? "<null>"
-                : Arrays.toString(this.customData.keySet().toArray());
+                : Arrays.toString(currentCustomData.keySet().toArray());
 
         return String.format("MediaStatus{activeTrackIds: %s, mediaSessionId: %d, playbackRate: %d, playerState: %s,"
                         + " currentItemId: %s, currentTime: %f, customData: %s, loadingItemId: %s, items: %s,"
@@ -122,7 +235,7 @@ public class MediaStatus {
                         + " idleReason: %s}",
                 activeTrackIdsString, this.mediaSessionId, this.playbackRate, this.playerState, this.currentItemId,
                 this.currentTime, customDataString, this.loadingItemId, itemsString, this.preloadedItemId,
-                this.supportedMediaCommands, this.volume, this.media, this.repeatMode, this.idleReason);
+                this.supportedMediaCommands, this.volume, getMedia(), this.repeatMode, this.idleReason);
     }
 
 }
@@ -0,0 +1,98 @@
+/*
+ * Copyright 2026 Vitaly Litvak (vitavaque@gmail.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package su.litvak.chromecast.api.v2;
+
+import java.util.Collections;
+import java.util.Set;
+
+/**
+ * <p>Change of media status against the previous status of the same media session, see
+ * {@link ChromeCastSpontaneousEvent.SpontaneousEventType#MEDIA_STATUS_DELTA}.</p>
+ *
+ * <p>Fields, which have not changed, refer to the same objects as in the previous status, e.g. {@link Media} and
+ * {@link Item} objects are not built again for every status update during playback.</p>
+ */
+public final class MediaStatusDelta {
+    /**
+     * Field of media status, named after its property in 'MEDIA_STATUS' message.
+     */
+    public enum Field {
+        ACTIVE_TRACK_IDS("activeTrackIds"),
+        PLAYBACK_RATE("playbackRate"),
+        PLAYER_STATE("playerState"),
+        CURRENT_ITEM_ID("currentItemId"),
+        CURRENT_TIME("currentTime"),
+        CUSTOM_DATA("customData"),
+        LOADING_ITEM_ID("loadingItemId"),
+        ITEMS("items"),
+        PRELOADED_ITEM_ID("preloadedItemId"),
+        SUPPORTED_MEDIA_COMMANDS("supportedMediaCommands"),
+        VOLUME("volume"),
+        MEDIA("media"),
+        REPEAT_MODE("repeatMode"),
+        IDLE_REASON("idleReason");
+
+        final String property;
+
+        Field(String property) {
+            this.property = property;
+        }
+    }
+
+    private final MediaStatus previous;
+    private final MediaStatus status;
+    private final Set<Field> changed;
+
+    MediaStatusDelta(MediaStatus previous, MediaStatus status, Set<Field> changed) {
+        this.previous = previous;
+        this.status = status;
+        this.changed = Collections.unmodifiableSet(changed);
+    }
+
+    public long getMediaSessionId() {
+        return status.mediaSessionId;
+    }
+
+    /**
+     * @return previous status of the same media session, <code>null</code> if it is the first one received
+     */
+    public MediaStatus getPrevious() {
+        return previous;
+    }
+
+    /**
+     * @return current status
+     */
+    public MediaStatus getStatus() {
+        return status;
+    }
+
+    /**
+     * @return fields, which differ from the previous status, all of them if there is no previous status
+     */
+    public Set<Field> getChanged() {
+        return changed;
+    }
+
+    public boolean isChanged(Field field) {
+        return changed.contains(field);
+    }
+
+    @Override
+    public String toString() {
+        return "MediaStatusDelta{mediaSessionId=" + getMediaSessionId() + ", changed=" + changed + "}";
+    }
+}
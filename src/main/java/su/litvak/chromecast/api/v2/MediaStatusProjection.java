@@ -0,0 +1,258 @@
+/*
+ * Copyright 2026 Vitaly Litvak (vitavaque@gmail.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package su.litvak.chromecast.api.v2;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.BeanDescription;
+import com.fasterxml.jackson.databind.DeserializationConfig;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.deser.BeanDeserializerModifier;
+import com.fasterxml.jackson.databind.deser.ResolvableDeserializer;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * <p>Projected binding of {@link MediaStatus}: 'media', 'items' and 'customData' of status are bound only when they
+ * are requested through {@link MediaStatus#getMedia()}, {@link MediaStatus#getItems()} and
+ * {@link MediaStatus#getCustomData()}. Consumer, which needs only player state and time position, does not pay for
+ * metadata, images and queue items.</p>
+ *
+ * <p>Payload parsed for projection (see {@link JsonPayload#parse(byte[], int, int, boolean, boolean)}) skips these
+ * parts without buffering their tokens and keeps a copy of their text as {@link Part}. Statuses are bound by readers of
+ * separate mapper (see {@link JsonCodecs#projectingReader(Class)}) with {@link #ATTRIBUTE} set to payload being
+ * bound (see {@link #binding(JsonPayload, Class)}), each status takes its own parts, so payload is not kept by
+ * statuses. Parts, which were not skipped, are bound eagerly as usual, as well as statuses of payloads shorter than
+ * {@link #MIN_PAYLOAD_LENGTH}.</p>
+ *
+ * <p>Parts are also skipped for {@link MediaStatusTracker}, which compares their text with the previous status of
+ * the same session. Parts of payload, which is not projected (see {@link JsonPayload#isProjected()}), are then
+ * decoded right away.</p>
+ */
+final class MediaStatusProjection {
+    /**
+     * Attribute of reader, which makes it project media statuses of payload being bound.
+     */
+    static final String ATTRIBUTE = "su.litvak.chromecast.api.v2.MediaStatusProjection";
+    /**
+     * Shorter payloads are bound eagerly: their parts are too small for putting them aside to pay off.
+     */
+    static final int MIN_PAYLOAD_LENGTH = 1024;
+
+    static final String STATUS = "status";
+    private static final String MEDIA = "media";
+    private static final String ITEMS = "items";
+    private static final String CUSTOM_DATA = "customData";
+
+    private MediaStatusProjection() {
+    }
+
+    /**
+     * @return true if field of status is bound on demand
+     */
+    static boolean isPart(String field) {
+        return MEDIA.equals(field) || ITEMS.equals(field) || CUSTOM_DATA.equals(field);
+    }
+
+    /**
+     * @return module, which makes media status deserializer attach parts bound on demand
+     */
+    static SimpleModule module() {
+        SimpleModule module = new SimpleModule("MediaStatusProjection");
+        module.setDeserializerModifier(new BeanDeserializerModifier() {
+            @Override
+            public JsonDeserializer<?> modifyDeserializer(DeserializationConfig config, BeanDescription beanDesc,
+                                                          JsonDeserializer<?> deserializer) {
+                return beanDesc.getBeanClass() == MediaStatus.class ? new Deserializer(deserializer) : deserializer;
+            }
+        });
+        return module;
+    }
+
+    /**
+     * @return value of {@link #ATTRIBUTE} for binding specified payload to specified class, <code>null</code> if
+     * skipped parts of payload can't be attached to instances of this class
+     */
+    static Object binding(JsonPayload payload, Class<?> valueType) {
+        boolean lazy = payload.isProjected();
+        if (valueType == MediaStatus.class) {
+            return new Binding(payload, true, lazy);
+        }
+        boolean statuses = payload.getType() == null || "MEDIA_STATUS".equals(payload.getType());
+        // parts of single status are attached only if payload is bound as status itself
+        return statuses && (valueType == StandardResponse.class || valueType == StandardResponse.MediaStatus.class)
+                && payload.part(-1, MEDIA) == null && payload.part(-1, ITEMS) == null
+                && payload.part(-1, CUSTOM_DATA) == null ? new Binding(payload, false, lazy) : null;
+    }
+
+    static LazyJson<Media> media(Part part) {
+        return LazyJson.of(reader(MEDIA), part);
+    }
+
+    static LazyJson<List<Item>> items(Part part) {
+        return LazyJson.of(reader(ITEMS), part);
+    }
+
+    static LazyJson<Map<String, Object>> customData(Part part) {
+        return LazyJson.of(reader(CUSTOM_DATA), part);
+    }
+
+    /**
+     * @return value of specified part decoded right away
+     */
+    static <T> T decode(Part part) throws IOException {
+        return LazyJson.<T>decode(reader(part.field), part);
+    }
+
+    private static ObjectReader reader(String field) {
+        return MEDIA.equals(field) ? JsonCodecs.reader(Media.class)
+                : ITEMS.equals(field) ? ItemsReader.READER
+                : JsonCodecs.reader(Map.class);
+    }
+
+    /**
+     * @return part of status bound on demand, <code>null</code> if it was not skipped in payload
+     */
+    private static <T> LazyJson<T> lazy(JsonPayload payload, int index, String field) {
+        Part part = payload.part(index, field);
+        return part == null ? null : LazyJson.<T>of(reader(field), part);
+    }
+
+    /**
+     * @return part of status decoded right away, specified value bound with status if part was not skipped
+     */
+    private static <T> T eager(JsonPayload payload, int index, String field, T bound) throws IOException {
+        Part part = payload.part(index, field);
+        return part == null ? bound : MediaStatusProjection.<T>decode(part);
+    }
+
+    /**
+     * Holds reader of items, which is created on first use.
+     */
+    private static final class ItemsReader {
+        static final ObjectReader READER = JsonCodecs.mapper().readerFor(new TypeReference<List<Item>>() { });
+    }
+
+    /**
+     * Payload being bound and position of the next status in it.
+     */
+    private static final class Binding {
+        final JsonPayload payload;
+        /**
+         * Whether payload is status itself, otherwise statuses are elements of its 'status' array.
+         */
+        final boolean single;
+        /**
+         * Whether parts are bound on demand, otherwise they are decoded right away.
+         */
+        final boolean lazy;
+        int next;
+
+        Binding(JsonPayload payload, boolean single, boolean lazy) {
+            this.payload = payload;
+            this.single = single;
+            this.lazy = lazy;
+        }
+
+        int nextIndex() {
+            return single ? -1 : next++;
+        }
+    }
+
+    /**
+     * Text of status part skipped in payload: either field of payload itself or field of object in its 'status'
+     * array.
+     */
+    static final class Part implements LazyJson.Source {
+        /**
+         * Index of status among objects of 'status' array, -1 if payload is status itself.
+         */
+        final int index;
+        final String field;
+        /**
+         * Text of part, compared by {@link MediaStatusTracker} with the part of the previous status.
+         */
+        final byte[] json;
+
+        Part(int index, String field, byte[] json) {
+            this.index = index;
+            this.field = field;
+            this.json = json;
+        }
+
+        @Override
+        public JsonParser parser() throws IOException {
+            JsonParser parser = JsonCodecs.factory().createParser(json);
+            parser.nextToken();
+            return parser;
+        }
+
+        JsonNode tree() throws IOException {
+            return JsonCodecs.treeReader().readValue(json);
+        }
+    }
+
+    /**
+     * Attaches parts bound on demand to status bound without them.
+     */
+    private static final class Deserializer extends StdDeserializer<MediaStatus> implements ResolvableDeserializer {
+        private static final long serialVersionUID = 1L;
+
+        private final JsonDeserializer<?> delegate;
+
+        Deserializer(JsonDeserializer<?> delegate) {
+            super(MediaStatus.class);
+            this.delegate = delegate;
+        }
+
+        @Override
+        public void resolve(DeserializationContext ctxt) throws JsonMappingException {
+            if (delegate instanceof ResolvableDeserializer) {
+                ((ResolvableDeserializer) delegate).resolve(ctxt);
+            }
+        }
+
+        @Override
+        public MediaStatus deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+            MediaStatus status = (MediaStatus) delegate.deserialize(p, ctxt);
+            Object attribute = ctxt.getAttribute(ATTRIBUTE);
+            if (!(attribute instanceof Binding)) {
+                return status;
+            }
+            Binding binding = (Binding) attribute;
+            JsonPayload payload = binding.payload;
+            int index = binding.nextIndex();
+            if (!binding.lazy) {
+                return status.with(eager(payload, index, MEDIA, status.media),
+                        eager(payload, index, ITEMS, status.items),
+                        eager(payload, index, CUSTOM_DATA, status.customData));
+            }
+            LazyJson<Media> media = lazy(payload, index, MEDIA);
+            LazyJson<List<Item>> items = lazy(payload, index, ITEMS);
+            LazyJson<Map<String, Object>> customData = lazy(payload, index, CUSTOM_DATA);
+            return media == null && items == null && customData == null ? status
+                    : status.projected(media, items, customData);
+        }
+    }
+}
@@ -0,0 +1,300 @@
+/*
+ * Copyright 2026 Vitaly Litvak (vitavaque@gmail.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package su.litvak.chromecast.api.v2;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * <p>Keeps the last media status of each media session and compares new statuses against it field by field.</p>
+ *
+ * <p>Statuses are bound without 'media', 'items' and 'customData', which payload keeps aside as text (see
+ * {@link MediaStatusProjection.Part}). These parts are compared as text with parts of the previous status and ones
+ * which are equal are not decoded at all: objects of the previous status are reused. Usually only time position or
+ * player state changes between statuses, so only a few scalar fields of status are bound.</p>
+ *
+ * <p>Status of projected payload (see {@link JsonPayload#isProjected()}) binds changed parts on demand, unchanged
+ * parts are shared with the previous status.</p>
+ */
+final class MediaStatusTracker {
+    /**
+     * Maximum number of media sessions remembered, the oldest is forgotten once it is exceeded.
+     */
+    private static final int MAX_SESSIONS = 16;
+
+    private static final String MEDIA = "media";
+    private static final String ITEMS = "items";
+    private static final String CUSTOM_DATA = "customData";
+
+    /**
+     * Last status of a media session and text of its parts, <code>null</code> parts were bound with status.
+     */
+    private static final class Session {
+        final MediaStatus status;
+        final MediaStatusProjection.Part media;
+        final MediaStatusProjection.Part items;
+        final MediaStatusProjection.Part customData;
+        /**
+         * Start and end of each element in text of items, <code>null</code> if items were not decoded one by one.
+         */
+        final int[] itemBounds;
+
+        Session(MediaStatus status, MediaStatusProjection.Part media, MediaStatusProjection.Part items,
+                MediaStatusProjection.Part customData, int[] itemBounds) {
+            this.status = status;
+            this.media = media;
+            this.items = items;
+            this.customData = customData;
+            this.itemBounds = itemBounds;
+        }
+    }
+
+    /**
+     * Sessions in order of insertion, the eldest one is removed once there are more than {@link #MAX_SESSIONS}.
+     */
+    private static final class Sessions extends LinkedHashMap<Long, Session> {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, Session> eldest) {
+            return size() > MAX_SESSIONS;
+        }
+    }
+
+    private final Map<Long, Session> sessions = new Sessions();
+
+    /**
+     * @return changes of statuses in specified 'MEDIA_STATUS' message, <code>null</code> if message is not
+     * recognized
+     */
+    synchronized List<MediaStatusDelta> update(JsonPayload payload) throws IOException {
+        MediaStatus[] statuses = payload.has(MediaStatusProjection.STATUS)
+                ? payload.bindDetached(StandardResponse.MediaStatus.class).statuses : null;
+        if (statuses == null) {
+            // it may be a single media status event
+            return payload.has(MEDIA)
+                    ? Collections.singletonList(update(payload.bindDetached(MediaStatus.class), payload, -1))
+                    : Collections.<MediaStatusDelta>emptyList();
+        }
+        List<MediaStatusDelta> deltas = new ArrayList<MediaStatusDelta>(statuses.length);
+        for (int i = 0; i < statuses.length; i++) {
+            if (statuses[i] == null) {
+                return null;
+            }
+            deltas.add(update(statuses[i], payload, i));
+        }
+        return deltas;
+    }
+
+    /**
+     * @param bound status bound without parts skipped in payload
+     * @param index index of status among objects of 'status' array, -1 if payload is status itself
+     */
+    private MediaStatusDelta update(MediaStatus bound, JsonPayload payload, int index) throws IOException {
+        Session previous = sessions.remove(bound.mediaSessionId);
+        MediaStatusProjection.Part media = payload.part(index, MEDIA);
+        MediaStatusProjection.Part items = payload.part(index, ITEMS);
+        MediaStatusProjection.Part customData = payload.part(index, CUSTOM_DATA);
+        boolean sameMedia = previous != null
+                && same(media, previous.media, bound.media, previous.status.media);
+        boolean sameItems = previous != null
+                && same(items, previous.items, bound.items, previous.status.items);
+        boolean sameCustomData = previous != null
+                && same(customData, previous.customData, bound.customData, previous.status.customData);
+
+        MediaStatus status;
+        int[] itemBounds = null;
+        if (payload.isProjected()) {
+            status = bound.projected(
+                    media == null ? null
+                            : sameMedia ? previous.status.mediaPart() : MediaStatusProjection.media(media),
+                    items == null ? null
+                            : sameItems ? previous.status.itemsPart() : MediaStatusProjection.items(items),
+                    customData == null ? null
+                            : sameCustomData ? previous.status.customDataPart()
+                            : MediaStatusProjection.customData(customData));
+        } else {
+            List<Item> newItems = bound.items;
+            if (items != null && sameItems) {
+                newItems = previous.status.getItems();
+                itemBounds = previous.itemBounds;
+            } else if (items != null) {
+                itemBounds = bounds(items.json);
+                newItems = itemBounds == null ? MediaStatusProjection.<List<Item>>decode(items)
+                        : items(items.json, itemBounds, previous);
+            }
+            status = bound.with(
+                    media == null ? bound.media
+                            : sameMedia ? previous.status.getMedia() : MediaStatusProjection.<Media>decode(media),
+                    newItems,
+                    customData == null ? bound.customData
+                            : sameCustomData ? previous.status.getCustomData()
+                            : MediaStatusProjection.<Map<String, Object>>decode(customData));
+        }
+
+        Set<MediaStatusDelta.Field> changed;
+        if (previous == null) {
+            changed = EnumSet.allOf(MediaStatusDelta.Field.class);
+        } else {
+            changed = changed(bound, previous.status);
+            if (!sameMedia) {
+                changed.add(MediaStatusDelta.Field.MEDIA);
+            }
+            if (!sameItems) {
+                changed.add(MediaStatusDelta.Field.ITEMS);
+            }
+            if (!sameCustomData) {
+                changed.add(MediaStatusDelta.Field.CUSTOM_DATA);
+            }
+        }
+        sessions.put(bound.mediaSessionId, new Session(status, media, items, customData, itemBounds));
+        return new MediaStatusDelta(previous == null ? null : previous.status, status, changed);
+    }
+
+    /**
+     * @return true if part of new status is the same as one of the previous status, compared as text if both were
+     * skipped in payloads, or as bound values if neither was
+     */
+    private static boolean same(MediaStatusProjection.Part part, MediaStatusProjection.Part previousPart,
+                                Object value, Object previousValue) {
+        if (part == null && previousPart == null) {
+            return equal(value, previousValue);
+        }
+        return part != null && previousPart != null && Arrays.equals(part.json, previousPart.json);
+    }
+
+    /**
+     * @return scalar fields of status, which differ from ones of the previous status
+     */
+    private static Set<MediaStatusDelta.Field> changed(MediaStatus status, MediaStatus previous) {
+        Set<MediaStatusDelta.Field> changed = EnumSet.noneOf(MediaStatusDelta.Field.class);
+        addIf(changed, MediaStatusDelta.Field.ACTIVE_TRACK_IDS,
+                !equal(status.activeTrackIds, previous.activeTrackIds));
+        addIf(changed, MediaStatusDelta.Field.PLAYBACK_RATE, status.playbackRate != previous.playbackRate);
+        addIf(changed, MediaStatusDelta.Field.PLAYER_STATE, status.playerState != previous.playerState);
+        addIf(changed, MediaStatusDelta.Field.CURRENT_ITEM_ID, !equal(status.currentItemId, previous.currentItemId));
+        addIf(changed, MediaStatusDelta.Field.CURRENT_TIME,
+                Double.compare(status.currentTime, previous.currentTime) != 0);
+        addIf(changed, MediaStatusDelta.Field.LOADING_ITEM_ID, !equal(status.loadingItemId, previous.loadingItemId));
+        addIf(changed, MediaStatusDelta.Field.PRELOADED_ITEM_ID,
+                !equal(status.preloadedItemId, previous.preloadedItemId));
+        addIf(changed, MediaStatusDelta.Field.SUPPORTED_MEDIA_COMMANDS,
+                status.supportedMediaCommands != previous.supportedMediaCommands);
+        addIf(changed, MediaStatusDelta.Field.VOLUME, !sameVolume(status.volume, previous.volume));
+        addIf(changed, MediaStatusDelta.Field.REPEAT_MODE, status.repeatMode != previous.repeatMode);
+        addIf(changed, MediaStatusDelta.Field.IDLE_REASON, status.idleReason != previous.idleReason);
+        return changed;
+    }
+
+    private static void addIf(Set<MediaStatusDelta.Field> fields, MediaStatusDelta.Field field, boolean condition) {
+        if (condition) {
+            fields.add(field);
+        }
+    }
+
+    private static boolean sameVolume(Volume a, Volume b) {
+        if (a == null || b == null) {
+            return a == b;
+        }
+        return equal(a.level, b.level) && a.muted == b.muted && equal(a.increment, b.increment)
+                && equal(a.stepInterval, b.stepInterval) && equal(a.controlType, b.controlType);
+    }
+
+    private static boolean equal(Object a, Object b) {
+        return a == null ? b == null : a.equals(b);
+    }
+
+    /**
+     * @return start and end of each element of specified array, <code>null</code> if some of them is not an object
+     */
+    private static int[] bounds(byte[] json) throws IOException {
+        JsonParser parser = JsonCodecs.factory().createParser(json);
+        try {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                return null;
+            }
+            int[] bounds = new int[16];
+            int count = 0;
+            while (parser.nextToken() == JsonToken.START_OBJECT) {
+                if (count == bounds.length) {
+                    bounds = Arrays.copyOf(bounds, count * 2);
+                }
+                bounds[count++] = (int) parser.getTokenLocation().getByteOffset();
+                parser.skipChildren();
+                bounds[count++] = (int) parser.getCurrentLocation().getByteOffset();
+            }
+            return parser.getCurrentToken() == JsonToken.END_ARRAY ? Arrays.copyOf(bounds, count) : null;
+        } finally {
+            parser.close();
+        }
+    }
+
+    /**
+     * @return unmodifiable list of items decoded from specified array, items of the previous status are reused if
+     * their text has not changed
+     */
+    private static List<Item> items(byte[] json, int[] bounds, Session previous) throws IOException {
+        byte[] previousJson = null;
+        int[] previousBounds = null;
+        List<Item> previousItems = null;
+        if (previous != null && previous.items != null && previous.itemBounds != null) {
+            previousJson = previous.items.json;
+            previousBounds = previous.itemBounds;
+            previousItems = previous.status.getItems();
+        }
+        List<Item> items = new ArrayList<Item>(bounds.length / 2);
+        for (int i = 0; i < bounds.length; i += 2) {
+            Item item = null;
+            if (previousItems != null) {
+                for (int j = 0; j < previousBounds.length; j += 2) {
+                    if (same(json, bounds[i], bounds[i + 1], previousJson, previousBounds[j], previousBounds[j + 1])) {
+                        item = previousItems.get(j / 2);
+                        break;
+                    }
+                }
+            }
+            items.add(item != null ? item
+                    : JsonCodecs.reader(Item.class).<Item>readValue(json, bounds[i], bounds[i + 1] - bounds[i]));
+        }
+        return Collections.unmodifiableList(items);
+    }
+
+    private static boolean same(byte[] a, int aStart, int aEnd, byte[] b, int bStart, int bEnd) {
+        if (aEnd - aStart != bEnd - bStart) {
+            return false;
+        }
+        for (int i = 0; i < aEnd - aStart; i++) {
+            if (a[aStart + i] != b[bStart + i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    synchronized void clear() {
+        sessions.clear();
+    }
+}
@@ -0,0 +1,543 @@
+/*
+ * Copyright 2026 Vitaly Litvak (vitavaque@gmail.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package su.litvak.chromecast.api.v2;
+
+import com.google.protobuf.InvalidProtocolBufferException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import su.litvak.chromecast.api.v2.CastChannel.CastMessage;
+
+import javax.net.ssl.SSLEngine;
+import javax.net.ssl.SSLEngineResult;
+import javax.net.ssl.SSLEngineResult.HandshakeStatus;
+import javax.net.ssl.SSLException;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.InetSocketAddress;
+import java.net.SocketTimeoutException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.SocketChannel;
+import java.security.GeneralSecurityException;
+import java.util.Queue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Non-blocking transport - {@link SSLEngine} over {@link SocketChannel} driven by one of the selector threads of
+ * {@link NioTransportGroup}.
+ *
+ * <p>All buffers and the engine are touched only from the selector thread. Other threads only enqueue outbound
+ * messages and wake the selector up. Selector thread encodes all queued messages into one reusable buffer, so
+ * messages written concurrently are sent in as few TLS records as possible.</p>
+ */
+class NioTransport implements Transport {
+    private static final Logger LOG = LoggerFactory.getLogger(NioTransport.class);
+    private static final ByteBuffer EMPTY = ByteBuffer.allocate(0);
+    /**
+     * How often thread blocked in {@link #read()} re-checks that transport is still open (in ms).
+     */
+    private static final long READ_POLL_PERIOD = 100;
+    /**
+     * Maximum size of plaintext in one TLS record. Queued frames are coalesced up to this size before wrapping.
+     */
+    private static final int MAX_RECORD_SIZE = 16384;
+
+    private final NioTransportGroup.SelectorLoop loop;
+
+    private SocketChannel channel;
+    private SelectionKey key;
+    private SSLEngine engine;
+    private ByteBuffer netIn;
+    private ByteBuffer netOut;
+    private ByteBuffer appIn;
+    private ByteBuffer appOut;
+    private boolean handshakeComplete;
+    private int maxFrameSize = DEFAULT_MAX_FRAME_SIZE;
+    private int connectTimeout = DEFAULT_CONNECT_TIMEOUT;
+    private long handshakeStarted;
+    private long handshakeStartedNanos;
+    private volatile long handshakeTime;
+    private volatile boolean sessionResumed;
+
+    /**
+     * Messages to encode or encoded frames (<code>byte[]</code>) waiting to be written.
+     */
+    private final Queue<Object> outbound = new ConcurrentLinkedQueue<Object>();
+    private final AtomicBoolean flushScheduled = new AtomicBoolean();
+    private final Runnable flushTask = new Runnable() {
+        @Override
+        public void run() {
+            flushScheduled.set(false);
+            if (key == null || closed) {
+                return;
+            }
+            try {
+                pump();
+            } catch (IOException ioex) {
+                fail(ioex);
+            }
+        }
+    };
+    private final CountDownLatch connected = new CountDownLatch(1);
+    private final BlockingQueue<CastFrame> received = new LinkedBlockingQueue<CastFrame>();
+    private volatile Listener listener;
+    private volatile IOException failure;
+    private volatile boolean closed;
+
+    NioTransport(NioTransportGroup.SelectorLoop loop) {
+        this.loop = loop;
+    }
+
+    @Override
+    public void setMaxFrameSize(int maxFrameSize) {
+        this.maxFrameSize = maxFrameSize;
+    }
+
+    @Override
+    public void setConnectTimeout(int connectTimeout) {
+        this.connectTimeout = connectTimeout;
+    }
+
+    @Override
+    public void connect(final InetSocketAddress address) throws IOException, GeneralSecurityException {
+        engine = TrustAllSSLContext.get().createSSLEngine(address.getHostName(), address.getPort());
+        engine.setUseClientMode(true);
+        netIn = ByteBuffer.allocate(engine.getSession().getPacketBufferSize());
+        netOut = ByteBuffer.allocate(engine.getSession().getPacketBufferSize());
+        appIn = ByteBuffer.allocate(engine.getSession().getApplicationBufferSize());
+        appOut = ByteBuffer.allocate(MAX_RECORD_SIZE);
+
+        channel = SocketChannel.open();
+        final boolean immediate;
+        try {
+            channel.configureBlocking(false);
+            immediate = channel.connect(address);
+        } catch (IOException ioex) {
+            close();
+            throw ioex;
+        }
+        loop.execute(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    key = channel.register(loop.selector(), immediate ? SelectionKey.OP_READ
+                            : SelectionKey.OP_CONNECT, NioTransport.this);
+                    if (immediate) {
+                        beginHandshake();
+                    }
+                } catch (IOException ioex) {
+                    fail(ioex);
+                }
+            }
+        });
+
+        try {
+            if (!connected.await(connectTimeout, TimeUnit.MILLISECONDS)) {
+                close();
+                throw new SocketTimeoutException("Connect timed out");
+            }
+        } catch (InterruptedException ie) {
+            close();
+            throw new ChromeCastException("Interrupted while connecting", ie);
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    @Override
+    public long getHandshakeTime() {
+        return handshakeTime;
+    }
+
+    @Override
+    public boolean isSessionResumed() {
+        return sessionResumed;
+    }
+
+    @Override
+    public CastFrame read() throws IOException {
+        try {
+            while (true) {
+                CastFrame frame = received.poll(READ_POLL_PERIOD, TimeUnit.MILLISECONDS);
+                if (frame != null) {
+                    return frame;
+                } else if (closed) {
+                    throw failure == null ? new ChromeCastException("Remote socket closed") : failure;
+                }
+            }
+        } catch (InterruptedException ie) {
+            InterruptedIOException ioex = new InterruptedIOException("Interrupted while reading");
+            ioex.initCause(ie);
+            throw ioex;
+        }
+    }
+
+    @Override
+    public void start(final Listener newListener) {
+        loop.execute(new Runnable() {
+            @Override
+            public void run() {
+                CastFrame frame;
+                while ((frame = received.poll()) != null) {
+                    newListener.messageReceived(frame);
+                }
+                listener = newListener;
+                if (closed && failure != null) {
+                    newListener.transportClosed(failure);
+                }
+            }
+        });
+    }
+
+    @Override
+    public void write(CastMessage message) throws IOException {
+        enqueue(message);
+    }
+
+    @Override
+    public void writeFrame(byte[] frame) throws IOException {
+        enqueue(frame);
+    }
+
+    @Override
+    public void writeFrame(byte[] buffer, int offset, int length) throws IOException {
+        // frame is written later by selector thread, while caller may reuse the array at once
+        byte[] frame = new byte[length];
+        System.arraycopy(buffer, offset, frame, 0, length);
+        enqueue(frame);
+    }
+
+    private void enqueue(Object outboundItem) throws IOException {
+        if (closed) {
+            throw failure == null ? new ChromeCastException("Channel closed") : failure;
+        }
+        outbound.add(outboundItem);
+        if (flushScheduled.compareAndSet(false, true)) {
+            loop.execute(flushTask);
+        }
+    }
+
+    @Override
+    public boolean isClosed() {
+        return closed;
+    }
+
+    @Override
+    public void close() throws IOException {
+        closed = true;
+        connected.countDown();
+        if (channel == null) {
+            return;
+        }
+        if (Thread.currentThread() == loop || !loop.isAlive()) {
+            closeChannel();
+        } else {
+            loop.execute(new Runnable() {
+                @Override
+                public void run() {
+                    closeChannel();
+                }
+            });
+        }
+    }
+
+    /**
+     * Sends TLS 'close_notify' if possible and closes socket. Device invalidates TLS session when connection is
+     * closed without 'close_notify', so it could not be resumed by the next connection.
+     */
+    private void closeChannel() {
+        try {
+            if (handshakeComplete && key != null && channel.isOpen()) {
+                engine.closeOutbound();
+                while (!engine.isOutboundDone()) {
+                    SSLEngineResult result = engine.wrap(EMPTY, netOut);
+                    if (result.getStatus() != SSLEngineResult.Status.OK
+                            && result.getStatus() != SSLEngineResult.Status.CLOSED) {
+                        break;
+                    }
+                }
+                flush();
+            }
+        } catch (IOException ioex) {
+            LOG.debug("Error while sending close_notify", ioex);
+        } finally {
+            try {
+                channel.close();
+            } catch (IOException ioex) {
+                LOG.debug("Error while closing channel", ioex);
+            }
+        }
+    }
+
+    /**
+     * Closes transport because of some error. Called on selector thread.
+     */
+    void fail(IOException cause) {
+        if (closed) {
+            return;
+        }
+        failure = cause;
+        try {
+            close();
+        } catch (IOException ioex) {
+            LOG.debug("Error while closing channel", ioex);
+        }
+        Listener current = listener;
+        if (current != null) {
+            try {
+                current.transportClosed(cause);
+            } catch (RuntimeException e) {
+                LOG.warn("Error while notifying about closed transport", e);
+            }
+        }
+    }
+
+    /**
+     * Handles readiness of the channel. Called on selector thread.
+     */
+    void handle(SelectionKey readyKey) {
+        try {
+            if (readyKey.isConnectable()) {
+                channel.finishConnect();
+                readyKey.interestOps(SelectionKey.OP_READ);
+                beginHandshake();
+                return;
+            }
+            if (readyKey.isReadable()) {
+                if (channel.read(netIn) < 0) {
+                    throw new ChromeCastException("Remote socket closed");
+                }
+            }
+            pump();
+        } catch (IOException ioex) {
+            fail(ioex);
+        }
+    }
+
+    private void beginHandshake() throws IOException {
+        handshakeStarted = System.currentTimeMillis();
+        handshakeStartedNanos = System.nanoTime();
+        engine.beginHandshake();
+        pump();
+    }
+
+    /**
+     * Makes as much progress as possible: unwraps received network data, decodes complete frames, wraps handshake
+     * and pending application data and flushes it to the socket.
+     */
+    private void pump() throws IOException {
+        boolean progress;
+        do {
+            progress = unwrap();
+            decode();
+            progress |= wrap();
+        } while (progress && !closed);
+    }
+
+    private boolean unwrap() throws IOException {
+        boolean progress = false;
+        boolean full = false;
+        netIn.flip();
+        try {
+            while (netIn.hasRemaining()) {
+                SSLEngineResult result = engine.unwrap(netIn, appIn);
+                switch (result.getStatus()) {
+                    case BUFFER_OVERFLOW:
+                        appIn = grow(appIn, engine.getSession().getApplicationBufferSize());
+                        continue;
+                    case BUFFER_UNDERFLOW:
+                        full = netIn.position() == 0 && netIn.limit() == netIn.capacity();
+                        return progress;
+                    case CLOSED:
+                        throw new ChromeCastException("Remote socket closed");
+                    default:
+                        break;
+                }
+                handshakeStatus(result.getHandshakeStatus());
+                if (result.bytesConsumed() == 0 && result.bytesProduced() == 0) {
+                    return progress;
+                }
+                progress = true;
+            }
+            return progress;
+        } finally {
+            netIn.compact();
+            if (full) {
+                netIn = grow(netIn, engine.getSession().getPacketBufferSize());
+            }
+        }
+    }
+
+    private boolean wrap() throws IOException {
+        boolean progress = false;
+        while (true) {
+            ByteBuffer src;
+            if (engine.getHandshakeStatus() == HandshakeStatus.NEED_WRAP) {
+                src = EMPTY;
+            } else if (handshakeComplete && (appOut.position() > 0 || encodeOutbound())) {
+                src = appOut;
+            } else {
+                break;
+            }
+            SSLEngineResult result;
+            if (src == appOut) {
+                appOut.flip();
+                try {
+                    result = engine.wrap(appOut, netOut);
+                } finally {
+                    appOut.compact();
+                }
+            } else {
+                result = engine.wrap(src, netOut);
+            }
+            if (result.getStatus() == SSLEngineResult.Status.BUFFER_OVERFLOW) {
+                if (!flush()) {
+                    return progress;
+                }
+                if (netOut.position() == 0) {
+                    netOut = grow(netOut, engine.getSession().getPacketBufferSize());
+                }
+                continue;
+            } else if (result.getStatus() == SSLEngineResult.Status.CLOSED) {
+                throw new ChromeCastException("Remote socket closed");
+            }
+            handshakeStatus(result.getHandshakeStatus());
+            progress = true;
+        }
+        flush();
+        return progress;
+    }
+
+    /**
+     * Encodes queued messages into {@link #appOut} until it holds one full TLS record.
+     *
+     * @return true if at least one message was encoded
+     */
+    private boolean encodeOutbound() throws IOException {
+        if (appOut.position() == 0 && appOut.capacity() > MAX_RECORD_SIZE) {
+            // do not keep buffer grown for an occasional big message
+            appOut = ByteBuffer.allocate(MAX_RECORD_SIZE);
+        }
+        boolean encoded = false;
+        Object next;
+        while (appOut.position() < MAX_RECORD_SIZE && (next = outbound.poll()) != null) {
+            if (next instanceof byte[]) {
+                appOut = FrameWriter.append((byte[]) next, appOut);
+            } else {
+                appOut = FrameWriter.encode((CastMessage) next, appOut);
+            }
+            encoded = true;
+        }
+        return encoded;
+    }
+
+    /**
+     * @return true if all wrapped data was written to socket
+     */
+    private boolean flush() throws IOException {
+        netOut.flip();
+        try {
+            while (netOut.hasRemaining()) {
+                if (channel.write(netOut) == 0) {
+                    break;
+                }
+            }
+            return !netOut.hasRemaining();
+        } finally {
+            netOut.compact();
+            if (key.isValid()) {
+                key.interestOps(netOut.position() == 0 ? SelectionKey.OP_READ
+                        : SelectionKey.OP_READ | SelectionKey.OP_WRITE);
+            }
+        }
+    }
+
+    private void handshakeStatus(HandshakeStatus status) throws SSLException {
+        HandshakeStatus current = status;
+        if (current == HandshakeStatus.NEED_TASK) {
+            Runnable task;
+            while ((task = engine.getDelegatedTask()) != null) {
+                task.run();
+            }
+            current = engine.getHandshakeStatus();
+        }
+        if (!handshakeComplete && (current == HandshakeStatus.FINISHED
+                || current == HandshakeStatus.NOT_HANDSHAKING)) {
+            handshakeComplete = true;
+            handshakeTime = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - handshakeStartedNanos);
+            // session of a full handshake is created during this handshake, resumed one - before it
+            sessionResumed = engine.getSession().getCreationTime() < handshakeStarted;
+            connected.countDown();
+        }
+    }
+
+    /**
+     * Extracts complete length-prefixed frames from decrypted application data.
+     */
+    private void decode() throws IOException {
+        appIn.flip();
+        try {
+            while (appIn.remaining() >= 4) {
+                int size = appIn.getInt(appIn.position());
+                FrameReader.checkFrameSize(size, maxFrameSize);
+                if (appIn.remaining() < 4 + size) {
+                    if (appIn.capacity() < 4 + size) {
+                        appIn.compact();
+                        appIn = grow(appIn, 4 + size - appIn.capacity());
+                        appIn.flip();
+                    }
+                    break;
+                }
+                int offset = appIn.arrayOffset() + appIn.position() + 4;
+                appIn.position(appIn.position() + 4 + size);
+                CastFrame frame;
+                try {
+                    frame = CastFrame.decode(appIn.array(), offset, size);
+                } catch (InvalidProtocolBufferException ipbe) {
+                    LOG.warn("Error while processing protobuf, caused by {}", ipbe.toString());
+                    continue;
+                }
+                deliver(frame);
+            }
+        } finally {
+            appIn.compact();
+        }
+    }
+
+    private void deliver(CastFrame frame) {
+        Listener current = listener;
+        if (current == null) {
+            // application buffer is compacted once decoded, queued frame must own its payload
+            received.add(frame.retain());
+        } else {
+            current.messageReceived(frame);
+        }
+    }
+
+    private static ByteBuffer grow(ByteBuffer buffer, int increment) {
+        ByteBuffer bigger = ByteBuffer.allocate(buffer.capacity() + Math.max(increment, buffer.capacity()));
+        buffer.flip();
+        bigger.put(buffer);
+        return bigger;
+    }
+}
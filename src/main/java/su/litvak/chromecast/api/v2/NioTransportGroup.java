@@ -0,0 +1,168 @@
+/*
+ * Copyright 2026 Vitaly Litvak (vitavaque@gmail.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package su.litvak.chromecast.api.v2;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * <p>Pool of selector threads, which drive non-blocking connections to any number of ChromeCast devices.</p>
+ *
+ * <p>By default every {@link ChromeCast} uses blocking socket with a dedicated reader thread. When group is set via
+ * {@link ChromeCast#setTransportGroup(NioTransportGroup)} all I/O, TLS and framing of that device is done by one of
+ * the selector threads of this group.</p>
+ *
+ * <p>Note that inbound messages and events are dispatched on selector thread, so listeners should not block.</p>
+ */
+public final class NioTransportGroup implements Closeable {
+    private static final Logger LOG = LoggerFactory.getLogger(NioTransportGroup.class);
+
+    private final SelectorLoop[] loops;
+    private final AtomicInteger nextLoop = new AtomicInteger();
+
+    /**
+     * Creates group with one selector thread per two available processors.
+     */
+    public NioTransportGroup() throws IOException {
+        this(Math.max(1, Runtime.getRuntime().availableProcessors() / 2));
+    }
+
+    public NioTransportGroup(int selectorThreads) throws IOException {
+        if (selectorThreads < 1) {
+            throw new IllegalArgumentException("At least one selector thread is required");
+        }
+        this.loops = new SelectorLoop[selectorThreads];
+        for (int i = 0; i < selectorThreads; i++) {
+            loops[i] = new SelectorLoop("ChromeCast selector " + i);
+            loops[i].start();
+        }
+    }
+
+    Transport.Factory factory() {
+        return new Transport.Factory() {
+            @Override
+            public Transport create() {
+                return new NioTransport(loops[(nextLoop.getAndIncrement() & Integer.MAX_VALUE) % loops.length]);
+            }
+        };
+    }
+
+    /**
+     * Stops all selector threads and closes all connections made through this group.
+     */
+    @Override
+    public void close() {
+        for (SelectorLoop loop : loops) {
+            loop.shutdown();
+        }
+    }
+
+    /**
+     * Selector thread. Executes submitted tasks and handles I/O readiness of registered transports.
+     */
+    static final class SelectorLoop extends Thread {
+        private final Selector selector;
+        private final Queue<Runnable> tasks = new ConcurrentLinkedQueue<Runnable>();
+        private volatile boolean stop;
+
+        SelectorLoop(String name) throws IOException {
+            super(name);
+            this.selector = Selector.open();
+            setDaemon(true);
+        }
+
+        Selector selector() {
+            return selector;
+        }
+
+        void execute(Runnable task) {
+            tasks.add(task);
+            if (Thread.currentThread() != this) {
+                selector.wakeup();
+            }
+        }
+
+        void shutdown() {
+            stop = true;
+            selector.wakeup();
+        }
+
+        @Override
+        public void run() {
+            while (!stop) {
+                try {
+                    selector.select();
+                } catch (IOException ioex) {
+                    LOG.warn("Error while selecting, caused by {}", ioex.toString());
+                }
+                runTasks();
+                Iterator<SelectionKey> it = selector.selectedKeys().iterator();
+                while (it.hasNext()) {
+                    SelectionKey key = it.next();
+                    it.remove();
+                    // key could be cancelled by a task closing its transport
+                    if (key.isValid()) {
+                        handle(key);
+                    }
+                }
+            }
+            runTasks();
+            for (SelectionKey key : new ArrayList<SelectionKey>(selector.keys())) {
+                ((NioTransport) key.attachment()).fail(new ChromeCastException("Transport group closed"));
+            }
+            try {
+                selector.close();
+            } catch (IOException ioex) {
+                LOG.debug("Error while closing selector", ioex);
+            }
+        }
+
+        /**
+         * Handles readiness of one transport. Unexpected error (e.g. thrown by engine or by listener) closes only
+         * that transport, others are still served.
+         */
+        private void handle(SelectionKey key) {
+            NioTransport transport = (NioTransport) key.attachment();
+            try {
+                transport.handle(key);
+            } catch (RuntimeException e) {
+                LOG.warn("Error while handling connection, closing it", e);
+                transport.fail(new ChromeCastException("Error while handling connection", e));
+            }
+        }
+
+        private void runTasks() {
+            Runnable task;
+            while ((task = tasks.poll()) != null) {
+                try {
+                    task.run();
+                } catch (RuntimeException e) {
+                    LOG.warn("Error while running selector task", e);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,53 @@
+/*
+ * Copyright 2026 Vitaly Litvak (vitavaque@gmail.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package su.litvak.chromecast.api.v2;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Pool of daemon threads shared by all channels for work, which may block and therefore must not run on the
+ * heartbeat or reader threads: connection attempts, pings, closing lost connections. Threads are started on demand
+ * and stopped once idle.
+ */
+final class SharedExecutor {
+    /**
+     * How long idle thread is kept, in seconds.
+     */
+    private static final long KEEP_ALIVE = 30;
+    private static Executor executor;
+
+    private SharedExecutor() {
+    }
+
+    static synchronized Executor get() {
+        if (executor == null) {
+            executor = new ThreadPoolExecutor(0, Integer.MAX_VALUE, KEEP_ALIVE, TimeUnit.SECONDS,
+                    new SynchronousQueue<Runnable>(), new ThreadFactory() {
+                        @Override
+                        public Thread newThread(Runnable r) {
+                            Thread thread = new Thread(r, "ChromeCast worker");
+                            thread.setDaemon(true);
+                            return thread;
+                        }
+                    });
+        }
+        return executor;
+    }
+}
@@ -0,0 +1,136 @@
+/*
+ * Copyright 2026 Vitaly Litvak (vitavaque@gmail.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package su.litvak.chromecast.api.v2;
+
+import java.io.IOException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * <p>Coalesces identical read-only requests (e.g. status), so concurrent callers share one request in flight and
+ * its response.</p>
+ *
+ * <p>Every caller gets its own future. Cancelling it (e.g. on timeout) only detaches that caller, shared request is
+ * cancelled once all callers are detached. Request sent after the shared one is answered starts a new flight, so
+ * responses are never older than the call.</p>
+ */
+final class SingleFlight {
+    /**
+     * Sends request.
+     *
+     * @param <T> type of response
+     */
+    interface Call<T> {
+        ChromeCastFuture<T> start() throws IOException;
+    }
+
+    private final ConcurrentMap<String, Flight<?>> flights = new ConcurrentHashMap<String, Flight<?>>();
+
+    /**
+     * Request in flight along with number of callers waiting for it.
+     *
+     * @param <T> type of response
+     */
+    private final class Flight<T> {
+        final String key;
+        final ChromeCastFuture<T> result = new ChromeCastFuture<T>();
+        volatile ChromeCastFuture<T> request;
+        int callers;
+        boolean closed;
+
+        Flight(String key) {
+            this.key = key;
+            result.addListener(new Runnable() {
+                @Override
+                public void run() {
+                    close();
+                }
+            }, ChromeCastFuture.DIRECT);
+        }
+
+        /**
+         * @return future of a new caller or <code>null</code> if flight is over and can not be joined
+         */
+        ChromeCastFuture<T> join() {
+            synchronized (this) {
+                if (closed) {
+                    return null;
+                }
+                callers++;
+            }
+            ChromeCastFuture<T> caller = new ChromeCastFuture<T>() {
+                @Override
+                void cancelled() {
+                    leave();
+                }
+            };
+            caller.follow(result);
+            return caller;
+        }
+
+        private void leave() {
+            synchronized (this) {
+                if (--callers > 0 || closed) {
+                    return;
+                }
+            }
+            close();
+            ChromeCastFuture<T> current = request;
+            if (current != null) {
+                current.cancel(false);
+            }
+        }
+
+        private void close() {
+            synchronized (this) {
+                closed = true;
+            }
+            flights.remove(key, this);
+        }
+    }
+
+    /**
+     * Joins request in flight with specified key or starts a new one.
+     */
+    <T> ChromeCastFuture<T> join(String key, Call<T> call) throws IOException {
+        Flight<T> created = new Flight<T>(key);
+        ChromeCastFuture<T> caller = created.join();
+        while (true) {
+            @SuppressWarnings("unchecked")
+            Flight<T> existing = (Flight<T>) flights.putIfAbsent(key, created);
+            if (existing == null) {
+                break;
+            }
+            ChromeCastFuture<T> joined = existing.join();
+            if (joined != null) {
+                return joined;
+            }
+            // flight is over, but not removed yet
+            flights.remove(key, existing);
+        }
+        try {
+            created.request = call.start();
+        } catch (IOException ioex) {
+            created.result.fail(ioex);
+            throw ioex;
+        } catch (RuntimeException re) {
+            created.result.fail(re);
+            throw re;
+        }
+        created.result.follow(created.request);
+        return caller;
+    }
+}
@@ -0,0 +1,198 @@
+/*
+ * Copyright 2026 Vitaly Litvak (vitavaque@gmail.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package su.litvak.chromecast.api.v2;
+
+import com.google.protobuf.InvalidProtocolBufferException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import su.litvak.chromecast.api.v2.CastChannel.CastMessage;
+
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLSocket;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.security.GeneralSecurityException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Blocking transport - SSL socket with a dedicated reader thread per connection. Writes from any thread
+ * are serialized by {@link FrameWriter}.
+ */
+class SocketTransport implements Transport {
+    static final Factory FACTORY = new Factory() {
+        @Override
+        public Transport create() {
+            return new SocketTransport();
+        }
+    };
+
+    private static final Logger LOG = LoggerFactory.getLogger(SocketTransport.class);
+
+    private Socket socket;
+    private FrameReader reader;
+    private FrameWriter writer;
+    private int maxFrameSize = DEFAULT_MAX_FRAME_SIZE;
+    private int connectTimeout = DEFAULT_CONNECT_TIMEOUT;
+    private long handshakeTime;
+    private boolean sessionResumed;
+    private ReadThread readThread;
+    private volatile boolean closed;
+
+    /**
+     * Reads messages from socket and passes them to the listener until transport is closed.
+     */
+    private class ReadThread extends Thread {
+        private final Listener listener;
+
+        ReadThread(Listener listener) {
+            super("ChromeCast reader " + socket.getInetAddress());
+            this.listener = listener;
+        }
+
+        @Override
+        public void run() {
+            while (!closed) {
+                CastFrame frame;
+                try {
+                    frame = reader.read();
+                } catch (InvalidProtocolBufferException ipbe) {
+                    LOG.warn("Error while processing protobuf, caused by {}", ipbe.toString());
+                    continue;
+                } catch (IOException ioex) {
+                    if (closed) {
+                        LOG.debug("Got IOException while reading due to stream being closed", ioex);
+                    } else {
+                        closeQuietly();
+                        listener.transportClosed(ioex);
+                    }
+                    return;
+                }
+                listener.messageReceived(frame);
+            }
+        }
+    }
+
+    @Override
+    public void setMaxFrameSize(int maxFrameSize) {
+        this.maxFrameSize = maxFrameSize;
+    }
+
+    @Override
+    public void setConnectTimeout(int connectTimeout) {
+        this.connectTimeout = connectTimeout;
+    }
+
+    @Override
+    public void connect(InetSocketAddress address) throws IOException, GeneralSecurityException {
+        SSLContext sc = TrustAllSSLContext.get();
+        Socket plain = new Socket();
+        synchronized (this) {
+            if (closed) {
+                throw new ChromeCastException("Channel closed");
+            }
+            socket = plain;
+        }
+        try {
+            long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(connectTimeout);
+            plain.connect(address, connectTimeout);
+            // handshake shares the deadline, device which accepts connection but does not respond must not hang
+            plain.setSoTimeout((int) Math.max(1, TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime())));
+            // layering over connected socket with known host and port makes session resumable
+            SSLSocket ssl = (SSLSocket) sc.getSocketFactory().createSocket(plain, address.getHostName(),
+                    address.getPort(), true);
+            socket = ssl;
+            long started = System.currentTimeMillis();
+            long startedNanos = System.nanoTime();
+            ssl.startHandshake();
+            handshakeTime = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedNanos);
+            // session of a full handshake is created during this handshake, resumed one - before it
+            sessionResumed = ssl.getSession().getCreationTime() < started;
+            // liveness of established connection is watched by heartbeat
+            ssl.setSoTimeout(0);
+        } catch (IOException ioex) {
+            closeQuietly();
+            // TLS layer reports handshake timeout wrapped into SSLException
+            if (ioex.getCause() instanceof SocketTimeoutException) {
+                SocketTimeoutException timeout = new SocketTimeoutException("Connect timed out");
+                timeout.initCause(ioex);
+                throw timeout;
+            }
+            throw ioex;
+        }
+        reader = new FrameReader(socket.getInputStream(), maxFrameSize);
+        writer = new FrameWriter(socket.getOutputStream());
+    }
+
+    @Override
+    public long getHandshakeTime() {
+        return handshakeTime;
+    }
+
+    @Override
+    public boolean isSessionResumed() {
+        return sessionResumed;
+    }
+
+    @Override
+    public CastFrame read() throws IOException {
+        return reader.read().retain();
+    }
+
+    @Override
+    public void start(Listener listener) {
+        readThread = new ReadThread(listener);
+        readThread.start();
+    }
+
+    @Override
+    public void write(CastMessage message) throws IOException {
+        writer.write(message);
+    }
+
+    @Override
+    public void writeFrame(byte[] frame) throws IOException {
+        writer.write(frame, 0, frame.length);
+    }
+
+    @Override
+    public void writeFrame(byte[] buffer, int offset, int length) throws IOException {
+        writer.write(buffer, offset, length);
+    }
+
+    @Override
+    public boolean isClosed() {
+        return closed;
+    }
+
+    private void closeQuietly() {
+        try {
+            close();
+        } catch (IOException ioex) {
+            LOG.debug("Error while closing socket", ioex);
+        }
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        closed = true;
+        if (socket != null) {
+            socket.close();
+        }
+    }
+}
@@ -0,0 +1,115 @@
+/*
+ * Copyright 2026 Vitaly Litvak (vitavaque@gmail.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package su.litvak.chromecast.api.v2;
+
+import su.litvak.chromecast.api.v2.CastChannel.CastMessage;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.security.GeneralSecurityException;
+
+/**
+ * Low-level connection carrying length-prefixed {@link CastMessage} frames between {@link Channel}
+ * and ChromeCast device.
+ *
+ * <p>Lifecycle is: {@link #connect(InetSocketAddress)}, then any number of synchronous {@link #read()} calls
+ * (used during authentication), then {@link #start(Listener)} after which all inbound messages are delivered
+ * to the listener.</p>
+ */
+interface Transport extends Closeable {
+    /**
+     * Maximum size of inbound frame (64 KiB), which is the message size limit of the Cast protocol.
+     */
+    int DEFAULT_MAX_FRAME_SIZE = 64 * 1024;
+    /**
+     * Maximum time to establish connection including TLS handshake (5 seconds), devices are expected to be in the
+     * local network.
+     */
+    int DEFAULT_CONNECT_TIMEOUT = 5000;
+
+    /**
+     * Receives inbound messages and notification about transport being closed.
+     */
+    interface Listener {
+        /**
+         * Called by the transport's thread for each inbound frame. Payload of the frame is only valid during the call.
+         */
+        void messageReceived(CastFrame frame);
+
+        /**
+         * Called once when the transport was closed not by {@link Transport#close()}.
+         */
+        void transportClosed(IOException cause);
+    }
+
+    /**
+     * Creates transports for channels.
+     */
+    interface Factory {
+        Transport create();
+    }
+
+    /**
+     * Sets maximum size of inbound frame, connection with larger frames is considered corrupt and is closed. Must be
+     * called before {@link #connect(InetSocketAddress)}.
+     */
+    void setMaxFrameSize(int maxFrameSize);
+
+    /**
+     * Sets maximum time in milliseconds to establish connection including TLS handshake, {@link #connect} fails
+     * with {@link java.net.SocketTimeoutException} once it is exceeded. Must be called before
+     * {@link #connect(InetSocketAddress)}.
+     */
+    void setConnectTimeout(int connectTimeout);
+
+    void connect(InetSocketAddress address) throws IOException, GeneralSecurityException;
+
+    /**
+     * @return duration of TLS handshake of this connection in milliseconds, valid once connected
+     */
+    long getHandshakeTime();
+
+    /**
+     * @return true if TLS session of previous connection to the same device was resumed, valid once connected
+     */
+    boolean isSessionResumed();
+
+    /**
+     * Reads next message synchronously. May only be used before {@link #start(Listener)} is called. Returned frame
+     * owns its payload.
+     */
+    CastFrame read() throws IOException;
+
+    void start(Listener listener);
+
+    void write(CastMessage message) throws IOException;
+
+    /**
+     * Writes already encoded frame, length prefix included. Frame must not be modified afterwards, so constant frames
+     * may be written many times without encoding (see {@link ControlFrames}). Array may hold several frames one
+     * after another, they are written as a whole.
+     */
+    void writeFrame(byte[] frame) throws IOException;
+
+    /**
+     * Writes encoded frame, length prefix included, located in specified part of array. Frame is either written or
+     * copied by the time this method returns, so caller may reuse the array (see {@link JsonFrameEncoder}).
+     */
+    void writeFrame(byte[] buffer, int offset, int length) throws IOException;
+
+    boolean isClosed();
+}
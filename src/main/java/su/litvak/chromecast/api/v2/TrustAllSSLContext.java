@@ -0,0 +1,45 @@
+/*
+ * Copyright 2026 Vitaly Litvak (vitavaque@gmail.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package su.litvak.chromecast.api.v2;
+
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.TrustManager;
+
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+
+/**
+ * <p>Process-wide {@link SSLContext} trusting any ChromeCast certificate (see {@link X509TrustAllManager}).</p>
+ *
+ * <p>Creating context and seeding its random generator is expensive, so it is done once. Sharing context also
+ * shares its client session cache, which keeps TLS sessions by host and port of device, so reconnection to the
+ * same device resumes the session instead of doing full handshake.</p>
+ */
+final class TrustAllSSLContext {
+    private static SSLContext context;
+
+    private TrustAllSSLContext() {
+    }
+
+    static synchronized SSLContext get() throws GeneralSecurityException {
+        if (context == null) {
+            SSLContext sc = SSLContext.getInstance("SSL");
+            sc.init(null, new TrustManager[] {new X509TrustAllManager()}, new SecureRandom());
+            context = sc;
+        }
+        return context;
+    }
+}
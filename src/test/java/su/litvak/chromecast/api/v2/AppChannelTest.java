@@ -0,0 +1,156 @@
+/*
+ * Copyright 2026 Vitaly Litvak (vitavaque@gmail.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package su.litvak.chromecast.api.v2;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.JsonNode;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import su.litvak.chromecast.api.v2.ChromeCastSpontaneousEvent.SpontaneousEventType;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class AppChannelTest {
+    static final String NAMESPACE = "urn:x-cast:com.example.control";
+
+    MockedChromeCast chromeCastStub;
+    ChromeCast cast = new ChromeCast("localhost");
+    AppChannel appChannel;
+    final BlockingQueue<JsonNode> handled = new LinkedBlockingQueue<JsonNode>();
+
+    static class Control implements Request, Response {
+        @JsonProperty
+        int step;
+        Long requestId;
+
+        Control() {
+        }
+
+        Control(int step) {
+            this.step = step;
+        }
+
+        @Override
+        public Long getRequestId() {
+            return requestId;
+        }
+
+        @Override
+        public void setRequestId(Long requestId) {
+            this.requestId = requestId;
+        }
+    }
+
+    @Before
+    public void init() throws Exception {
+        chromeCastStub = new MockedChromeCast();
+        chromeCastStub.customHandler = new MockedChromeCast.CustomHandler() {
+            @Override
+            public Response handle(JsonNode json) {
+                handled.add(json);
+                return json.get("step").asInt() < 0 ? new Control(-json.get("step").asInt()) : null;
+            }
+        };
+        cast.connect();
+        cast.launchApp("abcd");
+        appChannel = cast.openAppChannel(NAMESPACE);
+        chromeCastStub.receivedTypes.clear();
+    }
+
+    @After
+    public void destroy() throws Exception {
+        appChannel.close();
+        cast.disconnect();
+        chromeCastStub.close();
+    }
+
+    private JsonNode nextHandled() throws InterruptedException {
+        JsonNode json = handled.poll(5, TimeUnit.SECONDS);
+        assertNotNull(json);
+        return json;
+    }
+
+    @Test
+    public void testSendsWithoutStatusRequests() throws Exception {
+        for (int i = 0; i < 20; i++) {
+            appChannel.post(new Control(i));
+        }
+        assertEquals(5, appChannel.send(new Control(-5), Control.class).step);
+        assertEquals(7, appChannel.sendAsync(new Control(-7), Control.class).get(5, TimeUnit.SECONDS).step);
+        for (int i = 0; i < 20; i++) {
+            assertEquals(i, nextHandled().get("step").asInt());
+        }
+        assertEquals(0, Collections.frequency(chromeCastStub.receivedTypes, "GET_STATUS"));
+    }
+
+    @Test
+    public void testPostsBatch() throws Exception {
+        List<Control> batch = new ArrayList<Control>();
+        for (int i = 0; i < 5; i++) {
+            batch.add(new Control(i));
+        }
+        appChannel.postAll(batch);
+        for (int i = 0; i < 5; i++) {
+            assertEquals(i, nextHandled().get("step").asInt());
+        }
+    }
+
+    @Test
+    public void testReceivesMessagesOfItsNamespace() throws Exception {
+        chromeCastStub.broadcast("urn:x-cast:com.example.other", "{\"step\":1}");
+        chromeCastStub.broadcast(NAMESPACE, "{\"step\":2}");
+        AppEvent event = appChannel.poll(5, TimeUnit.SECONDS);
+        assertNotNull(event);
+        assertEquals("{\"step\":2}", event.message);
+    }
+
+    @Test
+    public void testNoticesApplicationIsGone() throws Exception {
+        final CountDownLatch statusReceived = new CountDownLatch(1);
+        // registered after channel, so channel has seen status by the time latch is released
+        cast.registerListener(new ChromeCastSpontaneousEventListener() {
+            @Override
+            public void spontaneousEventReceived(ChromeCastSpontaneousEvent event) {
+                if (event.getType() == SpontaneousEventType.STATUS) {
+                    statusReceived.countDown();
+                }
+            }
+        });
+        chromeCastStub.runningApplications.clear();
+        chromeCastStub.broadcast("urn:x-cast:com.google.cast.receiver",
+                "{\"type\":\"RECEIVER_STATUS\",\"requestId\":0,\"status\":{\"applications\":[]}}");
+        assertTrue(statusReceived.await(5, TimeUnit.SECONDS));
+
+        try {
+            appChannel.post(new Control(1));
+            fail("Application is not running");
+        } catch (ChromeCastException e) {
+            assertTrue(e.getMessage().contains("abcd"));
+        }
+    }
+}
@@ -0,0 +1,263 @@
+/*
+ * Copyright 2026 Vitaly Litvak (vitavaque@gmail.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package su.litvak.chromecast.api.v2;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class AsyncRequestTest {
+    MockedChromeCast chromeCastStub;
+    ChromeCast cast = new ChromeCast("localhost");
+
+    static class Custom implements Request, Response {
+        Long requestId;
+
+        @Override
+        public Long getRequestId() {
+            return requestId;
+        }
+
+        @Override
+        public void setRequestId(Long requestId) {
+            this.requestId = requestId;
+        }
+    }
+
+    /**
+     * Response which remembers thread it was bound by.
+     */
+    static class Recorded extends Custom {
+        static volatile Thread boundBy;
+
+        Recorded() {
+            boundBy = Thread.currentThread();
+        }
+    }
+
+    @Before
+    public void initMockedCast() throws Exception {
+        chromeCastStub = new MockedChromeCast();
+        cast.connect();
+    }
+
+    @Test
+    public void testGetStatusAsync() throws Exception {
+        ChromeCastFuture<Status> future = cast.getStatusAsync();
+        final CountDownLatch listenerCalled = new CountDownLatch(1);
+        future.addListener(new Runnable() {
+            @Override
+            public void run() {
+                listenerCalled.countDown();
+            }
+        }, ChromeCastFuture.DIRECT);
+
+        Status status = future.get(5, TimeUnit.SECONDS);
+        assertNotNull(status);
+        assertTrue(status.applications.isEmpty());
+        assertTrue(listenerCalled.await(5, TimeUnit.SECONDS));
+        assertTrue(future.isDone());
+    }
+
+    @Test
+    public void testSendAsyncWithoutRunningApp() throws Exception {
+        ChromeCastFuture<Custom> future = cast.sendAsync("urn:x-cast:com.example", new Custom(), Custom.class);
+        try {
+            future.get(5, TimeUnit.SECONDS);
+            fail("Exception expected");
+        } catch (ExecutionException ee) {
+            assertTrue(ee.getCause() instanceof ChromeCastException);
+            assertEquals("No application is running in ChromeCast", ee.getCause().getMessage());
+        }
+    }
+
+    @Test
+    public void testSendAsync() throws Exception {
+        cast.launchApp("abcd");
+        chromeCastStub.customHandler = new MockedChromeCast.CustomHandler() {
+            @Override
+            public Response handle(JsonNode json) {
+                return new Custom();
+            }
+        };
+        ChromeCastFuture<Custom> future = cast.sendAsync("urn:x-cast:com.example", new Custom(), Custom.class);
+        assertNotNull(future.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testResponseIsBoundByCaller() throws Exception {
+        cast.launchApp("abcd");
+        chromeCastStub.customHandler = new MockedChromeCast.CustomHandler() {
+            @Override
+            public Response handle(JsonNode json) {
+                return new Custom();
+            }
+        };
+        Recorded.boundBy = null;
+        ChromeCastFuture<Recorded> future = cast.sendAsync("urn:x-cast:com.example", new Custom(), Recorded.class);
+        final CountDownLatch done = new CountDownLatch(1);
+        future.addListener(new Runnable() {
+            @Override
+            public void run() {
+                done.countDown();
+            }
+        }, ChromeCastFuture.DIRECT);
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        assertNull(Recorded.boundBy);
+        assertNotNull(future.get());
+        assertSame(Thread.currentThread(), Recorded.boundBy);
+    }
+
+    @Test
+    public void testResponseIsBoundByDecodeExecutor() throws Exception {
+        ExecutorService decoder = Executors.newSingleThreadExecutor(new ThreadFactory() {
+            @Override
+            public Thread newThread(Runnable r) {
+                return new Thread(r, "decoder");
+            }
+        });
+        try {
+            cast.setDecodeExecutor(decoder);
+            cast.launchApp("abcd");
+            chromeCastStub.customHandler = new MockedChromeCast.CustomHandler() {
+                @Override
+                public Response handle(JsonNode json) {
+                    return new Custom();
+                }
+            };
+            ChromeCastFuture<Recorded> future = cast.sendAsync("urn:x-cast:com.example", new Custom(),
+                    Recorded.class);
+            assertNotNull(future.get(5, TimeUnit.SECONDS));
+            assertEquals("decoder", Recorded.boundBy.getName());
+        } finally {
+            decoder.shutdown();
+        }
+    }
+
+    @Test
+    public void testCancel() throws Exception {
+        cast.launchApp("abcd");
+        final CountDownLatch release = new CountDownLatch(1);
+        chromeCastStub.customHandler = new MockedChromeCast.CustomHandler() {
+            @Override
+            public Response handle(JsonNode json) {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return new Custom();
+            }
+        };
+        ChromeCastFuture<Custom> future = cast.sendAsync("urn:x-cast:com.example", new Custom(), Custom.class);
+        assertFalse(future.isDone());
+        assertTrue(future.cancel(false));
+        assertTrue(future.isCancelled());
+        release.countDown();
+
+        // late response is ignored and channel is still usable
+        assertNotNull(cast.getStatusAsync().get(5, TimeUnit.SECONDS));
+        assertTrue(cast.isConnected());
+    }
+
+    @Test
+    public void testCancelWhileDependentRequestIsStarted() throws Exception {
+        ChromeCastFuture<String> first = new ChromeCastFuture<String>();
+        final ChromeCastFuture<String> next = new ChromeCastFuture<String>();
+        final AtomicReference<ChromeCastFuture<String>> transformed = new AtomicReference<ChromeCastFuture<String>>();
+        transformed.set(first.transformAsync(new ChromeCastFuture.Function<String, ChromeCastFuture<String>>() {
+            @Override
+            public ChromeCastFuture<String> apply(String input) {
+                // caller cancels after first request is done, while the dependent one is being sent
+                assertTrue(transformed.get().cancel(false));
+                return next;
+            }
+        }, ChromeCastFuture.DIRECT));
+        first.complete("status");
+
+        assertTrue(transformed.get().isCancelled());
+        assertTrue(next.isCancelled());
+    }
+
+    @Test
+    public void testCancelledTransformationDoesNotStartDependentRequest() throws Exception {
+        ChromeCastFuture<String> first = new ChromeCastFuture<String>();
+        ChromeCastFuture<String> transformed = first.transformAsync(
+                new ChromeCastFuture.Function<String, ChromeCastFuture<String>>() {
+                    @Override
+                    public ChromeCastFuture<String> apply(String input) {
+                        fail("Dependent request must not be started");
+                        return null;
+                    }
+                }, ChromeCastFuture.DIRECT);
+        assertTrue(transformed.cancel(false));
+        assertTrue(first.isCancelled());
+        first.complete("status");
+        assertTrue(transformed.isCancelled());
+    }
+
+    @Test
+    public void testDependentRequestIsStartedByExecutor() throws Exception {
+        ExecutorService executor = Executors.newSingleThreadExecutor(new ThreadFactory() {
+            @Override
+            public Thread newThread(Runnable r) {
+                return new Thread(r, "continuation");
+            }
+        });
+        try {
+            ChromeCastFuture<String> first = new ChromeCastFuture<String>();
+            final AtomicReference<Thread> appliedBy = new AtomicReference<Thread>();
+            ChromeCastFuture<String> transformed = first.transformAsync(
+                    new ChromeCastFuture.Function<String, ChromeCastFuture<String>>() {
+                        @Override
+                        public ChromeCastFuture<String> apply(String input) {
+                            appliedBy.set(Thread.currentThread());
+                            return ChromeCastFuture.completed(input + " and media status");
+                        }
+                    }, executor);
+            // completed by this thread like reader completes response
+            first.complete("status");
+            assertEquals("status and media status", transformed.get(5, TimeUnit.SECONDS));
+            assertEquals("continuation", appliedBy.get().getName());
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @After
+    public void destroy() throws IOException {
+        cast.disconnect();
+        chromeCastStub.close();
+    }
+}
@@ -0,0 +1,135 @@
+/*
+ * Copyright 2026 Vitaly Litvak (vitavaque@gmail.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package su.litvak.chromecast.api.v2;
+
+import com.google.protobuf.CodedOutputStream;
+import su.litvak.chromecast.api.v2.CastChannel.CastMessage;
+
+import java.lang.management.ManagementFactory;
+
+/**
+ * <p>Compares generated <code>CastMessage.parseFrom</code>/<code>writeTo</code> against hand-written
+ * {@link CastFrame} codec. Reports time and heap allocated per message for every fixture.</p>
+ *
+ * <p>Run with <code>mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=su.litvak.chromecast.api.v2.CastFrameBenchmark</code>.</p>
+ */
+public final class CastFrameBenchmark {
+    private static final String[] FIXTURES = {
+        "/status-backdrop-1.28.json",
+        "/status-spotify.json",
+        "/mediaStatus-single.json",
+        "/mediaStatus-with-videoinfo.json"
+    };
+    private static final String NAMESPACE = "urn:x-cast:com.google.cast.media";
+    private static final int WARMUP = 200000;
+    private static final int ITERATIONS = 500000;
+
+    private static final com.sun.management.ThreadMXBean THREADS =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    private CastFrameBenchmark() {
+    }
+
+    private interface Codec {
+        Object run(byte[] message, byte[] payload, byte[] target) throws Exception;
+    }
+
+    private static final Codec GENERATED_DECODE = new Codec() {
+        @Override
+        public Object run(byte[] message, byte[] payload, byte[] target) throws Exception {
+            CastMessage decoded = CastMessage.PARSER.parseFrom(message, 0, message.length);
+            // namespace is always needed for routing, payload bytes are needed for parsing
+            decoded.getNamespace();
+            return decoded.getPayloadUtf8Bytes();
+        }
+    };
+
+    private static final Codec HAND_WRITTEN_DECODE = new Codec() {
+        @Override
+        public Object run(byte[] message, byte[] payload, byte[] target) throws Exception {
+            CastFrame decoded = CastFrame.decode(message, 0, message.length);
+            decoded.getNamespace();
+            return decoded.payloadArray();
+        }
+    };
+
+    private static final Codec GENERATED_ENCODE = new Codec() {
+        @Override
+        public Object run(byte[] message, byte[] payload, byte[] target) throws Exception {
+            CastMessage encoded = CastMessage.newBuilder()
+                    .setProtocolVersion(CastMessage.ProtocolVersion.CASTV2_1_0)
+                    .setSourceId("sender-0")
+                    .setDestinationId("web-5")
+                    .setNamespace(NAMESPACE)
+                    .setPayloadType(CastMessage.PayloadType.STRING)
+                    .setPayloadUtf8(new String(payload, "UTF-8"))
+                    .build();
+            CodedOutputStream out = CodedOutputStream.newInstance(target);
+            encoded.writeTo(out);
+            return out;
+        }
+    };
+
+    private static final Codec HAND_WRITTEN_ENCODE = new Codec() {
+        @Override
+        public Object run(byte[] message, byte[] payload, byte[] target) throws Exception {
+            int pos = CastFrame.writeHeader(target, 0, CastFrame.utf8("sender-0"), CastFrame.utf8("web-5"),
+                    CastFrame.utf8(NAMESPACE), CastFrame.STRING, payload.length);
+            System.arraycopy(payload, 0, target, pos, payload.length);
+            return target;
+        }
+    };
+
+    public static void main(String[] args) throws Exception {
+        System.out.println("fixture                                    codec               ns/msg  bytes/msg");
+        for (String fixture : FIXTURES) {
+            String json = FixtureHelper.fixtureAsString(fixture);
+            byte[] message = CastMessage.newBuilder()
+                    .setProtocolVersion(CastMessage.ProtocolVersion.CASTV2_1_0)
+                    .setSourceId("receiver-0")
+                    .setDestinationId("sender-0")
+                    .setNamespace(NAMESPACE)
+                    .setPayloadType(CastMessage.PayloadType.STRING)
+                    .setPayloadUtf8(json)
+                    .build()
+                    .toByteArray();
+            byte[] payload = json.getBytes("UTF-8");
+            byte[] target = new byte[message.length * 2];
+            run(fixture, "generated decode", GENERATED_DECODE, message, payload, target);
+            run(fixture, "hand decode", HAND_WRITTEN_DECODE, message, payload, target);
+            run(fixture, "generated encode", GENERATED_ENCODE, message, payload, target);
+            run(fixture, "hand encode", HAND_WRITTEN_ENCODE, message, payload, target);
+        }
+    }
+
+    private static void run(String fixture, String name, Codec codec, byte[] message, byte[] payload,
+                            byte[] target) throws Exception {
+        for (int i = 0; i < WARMUP; i++) {
+            codec.run(message, payload, target);
+        }
+        long thread = Thread.currentThread().getId();
+        long allocatedBefore = THREADS.getThreadAllocatedBytes(thread);
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            codec.run(message, payload, target);
+        }
+        long elapsed = System.nanoTime() - start;
+        long allocated = THREADS.getThreadAllocatedBytes(thread) - allocatedBefore;
+        System.out.println(String.format("%-42s %-17s %8d  %9d", fixture, name,
+                elapsed / ITERATIONS, allocated / ITERATIONS));
+    }
+}
@@ -0,0 +1,144 @@
+/*
+ * Copyright 2026 Vitaly Litvak (vitavaque@gmail.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package su.litvak.chromecast.api.v2;
+
+import com.google.protobuf.ByteString;
+import com.google.protobuf.InvalidProtocolBufferException;
+import org.junit.Test;
+import su.litvak.chromecast.api.v2.CastChannel.CastMessage;
+
+import java.util.Arrays;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+public class CastFrameTest {
+    static final String NAMESPACE = "urn:x-cast:com.google.cast.media";
+
+    private static CastMessage.Builder message(String payload) {
+        return CastMessage.newBuilder()
+                .setProtocolVersion(CastMessage.ProtocolVersion.CASTV2_1_0)
+                .setSourceId("receiver-0")
+                .setDestinationId("sender-0")
+                .setNamespace(NAMESPACE)
+                .setPayloadType(CastMessage.PayloadType.STRING)
+                .setPayloadUtf8(payload);
+    }
+
+    /**
+     * Places message in the middle of bigger array, like frame in read buffer.
+     */
+    private static CastFrame decode(byte[] message) throws InvalidProtocolBufferException {
+        byte[] buffer = new byte[message.length + 20];
+        System.arraycopy(message, 0, buffer, 10, message.length);
+        return CastFrame.decode(buffer, 10, message.length);
+    }
+
+    @Test
+    public void testDecodesStringPayload() throws Exception {
+        StringBuilder big = new StringBuilder();
+        while (big.length() < 20000) {
+            big.append("Статус ");
+        }
+        for (String payload : new String[] {"", "{\"type\":\"PING\"}", big.toString()}) {
+            CastFrame frame = decode(message(payload).build().toByteArray());
+            assertEquals(CastFrame.CASTV2_1_0, frame.getProtocolVersion());
+            assertEquals("receiver-0", frame.getSourceId());
+            assertEquals("sender-0", frame.getDestinationId());
+            assertEquals(NAMESPACE, frame.getNamespace());
+            assertEquals(CastFrame.STRING, frame.getPayloadType());
+            assertEquals(payload, frame.getPayloadUtf8());
+        }
+    }
+
+    @Test
+    public void testDecodesBinaryPayload() throws Exception {
+        byte[] binary = {1, 2, 3, (byte) 0xFF};
+        byte[] message = message("")
+                .clearPayloadUtf8()
+                .setPayloadType(CastMessage.PayloadType.BINARY)
+                .setPayloadBinary(ByteString.copyFrom(binary))
+                .build()
+                .toByteArray();
+        CastFrame frame = decode(message);
+        assertEquals(CastFrame.BINARY, frame.getPayloadType());
+        assertArrayEquals(binary, Arrays.copyOfRange(frame.payloadArray(), frame.payloadOffset(),
+                frame.payloadOffset() + frame.payloadLength()));
+    }
+
+    @Test
+    public void testRecurringStringsAreShared() throws Exception {
+        byte[] message = message("{}").build().toByteArray();
+        CastFrame first = decode(message);
+        CastFrame second = decode(message);
+        assertSame(first.getNamespace(), second.getNamespace());
+        assertSame(first.getSourceId(), second.getSourceId());
+    }
+
+    @Test
+    public void testSkipsUnknownFields() throws Exception {
+        byte[] message = message("{}").build().toByteArray();
+        // field 20 of varint type, field 9 of length delimited type, field 10 of fixed32 type
+        byte[] unknown = {(byte) 0xA0, 0x01, (byte) 0x96, 0x01, 0x4A, 0x02, 'a', 'b', 0x55, 1, 2, 3, 4};
+        byte[] extended = Arrays.copyOf(message, message.length + unknown.length);
+        System.arraycopy(unknown, 0, extended, message.length, unknown.length);
+        CastFrame frame = decode(extended);
+        assertEquals(NAMESPACE, frame.getNamespace());
+        assertEquals("{}", frame.getPayloadUtf8());
+    }
+
+    @Test(expected = InvalidProtocolBufferException.class)
+    public void testRejectsMissingRequiredField() throws Exception {
+        decode(message("{}").clearNamespace().buildPartial().toByteArray());
+    }
+
+    @Test(expected = InvalidProtocolBufferException.class)
+    public void testRejectsTruncatedMessage() throws Exception {
+        byte[] message = message("{\"type\":\"PING\"}").build().toByteArray();
+        decode(Arrays.copyOf(message, message.length - 2));
+    }
+
+    @Test
+    public void testRetainedFrameOwnsPayload() throws Exception {
+        byte[] message = message("{}").build().toByteArray();
+        CastFrame frame = CastFrame.decode(message, 0, message.length).retain();
+        Arrays.fill(message, (byte) 0);
+        assertEquals("{}", frame.getPayloadUtf8());
+    }
+
+    @Test
+    public void testHeaderSameAsGeneratedCode() throws Exception {
+        // payload length takes 1, 2 and 3 bytes of varint
+        for (int size : new int[] {0, 1000, 100000}) {
+            char[] chars = new char[size];
+            Arrays.fill(chars, 'x');
+            String payload = new String(chars);
+            byte[] expected = message(payload).setSourceId("sender-0").setDestinationId("web-5").build()
+                    .toByteArray();
+
+            byte[] source = CastFrame.utf8("sender-0");
+            byte[] destination = CastFrame.utf8("web-5");
+            byte[] namespace = CastFrame.utf8(NAMESPACE);
+            int headerSize = CastFrame.headerSize(source, destination, namespace, size);
+            byte[] actual = new byte[headerSize + size];
+            int pos = CastFrame.writeHeader(actual, 0, source, destination, namespace, CastFrame.STRING, size);
+            assertEquals(headerSize, pos);
+            System.arraycopy(payload.getBytes("UTF-8"), 0, actual, pos, size);
+            assertArrayEquals(expected, actual);
+        }
+    }
+}
@@ -0,0 +1,248 @@
+/*
+ * Copyright 2026 Vitaly Litvak (vitavaque@gmail.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package su.litvak.chromecast.api.v2;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import su.litvak.chromecast.api.v2.CastChannel.CastMessage;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Many threads write to one device at once. Every frame must reach device intact and every response must match
+ * its request.
+ */
+public class ConcurrentWriteTest {
+    static final int THREADS = 16;
+    static final int REQUESTS_PER_THREAD = 50;
+
+    final Logger logger = LoggerFactory.getLogger(ConcurrentWriteTest.class);
+    MockedChromeCast chromeCastStub;
+    ChromeCast cast = new ChromeCast("localhost");
+    NioTransportGroup group;
+
+    static class Echo implements Request, Response {
+        Long requestId;
+        String value;
+
+        Echo() {
+        }
+
+        Echo(String value) {
+            this.value = value;
+        }
+
+        @Override
+        public Long getRequestId() {
+            return requestId;
+        }
+
+        @Override
+        public void setRequestId(Long requestId) {
+            this.requestId = requestId;
+        }
+
+        public String getValue() {
+            return value;
+        }
+
+        public void setValue(String value) {
+            this.value = value;
+        }
+    }
+
+    @Before
+    public void initMockedCast() throws Exception {
+        chromeCastStub = new MockedChromeCast();
+        chromeCastStub.customHandler = new MockedChromeCast.CustomHandler() {
+            @Override
+            public Response handle(JsonNode json) {
+                return new Echo(json.get("value").asText());
+            }
+        };
+    }
+
+    @Test
+    public void testBlockingTransport() throws Exception {
+        stress();
+    }
+
+    @Test
+    public void testNioTransport() throws Exception {
+        group = new NioTransportGroup(1);
+        cast.setTransportGroup(group);
+        stress();
+    }
+
+    @Test
+    public void testFrameFailingToEncodeFailsItsBatch() throws Exception {
+        final CountDownLatch writing = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        // lenient stream: writing nothing does not fail
+        final ByteArrayOutputStream out = new ByteArrayOutputStream() {
+            @Override
+            public void write(byte[] b, int off, int len) {
+                writing.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                super.write(b, off, len);
+            }
+        };
+        final FrameWriter writer = new FrameWriter(out);
+        ExecutorService writers = Executors.newFixedThreadPool(3);
+        try {
+            // the first writer holds the lock, so next frames are queued and written by one of their owners
+            Future<Void> first = writers.submit(write(writer, message("first")));
+            assertTrue(writing.await(5, TimeUnit.SECONDS));
+            Future<Void> valid = writers.submit(write(writer, message("valid")));
+            awaitQueued(writer, 1);
+            Future<Void> broken = writers.submit(write(writer, brokenMessage()));
+            awaitQueued(writer, 2);
+            release.countDown();
+
+            first.get();
+            assertFails(broken);
+            assertFails(valid);
+            assertEquals("Nothing of failed batch is written", frameSize(message("first")), out.size());
+
+            writers.submit(write(writer, message("next"))).get();
+            assertEquals(frameSize(message("first")) + frameSize(message("next")), out.size());
+        } finally {
+            writers.shutdownNow();
+        }
+    }
+
+    private static Callable<Void> write(final FrameWriter writer, final CastMessage message) {
+        return new Callable<Void>() {
+            @Override
+            public Void call() throws Exception {
+                writer.write(message);
+                return null;
+            }
+        };
+    }
+
+    private static CastMessage message(String payload) {
+        return CastMessage.newBuilder()
+                .setProtocolVersion(CastMessage.ProtocolVersion.CASTV2_1_0)
+                .setSourceId("sender-0")
+                .setDestinationId("receiver-0")
+                .setNamespace("urn:x-cast:com.example")
+                .setPayloadType(CastMessage.PayloadType.STRING)
+                .setPayloadUtf8(payload)
+                .build();
+    }
+
+    /**
+     * @return message, which reports wrong size, so it does not fit space reserved for it when it is encoded
+     */
+    private static CastMessage brokenMessage() throws Exception {
+        CastMessage message = message("broken");
+        Field size = CastMessage.class.getDeclaredField("memoizedSerializedSize");
+        size.setAccessible(true);
+        size.setInt(message, 1);
+        return message;
+    }
+
+    private static int frameSize(CastMessage message) {
+        return 4 + message.getSerializedSize();
+    }
+
+    private static void awaitQueued(FrameWriter writer, int size) {
+        while (writer.queued() < size) {
+            Thread.yield();
+        }
+    }
+
+    private static void assertFails(Future<Void> write) throws InterruptedException {
+        try {
+            write.get();
+            fail("Write of failed batch has succeeded");
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof IOException);
+        }
+    }
+
+    private void stress() throws Exception {
+        cast.connect();
+        cast.launchApp("abcd");
+
+        ExecutorService callers = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<Integer>> results = new ArrayList<Future<Integer>>();
+            long start = System.nanoTime();
+            for (int t = 0; t < THREADS; t++) {
+                final int thread = t;
+                results.add(callers.submit(new Callable<Integer>() {
+                    @Override
+                    public Integer call() throws Exception {
+                        StringBuilder padding = new StringBuilder();
+                        for (int i = 0; i < REQUESTS_PER_THREAD; i++) {
+                            // payloads of different sizes make torn frames visible
+                            padding.append(thread);
+                            String value = thread + "-" + i + "-" + padding;
+                            Echo echo = cast.send("urn:x-cast:com.example", new Echo(value), Echo.class);
+                            assertEquals(value, echo.value);
+                        }
+                        return REQUESTS_PER_THREAD;
+                    }
+                }));
+            }
+            int total = 0;
+            for (Future<Integer> result : results) {
+                total += result.get();
+            }
+            long elapsed = System.nanoTime() - start;
+            logger.info("{} messages in {} ms, {} messages/s", total, elapsed / 1000000,
+                    (long) (total / (elapsed / 1e9)));
+            assertEquals(THREADS * REQUESTS_PER_THREAD, total);
+        } finally {
+            callers.shutdown();
+        }
+        assertTrue(cast.isConnected());
+    }
+
+    @After
+    public void destroy() throws IOException {
+        cast.disconnect();
+        chromeCastStub.close();
+        if (group != null) {
+            group.close();
+        }
+    }
+}
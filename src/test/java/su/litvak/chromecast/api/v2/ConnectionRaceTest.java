@@ -0,0 +1,154 @@
+/*
+ * Copyright 2026 Vitaly Litvak (vitavaque@gmail.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package su.litvak.chromecast.api.v2;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class ConnectionRaceTest {
+    MockedChromeCast chromeCastStub;
+    /**
+     * Accepts connections, but never responds, like a stale address reused by another host.
+     */
+    ServerSocket blackHole;
+    final List<Socket> stalled = new CopyOnWriteArrayList<Socket>();
+    InetSocketAddress stale;
+    InetSocketAddress device = new InetSocketAddress("127.0.0.1", 8009);
+    Channel channel;
+    NioTransportGroup group;
+
+    @Before
+    public void initMockedCast() throws Exception {
+        chromeCastStub = new MockedChromeCast();
+        blackHole = new ServerSocket(0);
+        stale = new InetSocketAddress("127.0.0.1", blackHole.getLocalPort());
+        Thread acceptor = new Thread() {
+            @Override
+            public void run() {
+                try {
+                    while (true) {
+                        stalled.add(blackHole.accept());
+                    }
+                } catch (IOException ioex) {
+                    // closed
+                }
+            }
+        };
+        acceptor.setDaemon(true);
+        acceptor.start();
+    }
+
+    @Test
+    public void testStaleAddressLosesRace() throws Exception {
+        channel = new Channel(Arrays.asList(stale, device), null, SocketTransport.FACTORY);
+        long start = System.currentTimeMillis();
+        channel.open();
+        long elapsed = System.currentTimeMillis() - start;
+
+        assertEquals(device, channel.getAddress());
+        assertTrue("Connected in " + elapsed + " ms", elapsed < Transport.DEFAULT_CONNECT_TIMEOUT);
+        assertNotNull(channel.getStatus());
+    }
+
+    @Test
+    public void testWinnerIsTriedFirstOnReconnect() throws Exception {
+        channel = new Channel(Arrays.asList(stale, device), null, SocketTransport.FACTORY);
+        channel.open();
+        channel.close();
+        channel.open();
+
+        assertEquals(device, channel.getAddress());
+        assertEquals(1, stalled.size());
+    }
+
+    @Test
+    public void testRefusedAddressIsSkipped() throws Exception {
+        ServerSocket unused = new ServerSocket(0);
+        InetSocketAddress refused = new InetSocketAddress("127.0.0.1", unused.getLocalPort());
+        unused.close();
+
+        channel = new Channel(Arrays.asList(refused, stale, device), null, SocketTransport.FACTORY);
+        channel.open();
+        assertEquals(device, channel.getAddress());
+    }
+
+    @Test
+    public void testBlockingConnectTimeout() throws Exception {
+        assertConnectTimesOut(new ChromeCast("127.0.0.1", stale.getPort()));
+    }
+
+    @Test
+    public void testNioConnectTimeout() throws Exception {
+        group = new NioTransportGroup(1);
+        ChromeCast cast = new ChromeCast("127.0.0.1", stale.getPort());
+        cast.setTransportGroup(group);
+        assertConnectTimesOut(cast);
+    }
+
+    private void assertConnectTimesOut(ChromeCast cast) throws Exception {
+        cast.setConnectTimeout(300);
+        long start = System.currentTimeMillis();
+        try {
+            cast.connect();
+            fail("Exception expected");
+        } catch (SocketTimeoutException e) {
+            long elapsed = System.currentTimeMillis() - start;
+            assertTrue("Timed out in " + elapsed + " ms", elapsed >= 250 && elapsed < 2000);
+        }
+    }
+
+    @Test
+    public void testInterleave() throws Exception {
+        InetAddress v4a = InetAddress.getByName("192.168.1.2");
+        InetAddress v4b = InetAddress.getByName("10.0.0.2");
+        InetAddress v6a = InetAddress.getByName("fe80::1");
+        InetAddress v6b = InetAddress.getByName("fd00::2");
+
+        assertEquals(Arrays.asList(v4a, v6a, v4b, v6b), ConnectionRace.interleave(Arrays.asList(v4a, v4b, v6a, v6b)));
+        assertEquals(Arrays.asList(v6a, v4a, v6b), ConnectionRace.interleave(Arrays.asList(v6a, v6b, v4a)));
+    }
+
+    @After
+    public void destroy() throws IOException {
+        if (channel != null) {
+            channel.close();
+        }
+        chromeCastStub.close();
+        blackHole.close();
+        for (Socket socket : stalled) {
+            socket.close();
+        }
+        if (group != null) {
+            group.close();
+        }
+    }
+}
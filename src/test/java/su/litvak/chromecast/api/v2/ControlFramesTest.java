@@ -0,0 +1,96 @@
+/*
+ * Copyright 2026 Vitaly Litvak (vitavaque@gmail.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package su.litvak.chromecast.api.v2;
+
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class ControlFramesTest {
+    static final int WRITES = 100000;
+
+    final Logger logger = LoggerFactory.getLogger(ControlFramesTest.class);
+    final ControlFrames frames = new ControlFrames("sender-0", "receiver-0");
+
+    static final OutputStream DISCARD = new OutputStream() {
+        @Override
+        public void write(int b) {
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+        }
+    };
+
+    private static CastFrame decode(byte[] frame) throws IOException {
+        return new FrameReader(new ByteArrayInputStream(frame), Transport.DEFAULT_MAX_FRAME_SIZE).read();
+    }
+
+    @Test
+    public void testFramesDecode() throws Exception {
+        CastFrame ping = decode(frames.ping());
+        assertEquals("sender-0", ping.getSourceId());
+        assertEquals("receiver-0", ping.getDestinationId());
+        assertEquals("urn:x-cast:com.google.cast.tp.heartbeat", ping.getNamespace());
+        assertEquals("{\"type\":\"PING\"}", ping.getPayloadUtf8());
+
+        assertEquals("{\"type\":\"PONG\"}", decode(frames.pong()).getPayloadUtf8());
+
+        CastFrame connect = decode(frames.connect("web-5"));
+        assertEquals("web-5", connect.getDestinationId());
+        assertEquals("urn:x-cast:com.google.cast.tp.connection", connect.getNamespace());
+        assertEquals(ControlFrames.CONNECT_JSON, connect.getPayloadUtf8());
+    }
+
+    @Test
+    public void testConnectFramesAreCachedPerDestination() {
+        assertSame(frames.connect("receiver-0"), frames.connect("receiver-0"));
+        assertNotSame(frames.connect("receiver-0"), frames.connect("web-5"));
+    }
+
+    @Test
+    public void testHeartbeatDoesNotAllocate() throws Exception {
+        FrameWriter writer = new FrameWriter(DISCARD);
+        byte[] ping = frames.ping();
+        byte[] pong = frames.pong();
+        for (int i = 0; i < WRITES; i++) {
+            writer.write(ping, 0, ping.length);
+        }
+        long allocated = allocatedBytes();
+        for (int i = 0; i < WRITES; i++) {
+            writer.write(ping, 0, ping.length);
+            writer.write(pong, 0, pong.length);
+        }
+        allocated = allocatedBytes() - allocated;
+        logger.info("{} bytes allocated by {} heartbeat frames", allocated, WRITES * 2);
+        assertTrue("Allocated " + allocated + " bytes", allocated < WRITES);
+    }
+
+    private static long allocatedBytes() {
+        return ((com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean())
+                .getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+}
@@ -0,0 +1,120 @@
+/*
+ * Copyright 2026 Vitaly Litvak (vitavaque@gmail.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package su.litvak.chromecast.api.v2;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import su.litvak.chromecast.api.v2.ChromeCastSpontaneousEvent.SpontaneousEventType;
+
+import java.util.Collections;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+
+public class DeviceStateTest {
+    static final String PLAYING = "{\"mediaSessionId\":1,\"playerState\":\"PLAYING\",\"currentTime\":0,"
+            + "\"playbackRate\":1,\"supportedMediaCommands\":15}";
+
+    MockedChromeCast chromeCastStub;
+    ChromeCast cast = new ChromeCast("localhost");
+    final BlockingQueue<SpontaneousEventType> events = new LinkedBlockingQueue<SpontaneousEventType>();
+
+    @Before
+    public void init() throws Exception {
+        chromeCastStub = new MockedChromeCast();
+        chromeCastStub.mediaStatus = PLAYING;
+        cast.registerListener(new ChromeCastSpontaneousEventListener() {
+            @Override
+            public void spontaneousEventReceived(ChromeCastSpontaneousEvent event) {
+                events.add(event.getType());
+            }
+        });
+        cast.connect();
+        cast.launchApp("abcd");
+        cast.getMediaStatus();
+        chromeCastStub.receivedTypes.clear();
+    }
+
+    @After
+    public void destroy() throws Exception {
+        cast.disconnect();
+        chromeCastStub.close();
+    }
+
+    private int received(String type) {
+        return Collections.frequency(chromeCastStub.receivedTypes, type);
+    }
+
+    private void awaitEvent(SpontaneousEventType type) throws InterruptedException {
+        SpontaneousEventType received;
+        do {
+            received = events.poll(5, TimeUnit.SECONDS);
+            assertNotNull(received);
+        } while (received != type);
+    }
+
+    @Test
+    public void testCommandUsesKnownState() throws Exception {
+        cast.pause();
+        assertEquals(1, received("PAUSE"));
+        assertEquals(0, received("GET_STATUS"));
+    }
+
+    @Test
+    public void testStateIsUpdatedByEvents() throws Exception {
+        chromeCastStub.broadcast("", MockedChromeCast.MEDIA_NAMESPACE,
+                "{\"type\":\"MEDIA_STATUS\",\"requestId\":0,\"status\":[" + PLAYING.replace(":1,", ":7,") + "]}");
+        awaitEvent(SpontaneousEventType.MEDIA_STATUS);
+
+        cast.pause();
+        assertEquals(0, received("GET_STATUS"));
+        assertEquals(7, chromeCastStub.lastMediaRequest.get("mediaSessionId").asLong());
+    }
+
+    @Test
+    public void testStateIsForgottenOnClose() throws Exception {
+        chromeCastStub.broadcast("", "urn:x-cast:com.google.cast.tp.connection", "{\"type\":\"CLOSE\"}");
+        awaitEvent(SpontaneousEventType.CLOSE);
+
+        cast.pause();
+        assertEquals(2, received("GET_STATUS"));
+        assertEquals(1, received("PAUSE"));
+    }
+
+    @Test
+    public void testClosedSessionIsConnectedAgain() throws Exception {
+        cast.pause();
+        assertEquals(0, received("CONNECT"));
+        chromeCastStub.broadcast("", "urn:x-cast:com.google.cast.tp.connection", "{\"type\":\"CLOSE\"}");
+        awaitEvent(SpontaneousEventType.CLOSE);
+
+        cast.pause();
+        assertEquals(1, received("CONNECT"));
+        assertEquals(2, received("PAUSE"));
+    }
+
+    @Test
+    public void testStateCacheCanBeDisabled() throws Exception {
+        cast.setStateMaxAge(0);
+        cast.pause();
+        assertEquals(2, received("GET_STATUS"));
+        assertEquals(1, received("PAUSE"));
+    }
+}
@@ -0,0 +1,297 @@
+/*
+ * Copyright 2026 Vitaly Litvak (vitavaque@gmail.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package su.litvak.chromecast.api.v2;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import su.litvak.chromecast.api.v2.ChromeCastSpontaneousEvent.SpontaneousEventType;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+public class EventDispatchTest {
+    EventListenerHolder holder = new EventListenerHolder();
+    ExecutorService executor = Executors.newFixedThreadPool(2);
+
+    /**
+     * Listener, which is stuck in the first event until released.
+     */
+    final CountDownLatch slowEntered = new CountDownLatch(1);
+    final CountDownLatch slowReleased = new CountDownLatch(1);
+    final BlockingQueue<String> slowReceived = new LinkedBlockingQueue<String>();
+    /**
+     * Number of threads in slow listener, it must never be called concurrently.
+     */
+    final AtomicInteger slowCalls = new AtomicInteger();
+    volatile boolean slowOverlapped;
+    final ChromeCastSpontaneousEventListener slow = new ChromeCastSpontaneousEventListener() {
+        @Override
+        public void spontaneousEventReceived(ChromeCastSpontaneousEvent event) {
+            if (slowCalls.incrementAndGet() > 1) {
+                slowOverlapped = true;
+            }
+            slowEntered.countDown();
+            try {
+                slowReleased.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            slowReceived.add(event.getData(AppEvent.class).message);
+            slowCalls.decrementAndGet();
+        }
+    };
+
+    @Before
+    public void init() {
+        holder.registerListener(slow);
+    }
+
+    @After
+    public void destroy() {
+        slowReleased.countDown();
+        executor.shutdownNow();
+    }
+
+    private void deliver(String message) throws Exception {
+        holder.deliverAppEvent(new AppEvent("urn:x-cast:com.example.app", message));
+    }
+
+    /**
+     * Delivers first event and waits until slow listener is stuck in it.
+     */
+    private void blockSlowListener() throws Exception {
+        deliver("0");
+        assertTrue(slowEntered.await(5, TimeUnit.SECONDS));
+    }
+
+    private List<String> releaseSlowListener(int expected) throws InterruptedException {
+        slowReleased.countDown();
+        List<String> received = new ArrayList<String>();
+        for (int i = 0; i < expected; i++) {
+            String message = slowReceived.poll(5, TimeUnit.SECONDS);
+            assertNotNull(message);
+            received.add(message);
+        }
+        return received;
+    }
+
+    @Test
+    public void testSlowListenerDoesNotHoldUpOthers() throws Exception {
+        holder.setDispatch(executor, 100, EventOverflow.BLOCK);
+        final BlockingQueue<String> fastReceived = new LinkedBlockingQueue<String>();
+        holder.registerListener(new ChromeCastSpontaneousEventListener() {
+            @Override
+            public void spontaneousEventReceived(ChromeCastSpontaneousEvent event) {
+                fastReceived.add(event.getData(AppEvent.class).message);
+            }
+        });
+
+        blockSlowListener();
+        for (int i = 1; i < 10; i++) {
+            deliver(Integer.toString(i));
+        }
+        for (int i = 0; i < 10; i++) {
+            assertEquals(Integer.toString(i), fastReceived.poll(5, TimeUnit.SECONDS));
+        }
+        assertEquals(9, holder.stats(slow).getPending());
+
+        List<String> received = releaseSlowListener(10);
+        for (int i = 0; i < 10; i++) {
+            assertEquals(Integer.toString(i), received.get(i));
+        }
+        assertEquals(0, holder.stats(slow).getDropped());
+    }
+
+    @Test
+    public void testDropsOldestEvents() throws Exception {
+        holder.setDispatch(executor, 2, EventOverflow.DROP_OLDEST);
+        blockSlowListener();
+        for (int i = 1; i < 5; i++) {
+            deliver(Integer.toString(i));
+        }
+        assertEquals(2, holder.stats(slow).getDropped());
+        assertEquals(2, holder.stats(slow).getPending());
+
+        List<String> received = releaseSlowListener(3);
+        assertEquals("0", received.get(0));
+        assertEquals("3", received.get(1));
+        assertEquals("4", received.get(2));
+    }
+
+    @Test
+    public void testCoalescesEventsOfSameType() throws Exception {
+        holder.setDispatch(executor, 2, EventOverflow.COALESCE);
+        final BlockingQueue<SpontaneousEventType> received = new LinkedBlockingQueue<SpontaneousEventType>();
+        holder.unregisterListener(slow);
+        final CountDownLatch entered = new CountDownLatch(1);
+        final CountDownLatch released = new CountDownLatch(1);
+        holder.registerListener(new ChromeCastSpontaneousEventListener() {
+            @Override
+            public void spontaneousEventReceived(ChromeCastSpontaneousEvent event) {
+                entered.countDown();
+                try {
+                    released.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                received.add(event.getType());
+            }
+        });
+        StandardResponse.Close close = new StandardResponse.Close();
+        holder.deliverEvent(JacksonHelper.createJSONMapper().valueToTree(close));
+        // first event is being delivered, these three are queued
+        assertTrue(entered.await(5, TimeUnit.SECONDS));
+        holder.deliverAppEvent(new AppEvent("urn:x-cast:com.example.app", "a"));
+        holder.deliverEvent(JacksonHelper.createJSONMapper().valueToTree(close));
+        holder.deliverEvent(JacksonHelper.createJSONMapper().valueToTree(close));
+        released.countDown();
+
+        assertEquals(SpontaneousEventType.CLOSE, received.poll(5, TimeUnit.SECONDS));
+        assertEquals(SpontaneousEventType.APPEVENT, received.poll(5, TimeUnit.SECONDS));
+        assertEquals(SpontaneousEventType.CLOSE, received.poll(5, TimeUnit.SECONDS));
+        assertEquals(null, received.poll(200, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    public void testBlocksUntilListenerCatchesUp() throws Exception {
+        holder.setDispatch(executor, 1, EventOverflow.BLOCK);
+        blockSlowListener();
+        deliver("1");
+        Thread releaser = new Thread() {
+            @Override
+            public void run() {
+                try {
+                    Thread.sleep(200);
+                } catch (InterruptedException e) {
+                    return;
+                }
+                slowReleased.countDown();
+            }
+        };
+        releaser.start();
+        long start = System.nanoTime();
+        deliver("2");
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) >= 100);
+
+        List<String> received = releaseSlowListener(3);
+        assertEquals("2", received.get(2));
+        assertEquals(0, holder.stats(slow).getDropped());
+    }
+
+    @Test
+    public void testQueuedEventsAreDeliveredBeforeExecutorChange() throws Exception {
+        holder.setDispatch(executor, 100, EventOverflow.BLOCK);
+        blockSlowListener();
+        deliver("1");
+        deliver("2");
+        ExecutorService other = Executors.newSingleThreadExecutor();
+        try {
+            holder.setDispatch(other, 100, EventOverflow.BLOCK);
+            deliver("3");
+            deliver("4");
+            // new queue waits for the old one
+            assertEquals(2, holder.stats(slow).getPending());
+
+            List<String> received = releaseSlowListener(5);
+            for (int i = 0; i < 5; i++) {
+                assertEquals(Integer.toString(i), received.get(i));
+            }
+            assertFalse(slowOverlapped);
+        } finally {
+            other.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testQueuedEventsAreDeliveredBeforeDirectOnes() throws Exception {
+        holder.setDispatch(executor, 100, EventOverflow.BLOCK);
+        blockSlowListener();
+        deliver("1");
+        holder.setDispatch(null, 0, null);
+        // delivered by queue after the first one, not by this thread
+        deliver("2");
+
+        List<String> received = releaseSlowListener(3);
+        assertEquals("1", received.get(1));
+        assertEquals("2", received.get(2));
+        assertFalse(slowOverlapped);
+        // queue is done, events are delivered right away again
+        deliver("3");
+        assertEquals("3", slowReceived.poll());
+    }
+
+    private static ChromeCastSpontaneousEvent mediaStatus(long mediaSessionId, double currentTime)
+            throws Exception {
+        MediaStatus status = JacksonHelper.createJSONMapper().readValue("{\"mediaSessionId\":" + mediaSessionId
+                + ",\"playerState\":\"PLAYING\",\"currentTime\":" + currentTime + "}", MediaStatus.class);
+        return new ChromeCastSpontaneousEvent(SpontaneousEventType.MEDIA_STATUS, status);
+    }
+
+    @Test
+    public void testLatestStatusListenerGetsOnlyLatestStatuses() throws Exception {
+        final CountDownLatch entered = new CountDownLatch(1);
+        final CountDownLatch released = new CountDownLatch(1);
+        final BlockingQueue<ChromeCastSpontaneousEvent> received =
+                new LinkedBlockingQueue<ChromeCastSpontaneousEvent>();
+        ChromeCastSpontaneousEventListener latest = new ChromeCastSpontaneousEventListener() {
+            @Override
+            public void spontaneousEventReceived(ChromeCastSpontaneousEvent event) {
+                entered.countDown();
+                try {
+                    released.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                received.add(event);
+            }
+        };
+        holder.unregisterListener(slow);
+        holder.registerLatestStatusListener(latest, executor, 100);
+
+        holder.spontaneousEventReceived(mediaStatus(1, 0));
+        assertTrue(entered.await(5, TimeUnit.SECONDS));
+        for (int i = 1; i <= 50; i++) {
+            holder.spontaneousEventReceived(mediaStatus(1, i));
+            holder.spontaneousEventReceived(mediaStatus(2, i));
+        }
+        holder.deliverAppEvent(new AppEvent("urn:x-cast:com.example.app", "a"));
+        assertEquals(3, holder.stats(latest).getPending());
+        assertEquals(98, holder.stats(latest).getDropped());
+        released.countDown();
+
+        assertEquals(0, received.poll(5, TimeUnit.SECONDS).getData(MediaStatus.class).currentTime, 0);
+        MediaStatus first = received.poll(5, TimeUnit.SECONDS).getData(MediaStatus.class);
+        assertEquals(1, first.mediaSessionId);
+        assertEquals(50, first.currentTime, 0);
+        MediaStatus second = received.poll(5, TimeUnit.SECONDS).getData(MediaStatus.class);
+        assertEquals(2, second.mediaSessionId);
+        assertEquals(50, second.currentTime, 0);
+        assertEquals(SpontaneousEventType.APPEVENT, received.poll(5, TimeUnit.SECONDS).getType());
+    }
+}
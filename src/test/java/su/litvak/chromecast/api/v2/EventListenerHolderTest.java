@@ -24,10 +24,13 @@ import su.litvak.chromecast.api.v2.ChromeCastSpontaneousEvent.SpontaneousEventTy
 
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.EnumSet;
 import java.util.List;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
 
 public class EventListenerHolderTest {
     private final ObjectMapper jsonMapper = JacksonHelper.createJSONMapper();
@@ -223,4 +226,65 @@ public class EventListenerHolderTest {
         assertEquals(Media.StreamType.NONE, mediaStatus.media.streamType);
         assertEquals(MediaStatus.PlayerState.IDLE, mediaStatus.playerState);
     }
+
+    private static final class RecordingListener implements ChromeCastSpontaneousEventListener {
+        final List<ChromeCastSpontaneousEvent> events = new ArrayList<ChromeCastSpontaneousEvent>();
+
+        @Override
+        public void spontaneousEventReceived(ChromeCastSpontaneousEvent event) {
+            events.add(event);
+        }
+    }
+
+    @Test
+    public void itDeliversOnlySubscribedEventTypes() throws Exception {
+        EventListenerHolder holder = new EventListenerHolder();
+        RecordingListener listener = new RecordingListener();
+        holder.registerListener(listener, EnumSet.of(SpontaneousEventType.CLOSE));
+
+        holder.deliverEvent(jsonMapper.readTree(FixtureHelper.fixtureAsString("/mediaStatus-chromecast-audio.json")));
+        holder.deliverEvent(jsonMapper.readTree(FixtureHelper.fixtureAsString("/timetick.json")));
+        holder.deliverAppEvent(new AppEvent("urn:x-cast:com.example.app", "Sample message"));
+        holder.deliverEvent(jsonMapper.valueToTree(new StandardResponse.Close()));
+
+        assertEquals(1, listener.events.size());
+        assertEquals(SpontaneousEventType.CLOSE, listener.events.get(0).getType());
+        assertFalse(holder.wantsAppEvent("urn:x-cast:com.example.app"));
+    }
+
+    @Test
+    public void itRoutesAppEventsByNamespace() throws Exception {
+        EventListenerHolder holder = new EventListenerHolder();
+        RecordingListener first = new RecordingListener();
+        RecordingListener second = new RecordingListener();
+        holder.registerListener(first, EnumSet.of(SpontaneousEventType.APPEVENT), "urn:x-cast:com.example.first");
+        holder.registerListener(second, EnumSet.of(SpontaneousEventType.APPEVENT), "urn:x-cast:com.example.second");
+
+        assertTrue(holder.wantsAppEvent("urn:x-cast:com.example.first"));
+        assertFalse(holder.wantsAppEvent("urn:x-cast:com.example.other"));
+        holder.deliverAppEvent(new AppEvent("urn:x-cast:com.example.first", "1"));
+        holder.deliverAppEvent(new AppEvent("urn:x-cast:com.example.second", "2"));
+        holder.deliverAppEvent(new AppEvent("urn:x-cast:com.example.other", "3"));
+
+        assertEquals(1, first.events.size());
+        assertEquals("1", first.events.get(0).getData(AppEvent.class).message);
+        assertEquals(1, second.events.size());
+        assertEquals("2", second.events.get(0).getData(AppEvent.class).message);
+
+        holder.unregisterListener(first);
+        assertFalse(holder.wantsAppEvent("urn:x-cast:com.example.first"));
+    }
+
+    @Test
+    public void itDeliversEverythingToUnfilteredListener() throws Exception {
+        RecordingListener filtered = new RecordingListener();
+        underTest.registerListener(filtered, EnumSet.of(SpontaneousEventType.STATUS));
+
+        underTest.deliverAppEvent(new AppEvent("urn:x-cast:com.example.app", "Sample message"));
+        underTest.deliverEvent(jsonMapper.valueToTree(new StandardResponse.Close()));
+
+        assertEquals(2, emittedEvents.size());
+        assertEquals(0, filtered.events.size());
+        assertTrue(underTest.wantsAppEvent("urn:x-cast:com.example.other"));
+    }
 }
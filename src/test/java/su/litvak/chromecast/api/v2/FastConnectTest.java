@@ -0,0 +1,98 @@
+/*
+ * Copyright 2026 Vitaly Litvak (vitavaque@gmail.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package su.litvak.chromecast.api.v2;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Measures time to first status (connect and get status) with simulated network round trip.
+ */
+public class FastConnectTest {
+    static final long LATENCY = 300;
+
+    final Logger logger = LoggerFactory.getLogger(FastConnectTest.class);
+    MockedChromeCast chromeCastStub;
+    ChromeCast cast = new ChromeCast("localhost");
+
+    @Before
+    public void initMockedCast() throws Exception {
+        chromeCastStub = new MockedChromeCast();
+        // warm up, so following connections resume TLS session
+        cast.connect();
+        cast.disconnect();
+        chromeCastStub.latency = LATENCY;
+    }
+
+    private long timeToFirstStatus() throws Exception {
+        long start = System.nanoTime();
+        cast.connect();
+        Status status = cast.getStatus();
+        long elapsed = (System.nanoTime() - start) / 1000000;
+        assertNotNull(status);
+        cast.disconnect();
+        return elapsed;
+    }
+
+    @Test
+    public void testTimeToFirstStatus() throws Exception {
+        long serial = timeToFirstStatus();
+        cast.setFastConnect(true);
+        long fast = timeToFirstStatus();
+        logger.info("Time to first status with {} ms round trip: serial {} ms, fast connect {} ms", LATENCY, serial,
+                fast);
+
+        assertTrue(serial >= 2 * LATENCY);
+        assertTrue(fast >= LATENCY);
+        assertTrue(fast < 2 * LATENCY);
+    }
+
+    @Test
+    public void testInitialStatusIsUsedOnce() throws Exception {
+        cast.setFastConnect(true);
+        cast.connect();
+        cast.getStatus();
+        // second status is requested from device
+        long start = System.nanoTime();
+        assertNotNull(cast.getStatus());
+        assertTrue((System.nanoTime() - start) / 1000000 >= LATENCY);
+    }
+
+    @Test
+    public void testFastConnectLaunch() throws Exception {
+        cast.setFastConnect(true);
+        cast.connect();
+        assertNotNull(cast.launchApp("abcd"));
+        // status received while connecting is outdated now
+        assertTrue(cast.isAppRunning("abcd"));
+    }
+
+    @After
+    public void destroy() throws IOException {
+        if (cast.isConnected()) {
+            cast.disconnect();
+        }
+        chromeCastStub.close();
+    }
+}
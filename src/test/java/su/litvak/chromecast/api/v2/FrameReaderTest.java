@@ -0,0 +1,116 @@
+/*
+ * Copyright 2026 Vitaly Litvak (vitavaque@gmail.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package su.litvak.chromecast.api.v2;
+
+import org.junit.Test;
+import su.litvak.chromecast.api.v2.CastChannel.CastMessage;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+public class FrameReaderTest {
+    static CastMessage message(String payload) {
+        return CastMessage.newBuilder()
+                .setProtocolVersion(CastMessage.ProtocolVersion.CASTV2_1_0)
+                .setSourceId("sender-0")
+                .setDestinationId("receiver-0")
+                .setNamespace("urn:x-cast:com.example")
+                .setPayloadType(CastMessage.PayloadType.STRING)
+                .setPayloadUtf8(payload)
+                .build();
+    }
+
+    static byte[] frames(CastMessage... messages) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        for (CastMessage message : messages) {
+            out.write(Util.toArray(message.getSerializedSize()));
+            message.writeTo(out);
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * Returns at most one byte per read, like a slow network.
+     */
+    static InputStream trickle(byte[] data) {
+        return new FilterInputStream(new ByteArrayInputStream(data)) {
+            @Override
+            public int read(byte[] b, int off, int len) throws IOException {
+                return super.read(b, off, Math.min(len, 1));
+            }
+        };
+    }
+
+    @Test
+    public void testReadsConsecutiveFrames() throws IOException {
+        StringBuilder big = new StringBuilder();
+        for (int i = 0; i < 5000; i++) {
+            big.append("status ");
+        }
+        FrameReader reader = new FrameReader(new ByteArrayInputStream(frames(message("first"),
+                message(big.toString()), message("last"))), Transport.DEFAULT_MAX_FRAME_SIZE);
+        assertEquals("first", reader.read().getPayloadUtf8());
+        assertEquals(big.toString(), reader.read().getPayloadUtf8());
+        assertEquals("last", reader.read().getPayloadUtf8());
+    }
+
+    @Test
+    public void testReadsFragmentedFrames() throws IOException {
+        FrameReader reader = new FrameReader(trickle(frames(message("one"), message("two"))),
+                Transport.DEFAULT_MAX_FRAME_SIZE);
+        assertEquals("one", reader.read().getPayloadUtf8());
+        assertEquals("two", reader.read().getPayloadUtf8());
+    }
+
+    @Test
+    public void testRejectsOversizedFrame() throws IOException {
+        byte[] data = frames(message("payload which does not fit"));
+        FrameReader reader = new FrameReader(new ByteArrayInputStream(data), data.length - 5);
+        try {
+            reader.read();
+            fail("Exception expected");
+        } catch (ChromeCastException e) {
+            assertEquals("Invalid frame size " + (data.length - 4) + ", maximum is " + (data.length - 5),
+                    e.getMessage());
+        }
+    }
+
+    @Test
+    public void testRejectsNegativeFrameSize() throws IOException {
+        FrameReader reader = new FrameReader(new ByteArrayInputStream(new byte[] {(byte) 0xFF, 0, 0, 0}),
+                Transport.DEFAULT_MAX_FRAME_SIZE);
+        try {
+            reader.read();
+            fail("Exception expected");
+        } catch (ChromeCastException e) {
+            assertEquals("Invalid frame size -16777216, maximum is 65536", e.getMessage());
+        }
+    }
+
+    @Test(expected = ChromeCastException.class)
+    public void testTruncatedFrame() throws IOException {
+        byte[] data = frames(message("truncated"));
+        byte[] truncated = new byte[data.length - 3];
+        System.arraycopy(data, 0, truncated, 0, truncated.length);
+        new FrameReader(new ByteArrayInputStream(truncated), Transport.DEFAULT_MAX_FRAME_SIZE).read();
+    }
+}
@@ -0,0 +1,189 @@
+/*
+ * Copyright 2026 Vitaly Litvak (vitavaque@gmail.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package su.litvak.chromecast.api.v2;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import su.litvak.chromecast.api.v2.CastChannel.CastMessage;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.security.GeneralSecurityException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class HeartbeatTest {
+    static final long LIVENESS_TIMEOUT = 600;
+
+    MockedChromeCast chromeCastStub;
+    ChromeCast cast = new ChromeCast("localhost");
+    final CountDownLatch disconnected = new CountDownLatch(1);
+
+    /**
+     * Transport, which writes nothing once it is wedged, like socket of a peer which stopped reading.
+     */
+    static class WedgedTransport implements Transport {
+        final Transport delegate = SocketTransport.FACTORY.create();
+        final CountDownLatch blocked = new CountDownLatch(1);
+        final CountDownLatch released = new CountDownLatch(1);
+        volatile boolean wedged;
+
+        private void awaitRelease() throws IOException {
+            if (wedged) {
+                blocked.countDown();
+                try {
+                    released.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IOException("Interrupted while writing");
+                }
+            }
+        }
+
+        @Override
+        public void setMaxFrameSize(int maxFrameSize) {
+            delegate.setMaxFrameSize(maxFrameSize);
+        }
+
+        @Override
+        public void setConnectTimeout(int connectTimeout) {
+            delegate.setConnectTimeout(connectTimeout);
+        }
+
+        @Override
+        public void connect(InetSocketAddress address) throws IOException, GeneralSecurityException {
+            delegate.connect(address);
+        }
+
+        @Override
+        public long getHandshakeTime() {
+            return delegate.getHandshakeTime();
+        }
+
+        @Override
+        public boolean isSessionResumed() {
+            return delegate.isSessionResumed();
+        }
+
+        @Override
+        public CastFrame read() throws IOException {
+            return delegate.read();
+        }
+
+        @Override
+        public void start(Listener listener) {
+            delegate.start(listener);
+        }
+
+        @Override
+        public void write(CastMessage message) throws IOException {
+            awaitRelease();
+            delegate.write(message);
+        }
+
+        @Override
+        public void writeFrame(byte[] frame) throws IOException {
+            awaitRelease();
+            delegate.writeFrame(frame);
+        }
+
+        @Override
+        public void writeFrame(byte[] buffer, int offset, int length) throws IOException {
+            awaitRelease();
+            delegate.writeFrame(buffer, offset, length);
+        }
+
+        @Override
+        public boolean isClosed() {
+            return delegate.isClosed();
+        }
+
+        @Override
+        public void close() throws IOException {
+            delegate.close();
+        }
+    }
+
+    @Before
+    public void initMockedCast() throws Exception {
+        chromeCastStub = new MockedChromeCast();
+        cast.setLivenessTimeout(LIVENESS_TIMEOUT);
+        cast.registerConnectionListener(new ChromeCastConnectionEventListener() {
+            @Override
+            public void connectionEventReceived(ChromeCastConnectionEvent event) {
+                if (!event.isConnected()) {
+                    disconnected.countDown();
+                }
+            }
+        });
+        cast.connect();
+    }
+
+    @Test
+    public void testIdleConnectionIsKeptAlive() throws Exception {
+        assertFalse(disconnected.await(LIVENESS_TIMEOUT * 3, TimeUnit.MILLISECONDS));
+        assertTrue(cast.isConnected());
+    }
+
+    @Test
+    public void testDeadPeerIsDetected() throws Exception {
+        chromeCastStub.silent = true;
+        long start = System.currentTimeMillis();
+        assertTrue(disconnected.await(LIVENESS_TIMEOUT * 3, TimeUnit.MILLISECONDS));
+        assertTrue(System.currentTimeMillis() - start >= LIVENESS_TIMEOUT / 2);
+        assertFalse(cast.isConnected());
+    }
+
+    @Test
+    public void testWedgedDeviceDoesNotHoldUpOthers() throws Exception {
+        final WedgedTransport transport = new WedgedTransport();
+        Channel other = new Channel("localhost", 8009, new EventListenerHolder(), new Transport.Factory() {
+            @Override
+            public Transport create() {
+                return transport;
+            }
+        });
+        other.setLivenessTimeout(LIVENESS_TIMEOUT);
+        other.open();
+        try {
+            transport.wedged = true;
+            chromeCastStub.silent = true;
+            // ping of the other device gets stuck first, dead peer of this one is still detected
+            assertTrue(transport.blocked.await(LIVENESS_TIMEOUT * 3, TimeUnit.MILLISECONDS));
+            assertTrue(disconnected.await(LIVENESS_TIMEOUT * 3, TimeUnit.MILLISECONDS));
+            assertFalse(cast.isConnected());
+        } finally {
+            transport.released.countDown();
+            try {
+                other.close();
+            } catch (ChromeCastException e) {
+                // device of the other channel is silent too, so its heartbeat may have closed it already
+            }
+        }
+    }
+
+    @After
+    public void destroy() throws IOException {
+        if (cast.isConnected()) {
+            cast.disconnect();
+        }
+        chromeCastStub.close();
+    }
+}
@@ -0,0 +1,120 @@
+/*
+ * Copyright 2026 Vitaly Litvak (vitavaque@gmail.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package su.litvak.chromecast.api.v2;
+
+import org.junit.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class InFlightRequestsTest {
+    final InFlightRequests<String> requests = new InFlightRequests<String>();
+
+    @Test
+    public void testPutAndRemove() {
+        requests.put(1, "one", 100);
+        requests.put(2, "two", 200);
+        assertEquals(2, requests.size());
+        assertNull(requests.remove(3));
+        assertEquals("two", requests.remove(2));
+        assertNull(requests.remove(2));
+        assertEquals("one", requests.remove(1));
+        assertTrue(requests.isEmpty());
+    }
+
+    @Test
+    public void testIdsOfSameSlotAreKeptApart() {
+        // the first request is never answered, while thousands of later ones are
+        requests.put(1, "stuck", 0);
+        for (long id = 2; id < 5000; id++) {
+            requests.put(id, "request " + id, id);
+            assertEquals("request " + id, requests.remove(id));
+        }
+        requests.put(65, "65", 0);
+        requests.put(129, "129", 0);
+        assertEquals(3, requests.size());
+        assertEquals("stuck", requests.remove(1));
+        assertEquals("129", requests.remove(129));
+        assertEquals("65", requests.remove(65));
+    }
+
+    @Test
+    public void testStuckRequestsDoNotGrowTable() {
+        int capacity = requests.capacity();
+        requests.put(1, "stuck", 1);
+        requests.put(2, "also stuck", 2);
+        // later requests keep 10 in flight, their ids wrap onto slots of the stuck ones many times
+        for (long id = 3; id < 10L * capacity * 20; id++) {
+            requests.put(id, "request " + id, id);
+            if (id >= 13) {
+                assertEquals("request " + (id - 10), requests.remove(id - 10));
+            }
+            assertEquals(capacity, requests.capacity());
+        }
+        assertEquals(12, requests.size());
+        assertEquals(1000 - 1, requests.oldestAge(1000));
+        assertEquals("stuck", requests.remove(1));
+        assertEquals(1000 - 2, requests.oldestAge(1000));
+        assertEquals("also stuck", requests.remove(2));
+        long newest = 10L * capacity * 20 - 1;
+        assertEquals(1000 - (newest - 9), requests.oldestAge(1000));
+        assertEquals(10, requests.removeAll().size());
+    }
+
+    @Test
+    public void testGrowsWithRequestsInFlight() {
+        for (long id = 1; id <= 1000; id++) {
+            requests.put(id, "request " + id, id);
+        }
+        assertTrue(requests.capacity() >= 1000);
+        for (long id = 1; id <= 1000; id++) {
+            assertEquals("request " + id, requests.remove(id));
+        }
+        assertTrue(requests.isEmpty());
+    }
+
+    @Test
+    public void testOldestAge() {
+        assertEquals(0, requests.oldestAge(1000));
+        requests.put(5, "five", 500);
+        requests.put(7, "seven", 700);
+        // registered out of order by concurrent senders
+        requests.put(6, "six", 600);
+        assertEquals(500, requests.oldestAge(1000));
+        requests.remove(5);
+        assertEquals(400, requests.oldestAge(1000));
+        requests.remove(7);
+        assertEquals(400, requests.oldestAge(1000));
+        requests.remove(6);
+        assertEquals(0, requests.oldestAge(1000));
+    }
+
+    @Test
+    public void testRemoveAll() {
+        for (long id = 1; id <= 100; id++) {
+            requests.put(id, "request " + id, id);
+        }
+        Set<String> removed = new HashSet<String>(requests.removeAll());
+        assertEquals(100, removed.size());
+        assertTrue(removed.contains("request 100"));
+        assertTrue(requests.isEmpty());
+        assertEquals(0, requests.oldestAge(1000));
+    }
+}
@@ -0,0 +1,112 @@
+/*
+ * Copyright 2026 Vitaly Litvak (vitavaque@gmail.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package su.litvak.chromecast.api.v2;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import su.litvak.chromecast.api.v2.CastChannel.CastMessage;
+
+import java.lang.management.ManagementFactory;
+
+/**
+ * <p>Compares decoding of inbound responses: payload decoded to string, type renamed by regex, parsed to tree for
+ * routing and parsed again for binding (as it was done before) against single streaming pass over payload bytes
+ * by {@link JsonPayload}. Reports time and heap allocated per message for every fixture.</p>
+ *
+ * <p>Run with <code>mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=su.litvak.chromecast.api.v2.InboundDecodeBenchmark</code>.</p>
+ */
+public final class InboundDecodeBenchmark {
+    private static final String[] FIXTURES = {
+        "/status-backdrop-1.28.json",
+        "/status-chrome-mirroring-1.28.json",
+        "/status-spotify.json",
+        "/mediaStatus-single.json",
+        "/mediaStatus-chromecast-audio.json",
+        "/mediaStatus-with-videoinfo.json",
+        "/mediaStatus-audio-with-extraStatus.json"
+    };
+    private static final int WARMUP = 20000;
+    private static final int ITERATIONS = 50000;
+
+    private static final ObjectMapper MAPPER = JacksonHelper.createJSONMapper();
+    private static final com.sun.management.ThreadMXBean THREADS =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    private InboundDecodeBenchmark() {
+    }
+
+    private interface Decoder {
+        Object decode(CastMessage message) throws Exception;
+    }
+
+    private static final Decoder STRING_TREE = new Decoder() {
+        @Override
+        public Object decode(CastMessage message) throws Exception {
+            String json = message.getPayloadUtf8().replaceFirst("\"type\"", "\"responseType\"");
+            JsonNode parsed = MAPPER.readTree(json);
+            if (!parsed.has("responseType")) {
+                throw new IllegalStateException();
+            }
+            return MAPPER.readValue(json, StandardResponse.class);
+        }
+    };
+
+    private static final Decoder STREAMING = new Decoder() {
+        @Override
+        public Object decode(CastMessage message) throws Exception {
+            JsonPayload payload = JsonPayload.parse(message.getPayloadUtf8Bytes().newInput());
+            if (!payload.hasType()) {
+                throw new IllegalStateException();
+            }
+            return payload.bind(StandardResponse.class);
+        }
+    };
+
+    public static void main(String[] args) throws Exception {
+        System.out.println("fixture                                    decoder       ns/msg  bytes/msg");
+        for (String fixture : FIXTURES) {
+            byte[] frame = CastMessage.newBuilder()
+                    .setProtocolVersion(CastMessage.ProtocolVersion.CASTV2_1_0)
+                    .setSourceId("receiver-0")
+                    .setDestinationId("sender-0")
+                    .setNamespace("urn:x-cast:com.google.cast.receiver")
+                    .setPayloadType(CastMessage.PayloadType.STRING)
+                    .setPayloadUtf8(FixtureHelper.fixtureAsString(fixture))
+                    .build()
+                    .toByteArray();
+            run(fixture, "string+tree", STRING_TREE, frame);
+            run(fixture, "streaming", STREAMING, frame);
+        }
+    }
+
+    private static void run(String fixture, String name, Decoder decoder, byte[] frame) throws Exception {
+        for (int i = 0; i < WARMUP; i++) {
+            // every message is parsed anew, as payload string is cached by message once decoded
+            decoder.decode(CastMessage.parseFrom(frame));
+        }
+        long thread = Thread.currentThread().getId();
+        long allocatedBefore = THREADS.getThreadAllocatedBytes(thread);
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            decoder.decode(CastMessage.parseFrom(frame));
+        }
+        long elapsed = System.nanoTime() - start;
+        long allocated = THREADS.getThreadAllocatedBytes(thread) - allocatedBefore;
+        System.out.println(String.format("%-42s %-12s %7d  %9d", fixture, name,
+                elapsed / ITERATIONS, allocated / ITERATIONS));
+    }
+}
@@ -0,0 +1,86 @@
+/*
+ * Copyright 2026 Vitaly Litvak (vitavaque@gmail.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package su.litvak.chromecast.api.v2;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import su.litvak.chromecast.api.v2.ChromeCastSpontaneousEvent.SpontaneousEventType;
+
+import java.io.IOException;
+import java.security.GeneralSecurityException;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+
+public class InboundRoutingTest {
+    static final String APP_NAMESPACE = "urn:x-cast:com.example.app";
+
+    MockedChromeCast chromeCastStub;
+    ChromeCast cast = new ChromeCast("localhost");
+    final BlockingQueue<ChromeCastSpontaneousEvent> events = new LinkedBlockingQueue<ChromeCastSpontaneousEvent>();
+
+    @Before
+    public void init() throws IOException, GeneralSecurityException {
+        chromeCastStub = new MockedChromeCast();
+        cast.registerListener(new ChromeCastSpontaneousEventListener() {
+            @Override
+            public void spontaneousEventReceived(ChromeCastSpontaneousEvent event) {
+                // skip answers to heartbeat
+                if (event.getType() != SpontaneousEventType.UNKNOWN) {
+                    events.add(event);
+                }
+            }
+        });
+        cast.connect();
+    }
+
+    @After
+    public void destroy() throws IOException {
+        cast.disconnect();
+        chromeCastStub.close();
+    }
+
+    private ChromeCastSpontaneousEvent next() throws InterruptedException {
+        ChromeCastSpontaneousEvent event = events.poll(5, TimeUnit.SECONDS);
+        assertNotNull(event);
+        return event;
+    }
+
+    @Test
+    public void testMessageOfAppNamespaceIsAppEvent() throws Exception {
+        // looks like standard response, but nothing was requested in this namespace
+        String json = "{\"type\":\"CLOSE\",\"requestId\":5}";
+        chromeCastStub.broadcast(APP_NAMESPACE, json);
+        ChromeCastSpontaneousEvent event = next();
+        assertEquals(SpontaneousEventType.APPEVENT, event.getType());
+        assertEquals(APP_NAMESPACE, event.getData(AppEvent.class).namespace);
+        assertEquals(json, event.getData(AppEvent.class).message);
+    }
+
+    @Test
+    public void testStandardTypesOfCastNamespace() throws Exception {
+        chromeCastStub.broadcast("urn:x-cast:com.google.cast.media", "{\"type\":\"PONG\"}");
+        chromeCastStub.broadcast("urn:x-cast:com.google.cast.media", "{\"type\":\"CLOSE\"}");
+        assertEquals(SpontaneousEventType.CLOSE, next().getType());
+
+        chromeCastStub.broadcast("urn:x-cast:com.google.cast.media", "{\"type\":\"CUSTOM\"}");
+        assertEquals(SpontaneousEventType.APPEVENT, next().getType());
+    }
+}
@@ -0,0 +1,47 @@
+/*
+ * Copyright 2026 Vitaly Litvak (vitavaque@gmail.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package su.litvak.chromecast.api.v2;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+public class JsonCodecsTest {
+    final ObjectMapper jsonMapper = JacksonHelper.createJSONMapper();
+
+    @Test
+    public void testCodecsAreShared() {
+        ChromeCast.warmUp();
+        assertSame(JsonCodecs.reader(StandardResponse.class), JsonCodecs.reader(StandardResponse.class));
+        assertSame(JsonCodecs.reader(MediaStatus.class), JsonCodecs.reader(MediaStatus.class));
+        assertSame(JsonCodecs.writer(StandardRequest.Launch.class), JsonCodecs.writer(StandardRequest.Launch.class));
+        // custom response classes are cached on first use
+        assertSame(JsonCodecs.reader(ConcurrentWriteTest.Echo.class),
+                JsonCodecs.reader(ConcurrentWriteTest.Echo.class));
+    }
+
+    @Test
+    public void testWriterMatchesMapper() throws Exception {
+        StandardRequest launch = StandardRequest.launch("abcd");
+        launch.setRequestId(42L);
+        assertEquals(jsonMapper.writeValueAsString(launch),
+                JsonCodecs.writer(launch.getClass()).writeValueAsString(launch));
+        StandardMessage ping = StandardMessage.ping();
+        assertEquals("{\"type\":\"PING\"}", JsonCodecs.writer(ping.getClass()).writeValueAsString(ping));
+    }
+}
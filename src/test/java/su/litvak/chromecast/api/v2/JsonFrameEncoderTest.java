@@ -0,0 +1,101 @@
+/*
+ * Copyright 2026 Vitaly Litvak (vitavaque@gmail.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package su.litvak.chromecast.api.v2;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.Test;
+import su.litvak.chromecast.api.v2.CastChannel.CastMessage;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class JsonFrameEncoderTest {
+    static final String NAMESPACE = "urn:x-cast:com.google.cast.media";
+
+    final ObjectMapper jsonMapper = JacksonHelper.createJSONMapper();
+
+    /**
+     * Encodes frame the way it was done before: JSON string set to generated message builder.
+     */
+    private byte[] expected(Message message) throws Exception {
+        CastMessage msg = CastMessage.newBuilder()
+                .setProtocolVersion(CastMessage.ProtocolVersion.CASTV2_1_0)
+                .setSourceId("sender-0")
+                .setDestinationId("web-5")
+                .setNamespace(NAMESPACE)
+                .setPayloadType(CastMessage.PayloadType.STRING)
+                .setPayloadUtf8(jsonMapper.writeValueAsString(message))
+                .build();
+        byte[] frame = new byte[4 + msg.getSerializedSize()];
+        FrameWriter.encode(msg, msg.getSerializedSize(), frame, 0);
+        return frame;
+    }
+
+    private byte[] encoded(JsonFrameEncoder encoder, Message message) throws Exception {
+        encoder.encode("sender-0", "web-5", NAMESPACE, message);
+        return Arrays.copyOfRange(encoder.array(), encoder.offset(), encoder.offset() + encoder.length());
+    }
+
+    private static StandardRequest load(int metadataSize) {
+        Map<String, Object> metadata = new HashMap<String, Object>();
+        StringBuilder title = new StringBuilder();
+        while (title.length() < metadataSize) {
+            title.append("Заголовок ");
+        }
+        metadata.put("title", title.toString());
+        Map<String, String> customData = new HashMap<String, String>();
+        customData.put("token", "abc");
+        return StandardRequest.load("session-1", new Media("http://example.com/a.mp3", "audio/mp3", 10.0,
+                Media.StreamType.BUFFERED, null, metadata, null, null), true, 0, customData);
+    }
+
+    @Test
+    public void testSameBytesAsGeneratedCode() throws Exception {
+        JsonFrameEncoder encoder = new JsonFrameEncoder();
+        // payload length takes 1, 2 and 3 bytes of varint
+        for (int size : new int[] {0, 1000, 100000}) {
+            StandardRequest load = load(size);
+            load.setRequestId(7L);
+            assertArrayEquals(expected(load), encoded(encoder, load));
+            encoder.release();
+        }
+        StandardMessage ping = StandardMessage.ping();
+        assertArrayEquals(expected(ping), encoded(encoder, ping));
+        assertEquals("{\"type\":\"PING\"}", encoder.payload());
+    }
+
+    @Test
+    public void testBufferIsReused() throws Exception {
+        JsonFrameEncoder encoder = new JsonFrameEncoder();
+        encoder.encode("sender-0", "web-5", NAMESPACE, load(100));
+        byte[] buffer = encoder.array();
+        encoder.release();
+        encoder.encode("sender-0", "web-5", NAMESPACE, load(200));
+        assertSame(buffer, encoder.array());
+        encoder.release();
+
+        encoder.encode("sender-0", "web-5", NAMESPACE, load(1000000));
+        assertTrue(encoder.array().length > 1000000);
+        encoder.release();
+        assertTrue(encoder.array().length < 1000000);
+    }
+}
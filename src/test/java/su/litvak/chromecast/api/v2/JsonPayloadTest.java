@@ -0,0 +1,88 @@
+/*
+ * Copyright 2026 Vitaly Litvak (vitavaque@gmail.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package su.litvak.chromecast.api.v2;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class JsonPayloadTest {
+    private JsonPayload parse(String json) throws IOException {
+        return JsonPayload.parse(new ByteArrayInputStream(json.getBytes("UTF-8")));
+    }
+
+    @Test
+    public void testRequestIdAfterType() throws Exception {
+        JsonPayload payload = parse(FixtureHelper.fixtureAsString("/status-spotify.json"));
+
+        assertTrue(payload.hasRequestId());
+        assertEquals(1, payload.getRequestId());
+        assertTrue(payload.hasType());
+        assertEquals("RECEIVER_STATUS", payload.getType());
+
+        StandardResponse response = payload.bind(StandardResponse.class);
+        assertTrue(response instanceof StandardResponse.Status);
+        assertEquals(Long.valueOf(1), response.getRequestId());
+        assertEquals("Spotify", ((StandardResponse.Status) response).status.getRunningApp().name);
+    }
+
+    @Test
+    public void testBindsSeveralTimes() throws Exception {
+        JsonPayload payload = parse(FixtureHelper.fixtureAsString("/mediaStatus-single.json"));
+
+        assertFalse(payload.hasRequestId());
+        assertEquals("MEDIA_STATUS", payload.getType());
+        assertTrue(payload.has("media"));
+        assertNull(payload.bind(StandardResponse.MediaStatus.class).statuses);
+        MediaStatus status = payload.bind(MediaStatus.class);
+        assertNotNull(status.media);
+        assertEquals(MediaStatus.PlayerState.IDLE, status.playerState);
+    }
+
+    @Test
+    public void testRenamesTopLevelTypeOnly() throws Exception {
+        JsonPayload payload = parse("{\"data\":{\"type\":\"nested\"},\"type\":\"CUSTOM\"}");
+
+        assertEquals("CUSTOM", payload.getType());
+        assertTrue(payload.has("responseType"));
+        assertFalse(payload.has("type"));
+        JsonNode tree = payload.tree();
+        assertEquals("CUSTOM", tree.get("responseType").asText());
+        assertEquals("nested", tree.get("data").get("type").asText());
+    }
+
+    @Test
+    public void testNonObjectPayload() throws Exception {
+        JsonPayload payload = parse("[1, 2]");
+
+        assertFalse(payload.hasType());
+        assertFalse(payload.hasRequestId());
+        assertEquals(2, payload.tree().size());
+    }
+
+    @Test
+    public void testEmptyPayload() throws Exception {
+        assertNull(parse(""));
+    }
+}
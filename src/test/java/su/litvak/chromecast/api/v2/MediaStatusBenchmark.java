@@ -0,0 +1,121 @@
+/*
+ * Copyright 2026 Vitaly Litvak (vitavaque@gmail.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package su.litvak.chromecast.api.v2;
+
+import java.lang.management.ManagementFactory;
+
+/**
+ * <p>Compares eager binding of media statuses against projected binding (see {@link MediaStatusProjection}), when
+ * consumer reads only player state and time position, and when it reads media and items too. Every message is parsed
+ * and bound, as projection skips parts while parsing. Reports time and heap allocated per message for every
+ * fixture.</p>
+ *
+ * <p>Statuses are also tracked for delta listeners (see {@link MediaStatusTracker}). Tracker gets the same message
+ * over and over, as during playback, when status is sent repeatedly with mostly the same media and items.</p>
+ *
+ * <p>Run with <code>mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=su.litvak.chromecast.api.v2.MediaStatusBenchmark</code>.</p>
+ */
+public final class MediaStatusBenchmark {
+    private static final String[] FIXTURES = {
+        "/mediaStatus-chromecast-audio.json",
+        "/mediaStatus-pandora.json",
+        "/mediaStatus-with-videoinfo.json",
+        "/mediaStatus-audio-with-extraStatus.json"
+    };
+    private static final int WARMUP = 20000;
+    private static final int ITERATIONS = 50000;
+
+    private static final com.sun.management.ThreadMXBean THREADS =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    private MediaStatusBenchmark() {
+    }
+
+    private interface Consumer {
+        Object consume(MediaStatus status);
+    }
+
+    private static final Consumer PLAYBACK = new Consumer() {
+        @Override
+        public Object consume(MediaStatus status) {
+            return status.playerState.ordinal() + status.currentTime;
+        }
+    };
+
+    private static final Consumer EVERYTHING = new Consumer() {
+        @Override
+        public Object consume(MediaStatus status) {
+            return status.getMedia() == null ? status.getItems() : status.getMedia().metadata;
+        }
+    };
+
+    public static void main(String[] args) throws Exception {
+        // every combination is compiled before any of them is measured, so the first one is not penalized
+        for (String fixture : FIXTURES) {
+            byte[] json = FixtureHelper.fixtureAsString(fixture).getBytes("UTF-8");
+            MediaStatusTracker tracker = new MediaStatusTracker();
+            for (int i = 0; i < WARMUP; i++) {
+                decode(json, false, null, PLAYBACK);
+                decode(json, true, null, PLAYBACK);
+                decode(json, false, null, EVERYTHING);
+                decode(json, true, null, EVERYTHING);
+                decode(json, false, tracker, EVERYTHING);
+                decode(json, true, tracker, EVERYTHING);
+            }
+        }
+        System.out.println("fixture                                    binding      reads       ns/msg  bytes/msg");
+        for (String fixture : FIXTURES) {
+            byte[] json = FixtureHelper.fixtureAsString(fixture).getBytes("UTF-8");
+            run(fixture, "eager", "playback", PLAYBACK, json, false, false);
+            run(fixture, "projected", "playback", PLAYBACK, json, true, false);
+            run(fixture, "eager", "everything", EVERYTHING, json, false, false);
+            run(fixture, "projected", "everything", EVERYTHING, json, true, false);
+            run(fixture, "eager+delta", "everything", EVERYTHING, json, false, true);
+            run(fixture, "proj.+delta", "everything", EVERYTHING, json, true, true);
+        }
+    }
+
+    /**
+     * @param tracker tracker of statuses for delta listeners, <code>null</code> if there are none
+     */
+    private static Object decode(byte[] json, boolean projected, MediaStatusTracker tracker, Consumer consumer)
+            throws Exception {
+        // same as channel does, short payloads are not projected
+        boolean lazy = projected && json.length >= MediaStatusProjection.MIN_PAYLOAD_LENGTH;
+        JsonPayload payload = JsonPayload.parse(json, 0, json.length, lazy || tracker != null, lazy);
+        if (tracker != null) {
+            return consumer.consume(tracker.update(payload).get(0).getStatus());
+        }
+        MediaStatus[] statuses = payload.bind(StandardResponse.MediaStatus.class).statuses;
+        return consumer.consume(statuses[0]);
+    }
+
+    private static void run(String fixture, String binding, String reads, Consumer consumer, byte[] json,
+                            boolean projected, boolean tracked) throws Exception {
+        MediaStatusTracker tracker = tracked ? new MediaStatusTracker() : null;
+        long thread = Thread.currentThread().getId();
+        long allocatedBefore = THREADS.getThreadAllocatedBytes(thread);
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            decode(json, projected, tracker, consumer);
+        }
+        long elapsed = System.nanoTime() - start;
+        long allocated = THREADS.getThreadAllocatedBytes(thread) - allocatedBefore;
+        System.out.println(String.format("%-42s %-12s %-10s %7d  %9d", fixture, binding, reads,
+                elapsed / ITERATIONS, allocated / ITERATIONS));
+    }
+}
@@ -0,0 +1,152 @@
+/*
+ * Copyright 2026 Vitaly Litvak (vitavaque@gmail.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package su.litvak.chromecast.api.v2;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.junit.Before;
+import org.junit.Test;
+import su.litvak.chromecast.api.v2.ChromeCastSpontaneousEvent.SpontaneousEventType;
+import su.litvak.chromecast.api.v2.MediaStatusDelta.Field;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+public class MediaStatusDeltaTest {
+    final ObjectMapper jsonMapper = JacksonHelper.createJSONMapper();
+    final EventListenerHolder holder = new EventListenerHolder();
+    final List<MediaStatusDelta> deltas = new ArrayList<MediaStatusDelta>();
+    final List<MediaStatus> statuses = new ArrayList<MediaStatus>();
+    ObjectNode message;
+
+    @Before
+    public void init() throws Exception {
+        message = (ObjectNode) jsonMapper.readTree(FixtureHelper.fixtureAsString("/mediaStatus-chromecast-audio.json"));
+        holder.registerListener(new ChromeCastSpontaneousEventListener() {
+            @Override
+            public void spontaneousEventReceived(ChromeCastSpontaneousEvent event) {
+                if (event.getType() == SpontaneousEventType.MEDIA_STATUS_DELTA) {
+                    deltas.add(event.getData(MediaStatusDelta.class));
+                } else {
+                    statuses.add(event.getData(MediaStatus.class));
+                }
+            }
+        }, EnumSet.of(SpontaneousEventType.MEDIA_STATUS, SpontaneousEventType.MEDIA_STATUS_DELTA));
+    }
+
+    private ObjectNode status() {
+        return (ObjectNode) message.get("status").get(0);
+    }
+
+    @Test
+    public void testFirstStatusChangesEverything() throws Exception {
+        holder.deliverEvent(message);
+
+        assertEquals(1, deltas.size());
+        assertNull(deltas.get(0).getPrevious());
+        assertEquals(EnumSet.allOf(Field.class), deltas.get(0).getChanged());
+        assertSame(statuses.get(0), deltas.get(0).getStatus());
+        assertEquals(15, statuses.get(0).supportedMediaCommands);
+    }
+
+    @Test
+    public void testReportsChangedFieldsAndReusesUnchangedObjects() throws Exception {
+        holder.deliverEvent(message);
+        status().put("currentTime", 42.5);
+        status().put("playerState", "PAUSED");
+        holder.deliverEvent(message);
+
+        MediaStatusDelta delta = deltas.get(1);
+        assertEquals(EnumSet.of(Field.CURRENT_TIME, Field.PLAYER_STATE), delta.getChanged());
+        assertSame(deltas.get(0).getStatus(), delta.getPrevious());
+        assertEquals(42.5, delta.getStatus().currentTime, 0);
+        assertEquals(MediaStatus.PlayerState.PAUSED, delta.getStatus().playerState);
+        assertSame(delta.getPrevious().media, delta.getStatus().media);
+        assertSame(delta.getPrevious().items, delta.getStatus().items);
+        assertSame(delta.getStatus(), statuses.get(1));
+    }
+
+    @Test
+    public void testRebindsOnlyChangedItems() throws Exception {
+        holder.deliverEvent(message);
+        ((ObjectNode) status().get("items").get(0)).put("autoplay", false);
+        holder.deliverEvent(message);
+
+        MediaStatusDelta delta = deltas.get(1);
+        assertEquals(EnumSet.of(Field.ITEMS), delta.getChanged());
+        assertNotSame(delta.getPrevious().items.get(0), delta.getStatus().items.get(0));
+        for (int i = 1; i < delta.getStatus().items.size(); i++) {
+            assertSame(delta.getPrevious().items.get(i), delta.getStatus().items.get(i));
+        }
+    }
+
+    @Test
+    public void testUnchangedPartsAreNotParsedWhenProjected() throws Exception {
+        holder.deliverEvent(projected(message));
+        status().put("currentTime", 42.5);
+        holder.deliverEvent(projected(message));
+
+        MediaStatusDelta delta = deltas.get(1);
+        assertEquals(EnumSet.of(Field.CURRENT_TIME), delta.getChanged());
+        assertSame(delta.getStatus(), statuses.get(1));
+        // parts of the second message are compared as text, the first status gives its parts still not decoded
+        assertSame(delta.getPrevious().mediaPart(), delta.getStatus().mediaPart());
+        assertSame(delta.getPrevious().itemsPart(), delta.getStatus().itemsPart());
+        assertFalse(delta.getStatus().mediaPart().isDecoded());
+        assertFalse(delta.getStatus().itemsPart().isDecoded());
+        assertNull(delta.getStatus().media);
+        assertEquals("audio/mpeg", delta.getStatus().getMedia().contentType);
+    }
+
+    private static JsonPayload projected(ObjectNode json) throws Exception {
+        byte[] bytes = JsonCodecs.mapper().writeValueAsBytes(json);
+        return JsonPayload.parse(bytes, 0, bytes.length, true, true);
+    }
+
+    @Test
+    public void testSessionIsForgottenOnClose() throws Exception {
+        holder.deliverEvent(message);
+        holder.deliverEvent(jsonMapper.valueToTree(new StandardResponse.Close()));
+        holder.deliverEvent(message);
+
+        assertNull(deltas.get(1).getPrevious());
+        assertEquals(EnumSet.allOf(Field.class), deltas.get(1).getChanged());
+    }
+
+    @Test
+    public void testStatusesAreNotTrackedWithoutDeltaListeners() throws Exception {
+        final List<MediaStatus> plain = new ArrayList<MediaStatus>();
+        EventListenerHolder plainHolder = new EventListenerHolder();
+        plainHolder.registerListener(new ChromeCastSpontaneousEventListener() {
+            @Override
+            public void spontaneousEventReceived(ChromeCastSpontaneousEvent event) {
+                plain.add(event.getData(MediaStatus.class));
+            }
+        });
+        plainHolder.deliverEvent(message);
+        plainHolder.deliverEvent(message);
+
+        assertEquals(2, plain.size());
+        assertNotSame(plain.get(0).media, plain.get(1).media);
+    }
+}
@@ -0,0 +1,178 @@
+/*
+ * Copyright 2026 Vitaly Litvak (vitavaque@gmail.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package su.litvak.chromecast.api.v2;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import org.junit.Test;
+import su.litvak.chromecast.api.v2.ChromeCastSpontaneousEvent.SpontaneousEventType;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+public class MediaStatusProjectionTest {
+    private static JsonPayload payload(String fixture, boolean projected) throws Exception {
+        return parse(FixtureHelper.fixtureAsString(fixture), projected);
+    }
+
+    private static JsonPayload parse(String json, boolean projected) throws Exception {
+        byte[] bytes = ("  " + json + "  ").getBytes("UTF-8");
+        return JsonPayload.parse(bytes, 1, bytes.length - 2, projected, projected);
+    }
+
+    private static MediaStatus bind(String fixture, boolean projected) throws Exception {
+        return payload(fixture, projected).bind(StandardResponse.MediaStatus.class).statuses[0];
+    }
+
+    @Test
+    public void testProjectedStatusBindsHeavyPartsOnDemand() throws Exception {
+        MediaStatus eager = bind("/mediaStatus-chromecast-audio.json", false);
+        MediaStatus projected = bind("/mediaStatus-chromecast-audio.json", true);
+
+        assertNull(projected.media);
+        assertNull(projected.items);
+        assertEquals(eager.playerState, projected.playerState);
+        assertEquals(eager.currentTime, projected.currentTime, 0);
+        assertEquals(eager.supportedMediaCommands, projected.supportedMediaCommands);
+
+        assertNotNull(projected.getMedia());
+        assertSame(projected.getMedia(), projected.getMedia());
+        assertEquals(eager.media, projected.getMedia());
+        assertEquals(eager.media.metadata, projected.getMedia().metadata);
+        assertEquals(eager.items, projected.getItems());
+        assertEquals(eager.toString(), projected.toString());
+    }
+
+    @Test
+    public void testProjectedCustomData() throws Exception {
+        MediaStatus eager = bind("/mediaStatus-pandora.json", false);
+        MediaStatus projected = bind("/mediaStatus-pandora.json", true);
+
+        assertNull(projected.customData);
+        assertEquals(eager.getCustomData(), projected.getCustomData());
+        assertEquals(eager.media.customData, projected.getMedia().customData);
+    }
+
+    @Test
+    public void testFindsPartsOfEveryStatus() throws Exception {
+        String json = "{\"type\":\"MEDIA_STATUS\",\"status\":["
+                + "{\"mediaSessionId\":1,\"media\":{\"contentId\":\"first\"},\"playerState\":\"PLAYING\"},"
+                + "{\"mediaSessionId\":2,\"playerState\":\"PAUSED\",\"media\":{\"contentId\":\"second\"}}]}";
+        StandardResponse response = parse(json, true).bind(StandardResponse.class);
+        MediaStatus[] statuses = ((StandardResponse.MediaStatus) response).statuses;
+
+        assertEquals("second", statuses[1].getMedia().url);
+        assertEquals("first", statuses[0].getMedia().url);
+        assertEquals(MediaStatus.PlayerState.PAUSED, statuses[1].playerState);
+    }
+
+    @Test
+    public void testPartsAreKeptForOtherClasses() throws Exception {
+        JsonPayload eager = payload("/mediaStatus-pandora.json", false);
+        JsonPayload projected = payload("/mediaStatus-pandora.json", true);
+
+        assertEquals(eager.tree(), projected.tree());
+        assertEquals(eager.tree(), projected.bind(JsonNode.class));
+    }
+
+    @Test
+    public void testUndecodablePartIsNull() throws Exception {
+        String json = "{\"type\":\"MEDIA_STATUS\",\"status\":["
+                + "{\"mediaSessionId\":1,\"items\":[1],\"playerState\":\"PLAYING\"}]}";
+        MediaStatus status = parse(json, true).bind(StandardResponse.MediaStatus.class).statuses[0];
+
+        assertEquals(MediaStatus.PlayerState.PLAYING, status.playerState);
+        assertNull(status.getItems());
+        assertNull(status.getItems());
+    }
+
+    @Test
+    public void testNullPartIsNotSkipped() throws Exception {
+        String json = "{\"type\":\"MEDIA_STATUS\",\"status\":["
+                + "{\"mediaSessionId\":1,\"media\":null,\"items\":[{\"itemId\":1}]}]}";
+        MediaStatus status = parse(json, true).bind(StandardResponse.MediaStatus.class).statuses[0];
+
+        assertNull(status.getMedia());
+        assertNull(status.items);
+        assertEquals(1, status.getItems().size());
+    }
+
+    @Test
+    public void testProjectsSingleStatus() throws Exception {
+        MediaStatus eager = payload("/mediaStatus-single.json", false).bind(MediaStatus.class);
+        MediaStatus projected = payload("/mediaStatus-single.json", true).bind(MediaStatus.class);
+
+        assertNull(projected.media);
+        assertEquals(eager.media, projected.getMedia());
+        assertEquals(eager.media.streamType, projected.getMedia().streamType);
+    }
+
+    @Test
+    public void testEagerStatusGettersReturnFields() throws Exception {
+        MediaStatus eager = bind("/mediaStatus-chromecast-audio.json", false);
+        assertSame(eager.media, eager.getMedia());
+        assertSame(eager.items, eager.getItems());
+    }
+
+    @Test
+    public void testProjectedEventsShareUnchangedParts() throws Exception {
+        final List<MediaStatus> statuses = new ArrayList<MediaStatus>();
+        final List<MediaStatusDelta> deltas = new ArrayList<MediaStatusDelta>();
+        EventListenerHolder holder = new EventListenerHolder();
+        holder.registerListener(new ChromeCastSpontaneousEventListener() {
+            @Override
+            public void spontaneousEventReceived(ChromeCastSpontaneousEvent event) {
+                if (event.getType() == SpontaneousEventType.MEDIA_STATUS) {
+                    statuses.add(event.getData(MediaStatus.class));
+                } else {
+                    deltas.add(event.getData(MediaStatusDelta.class));
+                }
+            }
+        }, EnumSet.of(SpontaneousEventType.MEDIA_STATUS, SpontaneousEventType.MEDIA_STATUS_DELTA));
+
+        holder.deliverEvent(payload("/mediaStatus-chromecast-audio.json", true));
+        holder.deliverEvent(payload("/mediaStatus-chromecast-audio.json", true));
+
+        assertEquals(2, statuses.size());
+        assertNull(statuses.get(1).media);
+        assertSame(statuses.get(0).getMedia(), statuses.get(1).getMedia());
+        assertSame(statuses.get(0).getItems(), statuses.get(1).getItems());
+        assertEquals(0, deltas.get(1).getChanged().size());
+    }
+
+    @Test
+    public void testProjectedEventsWithoutDeltaListeners() throws Exception {
+        final List<MediaStatus> statuses = new ArrayList<MediaStatus>();
+        EventListenerHolder holder = new EventListenerHolder();
+        holder.registerListener(new ChromeCastSpontaneousEventListener() {
+            @Override
+            public void spontaneousEventReceived(ChromeCastSpontaneousEvent event) {
+                statuses.add(event.getData(MediaStatus.class));
+            }
+        }, EnumSet.of(SpontaneousEventType.MEDIA_STATUS));
+
+        holder.deliverEvent(payload("/mediaStatus-audio-with-extraStatus.json", true));
+
+        assertEquals(1, statuses.size());
+        assertNull(statuses.get(0).media);
+        assertEquals(bind("/mediaStatus-audio-with-extraStatus.json", false).media, statuses.get(0).getMedia());
+    }
+}
@@ -38,23 +38,58 @@ import java.security.SecureRandom;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 
 import static su.litvak.chromecast.api.v2.Util.fromArray;
 import static su.litvak.chromecast.api.v2.Util.toArray;
 
 final class MockedChromeCast {
+    static final String MEDIA_NAMESPACE = "urn:x-cast:com.google.cast.media";
+
     final Logger logger = LoggerFactory.getLogger(MockedChromeCast.class);
 
     final ServerSocket socket;
-    final ClientThread clientThread;
+    final AcceptThread acceptThread;
+    final List<Socket> clientSockets = new CopyOnWriteArrayList<Socket>();
+    final List<ClientThread> clients = new CopyOnWriteArrayList<ClientThread>();
     List<Application> runningApplications = new ArrayList<Application>();
     CustomHandler customHandler;
+    /**
+     * Simulates device, which is gone without closing connection - messages are read but never answered.
+     */
+    volatile boolean silent;
+    /**
+     * Counted down for every message ignored because of {@link #silent}, if set.
+     */
+    volatile CountDownLatch ignored;
+    /**
+     * Simulates network round trip - every response is sent this many milliseconds after request was received.
+     * Requests are still read and handled immediately, so pipelined requests are answered concurrently.
+     */
+    volatile long latency;
+    /**
+     * Types of standard messages received, in order of arrival.
+     */
+    final List<String> receivedTypes = new CopyOnWriteArrayList<String>();
+    /**
+     * Status of media, which is sent in response to every request in media namespace, none if <code>null</code>.
+     */
+    volatile String mediaStatus;
+    volatile JsonNode lastMediaRequest;
 
     interface CustomHandler {
         Response handle(JsonNode json);
     }
 
     MockedChromeCast() throws IOException, GeneralSecurityException {
+        this(8009);
+    }
+
+    MockedChromeCast(int port) throws IOException, GeneralSecurityException {
         SSLContext sc = SSLContext.getInstance("SSL");
         KeyStore keyStore = KeyStore.getInstance("JKS");
         keyStore.load(getClass().getResourceAsStream("/keystore.jks"), "changeit".toCharArray());
@@ -63,38 +98,66 @@ final class MockedChromeCast {
         keyManagerFactory.init(keyStore, "changeit".toCharArray());
 
         sc.init(keyManagerFactory.getKeyManagers(), new TrustManager[] {new X509TrustAllManager()}, new SecureRandom());
-        socket = sc.getServerSocketFactory().createServerSocket(8009);
+        socket = sc.getServerSocketFactory().createServerSocket(port, 1024);
 
-        clientThread = new ClientThread();
-        clientThread.start();
+        acceptThread = new AcceptThread();
+        acceptThread.start();
     }
 
-    class ClientThread extends Thread {
+    class AcceptThread extends Thread {
         volatile boolean stop;
-        Socket clientSocket;
-        ObjectMapper jsonMapper = JacksonHelper.createJSONMapper();
 
         @Override
         public void run() {
             try {
-                clientSocket = socket.accept();
                 while (!stop) {
+                    new ClientThread(socket.accept()).start();
+                }
+            } catch (IOException ioex) {
+                logger.debug("Stopped accepting clients: {}", ioex.toString());
+            }
+        }
+    }
+
+    class ClientThread extends Thread {
+        final Socket clientSocket;
+        ObjectMapper jsonMapper = JacksonHelper.createJSONMapper();
+        final ScheduledExecutorService delayedWriter = Executors.newSingleThreadScheduledExecutor();
+
+        ClientThread(Socket clientSocket) {
+            this.clientSocket = clientSocket;
+            clientSockets.add(clientSocket);
+            clients.add(this);
+        }
+
+        @Override
+        public void run() {
+            try {
+                while (!acceptThread.stop) {
                     handle(read(clientSocket));
                 }
             } catch (IOException ioex) {
                 logger.warn("Error while handling: {}", ioex.toString());
             } finally {
-                if (clientSocket != null) {
-                    try {
-                        clientSocket.close();
-                    } catch (IOException ioex) {
-                        ioex.printStackTrace();
-                    }
+                clientSockets.remove(clientSocket);
+                clients.remove(this);
+                delayedWriter.shutdownNow();
+                try {
+                    clientSocket.close();
+                } catch (IOException ioex) {
+                    ioex.printStackTrace();
                 }
             }
         }
 
         void handle(CastMessage message) throws IOException {
+            if (silent) {
+                CountDownLatch latch = ignored;
+                if (latch != null) {
+                    latch.countDown();
+                }
+                return;
+            }
             logger.info("Received message: ");
             logger.info("   sourceId: " + message.getSourceId());
             logger.info("   destinationId: " + message.getDestinationId());
@@ -123,6 +186,23 @@ final class MockedChromeCast {
             } else {
                 JsonNode json = jsonMapper.readTree(message.getPayloadUtf8());
                 Response response = null;
+                if (json.has("type")) {
+                    receivedTypes.add(json.get("type").asText());
+                }
+                if (MEDIA_NAMESPACE.equals(message.getNamespace()) && mediaStatus != null) {
+                    lastMediaRequest = json;
+                    String payload = "{\"type\":\"MEDIA_STATUS\",\"requestId\":" + json.get("requestId").asLong()
+                            + ",\"status\":[" + mediaStatus + "]}";
+                    write(clientSocket, CastMessage.newBuilder()
+                            .setProtocolVersion(message.getProtocolVersion())
+                            .setSourceId(message.getDestinationId())
+                            .setDestinationId(message.getSourceId())
+                            .setNamespace(message.getNamespace())
+                            .setPayloadType(CastMessage.PayloadType.STRING)
+                            .setPayloadUtf8(payload)
+                            .build());
+                    return;
+                }
                 if (json.has("type")) {
                     StandardMessage standardMessage = jsonMapper.readValue(message.getPayloadUtf8(),
                             StandardMessage.class);
@@ -217,14 +297,64 @@ final class MockedChromeCast {
             return CastMessage.parseFrom(buf);
         }
 
-        void write(Socket mySocket, CastMessage message) throws IOException {
+        void write(final Socket mySocket, final CastMessage message) throws IOException {
+            if (latency <= 0) {
+                writeNow(mySocket, message);
+                return;
+            }
+            delayedWriter.schedule(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        writeNow(mySocket, message);
+                    } catch (IOException ioex) {
+                        logger.warn("Error while writing: {}", ioex.toString());
+                    }
+                }
+            }, latency, TimeUnit.MILLISECONDS);
+        }
+
+        synchronized void writeNow(Socket mySocket, CastMessage message) throws IOException {
             mySocket.getOutputStream().write(toArray(message.getSerializedSize()));
             message.writeTo(mySocket.getOutputStream());
         }
     }
 
+    /**
+     * Sends message, which is not a response to any request, to all connected clients.
+     */
+    void broadcast(String namespace, String payload) throws IOException {
+        broadcast("receiver-0", namespace, payload);
+    }
+
+    /**
+     * Sends message from specified sender (e.g. running application), which is not a response to any request, to
+     * all connected clients.
+     */
+    void broadcast(String sourceId, String namespace, String payload) throws IOException {
+        for (ClientThread client : clients) {
+            client.write(client.clientSocket, CastMessage.newBuilder()
+                    .setProtocolVersion(CastMessage.ProtocolVersion.CASTV2_1_0)
+                    .setSourceId(sourceId)
+                    .setDestinationId("*")
+                    .setNamespace(namespace)
+                    .setPayloadType(CastMessage.PayloadType.STRING)
+                    .setPayloadUtf8(payload)
+                    .build());
+        }
+    }
+
     void close() throws IOException {
-        clientThread.stop = true;
+        acceptThread.stop = true;
         this.socket.close();
+        for (Socket clientSocket : clientSockets) {
+            clientSocket.close();
+        }
+        // listening socket is released only when accepting thread leaves accept()
+        try {
+            acceptThread.join(1000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
     }
 }
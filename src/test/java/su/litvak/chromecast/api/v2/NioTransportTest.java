@@ -0,0 +1,133 @@
+/*
+ * Copyright 2026 Vitaly Litvak (vitavaque@gmail.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package su.litvak.chromecast.api.v2;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+public class NioTransportTest {
+    MockedChromeCast chromeCastStub;
+    NioTransportGroup group;
+    ChromeCast cast = new ChromeCast("localhost");
+
+    @Before
+    public void initMockedCast() throws Exception {
+        chromeCastStub = new MockedChromeCast();
+        group = new NioTransportGroup(1);
+        cast.setTransportGroup(group);
+    }
+
+    @Test
+    public void testStatusAndLaunch() throws Exception {
+        cast.connect();
+        assertTrue(cast.isConnected());
+        Status status = cast.getStatus();
+        assertNotNull(status);
+        assertTrue(status.applications.isEmpty());
+
+        Application app = cast.launchApp("abcd");
+        assertNotNull(app);
+        assertEquals("abcd", app.id);
+        assertTrue(cast.isAppRunning("abcd"));
+    }
+
+    @Test
+    public void testRemoteClose() throws Exception {
+        cast.connect();
+        chromeCastStub.close();
+        int retry = 0;
+        while (cast.isConnected() && retry++ < 25) {
+            Thread.sleep(50);
+        }
+        assertFalse("ChromeCast wasn't properly disconnected", cast.isConnected());
+    }
+
+    @Test(expected = IOException.class)
+    public void testConnectionRefused() throws Exception {
+        chromeCastStub.close();
+        cast.connect();
+    }
+
+    /**
+     * Records received payloads and close causes of a transport, fails on each received message if asked.
+     */
+    static class RecordingListener implements Transport.Listener {
+        final BlockingQueue<String> received = new LinkedBlockingQueue<String>();
+        final BlockingQueue<IOException> closed = new LinkedBlockingQueue<IOException>();
+        final boolean failing;
+
+        RecordingListener(boolean failing) {
+            this.failing = failing;
+        }
+
+        @Override
+        public void messageReceived(CastFrame frame) {
+            if (failing) {
+                throw new IllegalStateException("Broken listener");
+            }
+            received.add(frame.getPayloadUtf8());
+        }
+
+        @Override
+        public void transportClosed(IOException cause) {
+            closed.add(cause);
+        }
+    }
+
+    @Test
+    public void testErrorClosesOnlyItsTransport() throws Exception {
+        Transport broken = group.factory().create();
+        Transport healthy = group.factory().create();
+        broken.connect(new InetSocketAddress("localhost", 8009));
+        healthy.connect(new InetSocketAddress("localhost", 8009));
+        RecordingListener brokenListener = new RecordingListener(true);
+        RecordingListener healthyListener = new RecordingListener(false);
+        broken.start(brokenListener);
+        healthy.start(healthyListener);
+
+        chromeCastStub.broadcast("urn:x-cast:com.example.app", "first");
+        assertNotNull(brokenListener.closed.poll(5, TimeUnit.SECONDS));
+        assertTrue(broken.isClosed());
+        assertEquals("first", healthyListener.received.poll(5, TimeUnit.SECONDS));
+
+        // selector thread is still alive and serves the other connection
+        chromeCastStub.broadcast("urn:x-cast:com.example.app", "second");
+        assertEquals("second", healthyListener.received.poll(5, TimeUnit.SECONDS));
+        assertFalse(healthy.isClosed());
+        healthy.close();
+    }
+
+    @After
+    public void shutdown() throws IOException {
+        if (cast.isConnected()) {
+            cast.disconnect();
+        }
+        chromeCastStub.close();
+        group.close();
+    }
+}
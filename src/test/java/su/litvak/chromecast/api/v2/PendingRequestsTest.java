@@ -0,0 +1,247 @@
+/*
+ * Copyright 2026 Vitaly Litvak (vitavaque@gmail.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package su.litvak.chromecast.api.v2;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Requests in flight must fail as soon as connection is lost instead of waiting for request timeout (30 seconds).
+ */
+public class PendingRequestsTest {
+    static final int REQUESTS = 10;
+    /**
+     * Time to wait for requests to fail, much shorter than request timeout.
+     */
+    static final long FAILURE_TIMEOUT = 5000;
+
+    MockedChromeCast chromeCastStub;
+    ChromeCast cast = new ChromeCast("localhost");
+
+    static class Custom implements Request, Response {
+        Long requestId;
+
+        @Override
+        public Long getRequestId() {
+            return requestId;
+        }
+
+        @Override
+        public void setRequestId(Long requestId) {
+            this.requestId = requestId;
+        }
+    }
+
+    @Before
+    public void initMockedCast() throws Exception {
+        chromeCastStub = new MockedChromeCast();
+        cast.connect();
+        cast.launchApp("abcd");
+    }
+
+    private List<ChromeCastFuture<Custom>> sendRequests() throws IOException {
+        List<ChromeCastFuture<Custom>> futures = new ArrayList<ChromeCastFuture<Custom>>();
+        for (int i = 0; i < REQUESTS; i++) {
+            futures.add(cast.sendAsync("urn:x-cast:com.example", new Custom(), Custom.class));
+        }
+        return futures;
+    }
+
+    /**
+     * Waits until all futures fail with connection lost exception.
+     */
+    private void awaitConnectionLost(List<ChromeCastFuture<Custom>> futures) throws Exception {
+        for (ChromeCastFuture<Custom> future : futures) {
+            try {
+                future.get(FAILURE_TIMEOUT, TimeUnit.MILLISECONDS);
+                fail("Exception expected");
+            } catch (ExecutionException e) {
+                assertTrue(e.getCause() instanceof ChromeCastConnectionLostException);
+            }
+        }
+    }
+
+    /**
+     * Makes device ignore all messages and counts down returned latch once specified number of them is received.
+     */
+    private CountDownLatch silence(int messages) {
+        CountDownLatch ignored = new CountDownLatch(messages);
+        chromeCastStub.ignored = ignored;
+        chromeCastStub.silent = true;
+        return ignored;
+    }
+
+    @Test
+    public void testFailOnRemoteClose() throws Exception {
+        // requests wait for status of receiver, which is never answered
+        CountDownLatch ignored = silence(1);
+        long sent = System.currentTimeMillis();
+        List<ChromeCastFuture<Custom>> futures = sendRequests();
+        assertTrue(ignored.await(FAILURE_TIMEOUT, TimeUnit.MILLISECONDS));
+        assertTrue(cast.getRequestsInFlight() > 0);
+        long age = cast.getOldestRequestAge();
+        assertTrue(age >= 0 && age <= System.currentTimeMillis() - sent);
+
+        chromeCastStub.close();
+        awaitConnectionLost(futures);
+        assertFalse(cast.isConnected());
+        assertEquals(0, cast.getRequestsInFlight());
+        assertEquals(0, cast.getOldestRequestAge());
+    }
+
+    @Test
+    public void testFailOnDeadPeer() throws Exception {
+        // reconnect, so heartbeat is scheduled with shorter timeout right away
+        cast.disconnect();
+        cast.setLivenessTimeout(600);
+        cast.connect();
+        chromeCastStub.silent = true;
+        awaitConnectionLost(sendRequests());
+    }
+
+    @Test
+    public void testSynchronousRequestFailsOnRemoteClose() throws Exception {
+        final CountDownLatch ignored = silence(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            // device goes away once it has got the request
+            Future<Void> closed = executor.submit(new Callable<Void>() {
+                @Override
+                public Void call() throws Exception {
+                    assertTrue(ignored.await(FAILURE_TIMEOUT, TimeUnit.MILLISECONDS));
+                    chromeCastStub.close();
+                    return null;
+                }
+            });
+            try {
+                cast.send("urn:x-cast:com.example", new Custom(), Custom.class);
+                fail("Exception expected");
+            } catch (ChromeCastConnectionLostException e) {
+                // expected, request does not wait for its timeout
+            }
+            closed.get();
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testDrainOnDisconnect() throws Exception {
+        chromeCastStub.latency = 50;
+        chromeCastStub.customHandler = new MockedChromeCast.CustomHandler() {
+            @Override
+            public Response handle(JsonNode json) {
+                return new Custom();
+            }
+        };
+        List<ChromeCastFuture<Custom>> futures = sendRequests();
+
+        cast.disconnect(FAILURE_TIMEOUT);
+        assertFalse(cast.isConnected());
+        for (ChromeCastFuture<Custom> future : futures) {
+            assertNotNull(future.get(0, TimeUnit.MILLISECONDS));
+        }
+    }
+
+    @Test
+    public void testDrainWaitsForDependentSteps() throws Exception {
+        chromeCastStub.customHandler = new MockedChromeCast.CustomHandler() {
+            @Override
+            public Response handle(JsonNode json) {
+                return new Custom();
+            }
+        };
+        // responses are bound and dependent steps are run by this thread, one by one
+        final BlockingQueue<Runnable> steps = new LinkedBlockingQueue<Runnable>();
+        cast.setDecodeExecutor(new Executor() {
+            @Override
+            public void execute(Runnable command) {
+                steps.add(command);
+            }
+        });
+        ChromeCastFuture<Custom> future = cast.sendAsync("urn:x-cast:com.example", new Custom(), Custom.class);
+        Runnable step = steps.poll(FAILURE_TIMEOUT, TimeUnit.MILLISECONDS);
+        assertNotNull(step);
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<Void> disconnected = executor.submit(new Callable<Void>() {
+                @Override
+                public Void call() throws Exception {
+                    cast.disconnect(FAILURE_TIMEOUT);
+                    return null;
+                }
+            });
+            try {
+                disconnected.get(200, TimeUnit.MILLISECONDS);
+                fail("Disconnected before dependent request was sent");
+            } catch (TimeoutException e) {
+                // expected, status is not handled yet
+            }
+            while (step != null) {
+                step.run();
+                step = future.isDone() ? null : steps.poll(FAILURE_TIMEOUT, TimeUnit.MILLISECONDS);
+            }
+            disconnected.get();
+        } finally {
+            executor.shutdownNow();
+        }
+        assertNotNull(future.get(0, TimeUnit.MILLISECONDS));
+        assertFalse(cast.isConnected());
+    }
+
+    @Test
+    public void testDrainTimeout() throws Exception {
+        chromeCastStub.silent = true;
+        List<ChromeCastFuture<Custom>> futures = sendRequests();
+
+        long start = System.currentTimeMillis();
+        cast.disconnect(300);
+        assertTrue(System.currentTimeMillis() - start >= 300);
+        awaitConnectionLost(futures);
+    }
+
+    @After
+    public void destroy() throws IOException {
+        if (cast.isConnected()) {
+            cast.disconnect();
+        }
+        chromeCastStub.close();
+    }
+}
@@ -0,0 +1,111 @@
+/*
+ * Copyright 2026 Vitaly Litvak (vitavaque@gmail.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package su.litvak.chromecast.api.v2;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+public class RequestCoalescingTest {
+    static final int CALLERS = 10;
+
+    MockedChromeCast chromeCastStub;
+    ChromeCast cast = new ChromeCast("localhost");
+    ExecutorService executor = Executors.newFixedThreadPool(CALLERS);
+
+    @Before
+    public void init() throws Exception {
+        chromeCastStub = new MockedChromeCast();
+        cast.connect();
+        chromeCastStub.latency = 300;
+    }
+
+    @After
+    public void destroy() throws Exception {
+        executor.shutdownNow();
+        cast.disconnect();
+        chromeCastStub.close();
+    }
+
+    private int statusRequests() {
+        int count = 0;
+        for (String type : chromeCastStub.receivedTypes) {
+            if ("GET_STATUS".equals(type)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Calls {@link ChromeCast#getStatus()} from all threads at once.
+     */
+    private void getStatusConcurrently() throws Exception {
+        final CyclicBarrier barrier = new CyclicBarrier(CALLERS);
+        List<Future<Status>> results = new ArrayList<Future<Status>>();
+        for (int i = 0; i < CALLERS; i++) {
+            results.add(executor.submit(new Callable<Status>() {
+                @Override
+                public Status call() throws Exception {
+                    barrier.await();
+                    return cast.getStatus();
+                }
+            }));
+        }
+        for (Future<Status> result : results) {
+            assertNotNull(result.get(5, TimeUnit.SECONDS));
+        }
+    }
+
+    @Test
+    public void testConcurrentCallersShareOneRequest() throws Exception {
+        getStatusConcurrently();
+        assertEquals(1, statusRequests());
+
+        // answered request is not reused
+        cast.getStatus();
+        assertEquals(2, statusRequests());
+    }
+
+    @Test
+    public void testCoalescingCanBeDisabled() throws Exception {
+        cast.setRequestCoalescing(false);
+        getStatusConcurrently();
+        assertEquals(CALLERS, statusRequests());
+    }
+
+    @Test
+    public void testCancelledCallerDoesNotCancelOthers() throws Exception {
+        ChromeCastFuture<Status> first = cast.getStatusAsync();
+        ChromeCastFuture<Status> second = cast.getStatusAsync();
+        assertTrue(first.cancel(false));
+        assertNotNull(second.get(5, TimeUnit.SECONDS));
+        assertEquals(1, statusRequests());
+    }
+}
@@ -0,0 +1,92 @@
+/*
+ * Copyright 2026 Vitaly Litvak (vitavaque@gmail.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package su.litvak.chromecast.api.v2;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class SessionResumptionTest {
+    final Logger logger = LoggerFactory.getLogger(SessionResumptionTest.class);
+    MockedChromeCast chromeCastStub;
+    ChromeCast cast = new ChromeCast("localhost");
+    NioTransportGroup group;
+    final List<ChromeCastConnectionEvent> events = new CopyOnWriteArrayList<ChromeCastConnectionEvent>();
+
+    @Before
+    public void initMockedCast() throws Exception {
+        chromeCastStub = new MockedChromeCast();
+        cast.registerConnectionListener(new ChromeCastConnectionEventListener() {
+            @Override
+            public void connectionEventReceived(ChromeCastConnectionEvent event) {
+                events.add(event);
+            }
+        });
+    }
+
+    @Test
+    public void testBlockingTransport() throws Exception {
+        reconnect();
+    }
+
+    @Test
+    public void testNioTransport() throws Exception {
+        group = new NioTransportGroup(1);
+        cast.setTransportGroup(group);
+        reconnect();
+    }
+
+    private void reconnect() throws Exception {
+        cast.connect();
+        cast.disconnect();
+        cast.connect();
+
+        assertEquals(3, events.size());
+        ChromeCastConnectionEvent first = events.get(0);
+        ChromeCastConnectionEvent second = events.get(2);
+        logger.info("First handshake took {} ms (resumed: {}), second took {} ms (resumed: {})",
+                first.getHandshakeTime(), first.isSessionResumed(),
+                second.getHandshakeTime(), second.isSessionResumed());
+
+        assertTrue(first.isConnected());
+        assertTrue(first.getHandshakeTime() >= 0);
+        assertFalse(events.get(1).isConnected());
+        assertEquals(-1, events.get(1).getHandshakeTime());
+        assertTrue(second.isConnected());
+        assertTrue(second.isSessionResumed());
+    }
+
+    @After
+    public void destroy() throws IOException {
+        if (cast.isConnected()) {
+            cast.disconnect();
+        }
+        chromeCastStub.close();
+        if (group != null) {
+            group.close();
+        }
+    }
+}
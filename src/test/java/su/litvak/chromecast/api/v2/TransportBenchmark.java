@@ -0,0 +1,172 @@
+/*
+ * Copyright 2026 Vitaly Litvak (vitavaque@gmail.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package su.litvak.chromecast.api.v2;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * <p>Compares blocking and non-blocking transports: number of library threads, heap used per connection and
+ * p99 latency of 'GET_STATUS' request for 10, 100 and 1000 devices simulated by {@link MockedChromeCast}.
+ * Failed requests are counted separately and excluded from latencies.</p>
+ *
+ * <p>Run with <code>mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=su.litvak.chromecast.api.v2.TransportBenchmark</code>. Simulating 1000 devices needs about
+ * 3000 threads in total, so <code>ulimit -u</code> may need to be raised.</p>
+ */
+public final class TransportBenchmark {
+    private static final int PORT = 8010;
+    private static final int REQUESTS_PER_DEVICE = 10;
+    private static final int CALLER_THREADS = 16;
+    private static final long REQUEST_TIMEOUT = 5000;
+
+    private TransportBenchmark() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        System.setProperty("org.slf4j.simpleLogger.defaultLogLevel", "warn");
+        int[] deviceCounts = args.length == 0 ? new int[] {10, 100, 1000} : parse(args);
+
+        MockedChromeCast stub = new MockedChromeCast(PORT);
+        try {
+            System.out.println("transport  devices  threads  heap/conn(KB)  p50(ms)  p99(ms)  errors");
+            for (int devices : deviceCounts) {
+                run(devices, false);
+                run(devices, true);
+            }
+        } finally {
+            stub.close();
+        }
+    }
+
+    private static int[] parse(String[] args) {
+        int[] result = new int[args.length];
+        for (int i = 0; i < args.length; i++) {
+            result[i] = Integer.parseInt(args[i]);
+        }
+        return result;
+    }
+
+    private static void run(int devices, boolean nio) throws Exception {
+        long heapBefore = usedHeap();
+        int threadsBefore = libraryThreads();
+        NioTransportGroup group = nio ? new NioTransportGroup() : null;
+
+        List<ChromeCast> casts = new ArrayList<ChromeCast>(devices);
+        for (int i = 0; i < devices; i++) {
+            ChromeCast cast = new ChromeCast("localhost", PORT);
+            cast.setTransportGroup(group);
+            cast.connect();
+            cast.setRequestTimeout(REQUEST_TIMEOUT);
+            casts.add(cast);
+        }
+
+        long heapPerConnection = (usedHeap() - heapBefore) / devices;
+        int threads = libraryThreads() - threadsBefore;
+        long[] latencies = measureLatencies(casts);
+        int errors = 0;
+        for (long latency : latencies) {
+            if (latency < 0) {
+                errors++;
+            }
+        }
+
+        for (ChromeCast cast : casts) {
+            cast.disconnect();
+        }
+        if (group != null) {
+            group.close();
+        }
+
+        System.out.println(String.format("%-9s  %7d  %7d  %13.1f  %7.2f  %7.2f  %6d", nio ? "nio" : "blocking",
+                devices, threads, heapPerConnection / 1024d, percentile(latencies, 0.5) / 1e6,
+                percentile(latencies, 0.99) / 1e6, errors));
+    }
+
+    /**
+     * Each device gets its requests sequentially, while devices are queried concurrently.
+     */
+    private static long[] measureLatencies(final List<ChromeCast> casts) throws Exception {
+        ExecutorService callers = Executors.newFixedThreadPool(CALLER_THREADS);
+        try {
+            List<Future<long[]>> results = new ArrayList<Future<long[]>>();
+            for (final ChromeCast cast : casts) {
+                results.add(callers.submit(new Callable<long[]>() {
+                    @Override
+                    public long[] call() throws Exception {
+                        long[] latencies = new long[REQUESTS_PER_DEVICE];
+                        for (int i = 0; i < latencies.length; i++) {
+                            long start = System.nanoTime();
+                            try {
+                                cast.getStatus();
+                                latencies[i] = System.nanoTime() - start;
+                            } catch (IOException ioex) {
+                                latencies[i] = -1;
+                            }
+                        }
+                        return latencies;
+                    }
+                }));
+            }
+            long[] latencies = new long[results.size() * REQUESTS_PER_DEVICE];
+            for (int i = 0; i < results.size(); i++) {
+                System.arraycopy(results.get(i).get(), 0, latencies, i * REQUESTS_PER_DEVICE, REQUESTS_PER_DEVICE);
+            }
+            return latencies;
+        } finally {
+            callers.shutdown();
+        }
+    }
+
+    private static long percentile(long[] values, double percentile) {
+        long[] sorted = values.clone();
+        Arrays.sort(sorted);
+        int failed = 0;
+        while (failed < sorted.length && sorted[failed] < 0) {
+            failed++;
+        }
+        if (failed == sorted.length) {
+            return 0;
+        }
+        int count = sorted.length - failed;
+        return sorted[failed + Math.min(count - 1, Math.max(0, (int) Math.ceil(percentile * count) - 1))];
+    }
+
+    private static int libraryThreads() {
+        int count = 0;
+        for (Thread thread : Thread.getAllStackTraces().keySet()) {
+            if (thread.getName().startsWith("ChromeCast ")) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private static long usedHeap() throws InterruptedException {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+            Thread.sleep(50);
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}